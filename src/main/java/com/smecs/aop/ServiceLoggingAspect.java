@@ -6,6 +6,7 @@ import com.smecs.dto.OrderQuery;
 import com.smecs.dto.ProductQuery;
 import com.smecs.dto.InventoryQuery;
 import com.smecs.service.impl.CategoryServiceImpl;
+import com.smecs.service.impl.OrderSearchCaches;
 import com.smecs.service.impl.OrderServiceImpl;
 import com.smecs.service.impl.ProductServiceImpl;
 import com.smecs.service.impl.InventoryServiceImpl;
@@ -31,11 +32,14 @@ public class ServiceLoggingAspect {
     private static final Logger logger = LoggerFactory.getLogger(ServiceLoggingAspect.class);
     private final CacheManager cacheManager;
     private final boolean cacheEnabled;
+    private final OrderSearchCaches orderSearchCaches;
 
     @Autowired
-    public ServiceLoggingAspect(CacheManager cacheManager, @Value("${app.cache.enabled:true}") boolean cacheEnabled) {
+    public ServiceLoggingAspect(CacheManager cacheManager, @Value("${app.cache.enabled:true}") boolean cacheEnabled,
+                                OrderSearchCaches orderSearchCaches) {
         this.cacheManager = cacheManager;
         this.cacheEnabled = cacheEnabled;
+        this.orderSearchCaches = orderSearchCaches;
     }
 
     @Pointcut("execution(* com.smecs.service.ProductService.getProducts(..)) || " +
@@ -122,7 +126,7 @@ public class ServiceLoggingAspect {
                 return CacheTarget.of(CacheConfig.ORDERS_BY_ID, id, String.valueOf(id));
             }
             if ("getAllOrders".equals(methodName) && args.length == 1 && args[0] instanceof OrderQuery) {
-                String key = OrderServiceImpl.searchCacheKey((OrderQuery) args[0]);
+                String key = orderSearchCaches.adminKey((OrderQuery) args[0]);
                 return CacheTarget.of(CacheConfig.ORDER_SEARCH, key, key);
             }
             if ("getOrdersByUserId".equals(methodName) && args.length >= 2 && args[1] instanceof OrderQuery) {
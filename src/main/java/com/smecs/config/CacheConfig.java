@@ -24,14 +24,22 @@ public class CacheConfig {
     public static final String CATEGORIES_BY_ID = "categoriesById";
     public static final String CATEGORY_SEARCH = "categorySearch";
     public static final String ORDERS_BY_ID = "ordersById";
+    public static final String ORDER_DETAILS = "orderDetails";
     public static final String ORDER_SEARCH = "orderSearch";
     public static final String USER_ORDER_SEARCH = "userOrderSearch";
     public static final String INVENTORIES_BY_ID = "inventoriesById";
     public static final String INVENTORIES_BY_PRODUCT_ID = "inventoriesByProductId";
     public static final String INVENTORY_SEARCH = "inventorySearch";
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+    public static final String CART_SUMMARY = "cartSummary";
 
     private static final long DEFAULT_TTL_MINUTES = 5;
     private static final long DEFAULT_MAX_SIZE = 1_000;
+    // Cart summaries include stock levels, which are not evicted on every sale, so they expire sooner.
+    private static final long CART_SUMMARY_TTL_SECONDS = 60;
+    private static final long CART_SUMMARY_MAX_SIZE = 10_000;
 
     @PostConstruct
     public void started() {
@@ -46,17 +54,26 @@ public class CacheConfig {
                 CATEGORIES_BY_ID,
                 CATEGORY_SEARCH,
                 ORDERS_BY_ID,
+                ORDER_DETAILS,
                 ORDER_SEARCH,
                 USER_ORDER_SEARCH,
                 INVENTORIES_BY_ID,
                 INVENTORIES_BY_PRODUCT_ID,
-                INVENTORY_SEARCH
+                INVENTORY_SEARCH,
+                USERS_BY_ID,
+                USERS_BY_USERNAME,
+                USERS_BY_EMAIL
         );
         manager.setCaffeine(
                 Caffeine.newBuilder()
                         .expireAfterWrite(Duration.ofMinutes(DEFAULT_TTL_MINUTES))
                         .maximumSize(DEFAULT_MAX_SIZE)
         );
+        manager.registerCustomCache(CART_SUMMARY,
+                Caffeine.newBuilder()
+                        .expireAfterWrite(Duration.ofSeconds(CART_SUMMARY_TTL_SECONDS))
+                        .maximumSize(CART_SUMMARY_MAX_SIZE)
+                        .build());
         return manager;
     }
 }
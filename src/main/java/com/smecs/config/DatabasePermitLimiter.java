@@ -0,0 +1,97 @@
+package com.smecs.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many executor tasks may run database work at once. In virtual-thread
+ * mode nothing else bounds the number of concurrent report queries or async event
+ * writes, so without this they would all block inside Hikari's
+ * {@code getConnection()} and fail after its connection timeout. Tasks instead
+ * park on the semaphore, which is cheap for a virtual thread. Once every permit is
+ * held and {@code maxWaiting} tasks are already parked, further tasks are rejected
+ * when submitted, so callers get a {@link RejectedExecutionException} instead of
+ * an ever-growing backlog.
+ *
+ * <p>Only work submitted to the decorated executors is limited. Database calls made
+ * directly on request threads (controllers, services, JPA repositories) never take
+ * a permit and compete with permit holders for Hikari connections; reserve
+ * connections for them with {@code app.threads.db-permits}.</p>
+ *
+ * <p>Every decorated task is also timed as {@code smecs.executor.tasks}, tagged
+ * with the executor name and thread mode, so throughput can be compared between
+ * modes.</p>
+ */
+public class DatabasePermitLimiter {
+
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final boolean limiting;
+    private final String threadMode;
+    private final MeterRegistry meterRegistry;
+    private final Timer permitWait;
+
+    public DatabasePermitLimiter(int permits, int maxWaiting, boolean limiting, String threadMode,
+                                 MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(permits, true);
+        this.maxWaiting = maxWaiting;
+        this.limiting = limiting;
+        this.threadMode = threadMode;
+        this.meterRegistry = meterRegistry;
+        this.permitWait = Timer.builder("smecs.db.permit.wait")
+                .description("Time executor tasks waited for a database permit")
+                .register(meterRegistry);
+        Gauge.builder("smecs.db.permits.available", this.permits, Semaphore::availablePermits)
+                .description("Database permits not currently held by executor tasks")
+                .register(meterRegistry);
+    }
+
+    public TaskDecorator decorator(String executorName) {
+        Timer taskTimer = Timer.builder("smecs.executor.tasks")
+                .description("Executor task run time, including any wait for a database permit")
+                .tag("executor", executorName)
+                .tag("mode", threadMode)
+                .register(meterRegistry);
+        return task -> {
+            // Runs on the submitting thread, so the rejection reaches the caller.
+            if (limiting && permits.availablePermits() == 0 && permits.getQueueLength() >= maxWaiting) {
+                throw new RejectedExecutionException("No database permit available for " + executorName
+                        + " task: " + permits.getQueueLength() + " tasks already waiting");
+            }
+            return () -> {
+                long start = System.nanoTime();
+                try {
+                    if (limiting) {
+                        runWithPermit(task);
+                    } else {
+                        task.run();
+                    }
+                } finally {
+                    taskTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
+
+    private void runWithPermit(Runnable task) {
+        long waitStart = System.nanoTime();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        permitWait.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        try {
+            task.run();
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -1,21 +1,33 @@
 package com.smecs.config;
 
+import com.smecs.security.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
 /**
  * Isolated configuration for the PasswordEncoder bean.
  * Keeping it in a separate class breaks the circular dependency:
  *   SecurityConfig → OAuth2SuccessHandler → UserServiceImpl → PasswordEncoder → SecurityConfig
+ *
+ * Hashing runs on the bounded {@code passwordHashingExecutor}. Raising
+ * {@code app.security.bcrypt.strength} re-hashes stored passwords on their next
+ * successful login (see {@link com.smecs.security.SmecsUserDetailsService#updatePassword}).
  */
 @Configuration
 public class PasswordEncoderConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Qualifier("passwordHashingExecutor") Executor passwordHashingExecutor,
+                                           @Value("${app.security.bcrypt.strength:10}") int strength,
+                                           @Value("${app.security.hashing.timeout-ms:5000}") long timeoutMs) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength),
+                passwordHashingExecutor, Duration.ofMillis(timeoutMs));
     }
 }
-
@@ -0,0 +1,19 @@
+package com.smecs.config;
+
+import com.smecs.security.LocalRateLimiterBackend;
+import com.smecs.security.RateLimiterBackend;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(RateLimiterBackend.class)
+    public RateLimiterBackend rateLimiterBackend() {
+        return new LocalRateLimiterBackend();
+    }
+}
@@ -0,0 +1,63 @@
+package com.smecs.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token-bucket limits per route group. Groups are matched in declaration order and
+ * the first group whose patterns (and methods, if set) match the request applies;
+ * requests matching no group are not limited.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    public enum KeyType {
+        /** One bucket per client IP. */
+        IP,
+        /** One bucket per authenticated user id, falling back to the client IP. */
+        USER
+    }
+
+    private boolean enabled = true;
+
+    private Map<String, Group> groups = defaultGroups();
+
+    @Getter
+    @Setter
+    public static class Group {
+        private List<String> patterns = new ArrayList<>();
+        /** HTTP methods this group applies to; empty means all methods. */
+        private List<String> methods = new ArrayList<>();
+        private long capacity;
+        private double refillPerSecond;
+        private KeyType key = KeyType.IP;
+
+        static Group of(long capacity, double refillPerSecond, KeyType key, List<String> methods, String... patterns) {
+            Group group = new Group();
+            group.setCapacity(capacity);
+            group.setRefillPerSecond(refillPerSecond);
+            group.setKey(key);
+            group.setMethods(new ArrayList<>(methods));
+            group.setPatterns(new ArrayList<>(List.of(patterns)));
+            return group;
+        }
+    }
+
+    private static Map<String, Group> defaultGroups() {
+        Map<String, Group> groups = new LinkedHashMap<>();
+        groups.put("auth", Group.of(10, 0.5, KeyType.IP, List.of(), "/api/auth/login", "/api/auth/register"));
+        groups.put("graphql", Group.of(30, 10, KeyType.USER, List.of(), "/graphql"));
+        groups.put("public-read", Group.of(60, 20, KeyType.IP, List.of("GET"),
+                "/api/products/**", "/api/categories/**", "/api/reviews/**"));
+        groups.put("api", Group.of(120, 40, KeyType.USER, List.of(), "/api/**"));
+        return groups;
+    }
+}
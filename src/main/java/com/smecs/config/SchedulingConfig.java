@@ -0,0 +1,20 @@
+package com.smecs.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import jakarta.annotation.PostConstruct;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+    private static final Logger log = LoggerFactory.getLogger(SchedulingConfig.class);
+
+    @PostConstruct
+    public void started() {
+        log.info("SchedulingConfig active: app.scheduling.enabled=true (background jobs enabled)");
+    }
+}
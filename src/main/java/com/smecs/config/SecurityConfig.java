@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smecs.dto.ResponseDTO;
 import com.smecs.security.JwtAuthenticationFilter;
 import com.smecs.security.OAuth2AuthenticationSuccessHandler;
+import com.smecs.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -32,6 +34,7 @@ import java.util.List;
 @EnableMethodSecurity   // enables @PreAuthorize, @PostAuthorize, etc.
 public class SecurityConfig {
 
+    private final RateLimitFilter rateLimitFilter;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final OAuth2AuthenticationSuccessHandler oAuth2SuccessHandler;
     private final ClientRegistrationRepository clientRegistrationRepository;
@@ -57,7 +60,9 @@ public class SecurityConfig {
 
             // Authorization rules
             .authorizeHttpRequests(auth -> auth
-                    .requestMatchers("/api/auth/login", "/api/auth/register").permitAll()
+                    // Async report results are written on a second dispatch; the original request was already authorized.
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers("/api/auth/login", "/api/auth/register", "/api/auth/refresh").permitAll()
                     .requestMatchers("/oauth2/**", "/login/oauth2/**").permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/categories/**").permitAll()
@@ -109,7 +114,9 @@ public class SecurityConfig {
                     })
             )
 
-            // Validate JWT before the standard username/password filter
+            // Throttle first, then validate JWT, both before the standard username/password filter
+            // (filters registered at the same position run in the order they are added)
+            .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
             ;
 
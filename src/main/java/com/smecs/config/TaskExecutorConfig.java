@@ -1,22 +1,130 @@
 package com.smecs.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.micrometer.metrics.autoconfigure.MeterRegistryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import javax.sql.DataSource;
 import java.util.concurrent.Executor;
 
+/**
+ * Executors follow {@code spring.threads.virtual.enabled}, the same switch that
+ * moves Tomcat's request threads and the scheduler onto virtual threads. In virtual
+ * mode report queries and {@code @Async} work get a virtual thread per task, and
+ * {@link DatabasePermitLimiter} bounds their database concurrency instead of a
+ * fixed pool size.
+ */
 @Configuration
 public class TaskExecutorConfig {
+    private static final Logger log = LoggerFactory.getLogger(TaskExecutorConfig.class);
+
+    private static final int DEFAULT_DB_PERMITS = 10;
+
+    private final boolean virtualThreads;
+
+    public TaskExecutorConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        log.info("Thread mode: {}", threadMode());
+    }
+
+    /** Tags every meter with the thread mode so dashboards can compare the two. */
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> threadModeMetricsTag() {
+        return registry -> registry.config().commonTags("thread.mode", threadMode());
+    }
+
+    /**
+     * Permits default to the Hikari pool size so executor tasks never wait in
+     * Hikari itself; set {@code app.threads.db-permits} to keep some connections
+     * free for request threads, whose own database work is not limited. Once
+     * {@code app.threads.db-permit-max-waiting} tasks are waiting for a permit, new
+     * tasks are rejected.
+     */
+    @Bean
+    public DatabasePermitLimiter databasePermitLimiter(DataSource dataSource,
+                                                       MeterRegistry meterRegistry,
+                                                       @Value("${app.threads.db-permits:0}") int configuredPermits,
+                                                       @Value("${app.threads.db-permit-max-waiting:100}") int maxWaiting) {
+        int permits = configuredPermits > 0 ? configuredPermits : hikariPoolSize(dataSource);
+        return new DatabasePermitLimiter(permits, maxWaiting, virtualThreads, threadMode(), meterRegistry);
+    }
+
     @Bean("reportTaskExecutor")
-    public Executor reportTaskExecutor() {
+    public Executor reportTaskExecutor(DatabasePermitLimiter databasePermitLimiter) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("report-", databasePermitLimiter, "report");
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         // sensible defaults; tune to your environment
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(8);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("report-");
+        executor.setTaskDecorator(databasePermitLimiter.decorator("report"));
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor for {@code @Async} methods, picked up by name. Platform mode keeps
+     * the previous thread-per-task behaviour, now with task metrics.
+     */
+    @Bean("taskExecutor")
+    public Executor taskExecutor(DatabasePermitLimiter databasePermitLimiter) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("async-", databasePermitLimiter, "async");
+        }
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+        executor.setTaskDecorator(databasePermitLimiter.decorator("async"));
+        return executor;
+    }
+
+    /**
+     * Password hashing pool, kept below the core count so a login storm cannot take
+     * every CPU from catalog traffic. The default AbortPolicy rejects work once the
+     * queue is full instead of running it on the caller's thread. Hashing is CPU
+     * bound, so it stays on platform threads in both modes.
+     */
+    @Bean("passwordHashingExecutor")
+    public Executor passwordHashingExecutor(
+            @Value("${app.security.hashing.threads:0}") int threads,
+            @Value("${app.security.hashing.queue-capacity:50}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("auth-hash-");
         executor.initialize();
         return executor;
     }
+
+    private Executor virtualThreadExecutor(String threadNamePrefix, DatabasePermitLimiter limiter, String name) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(limiter.decorator(name));
+        return executor;
+    }
+
+    private String threadMode() {
+        return virtualThreads ? "virtual" : "platform";
+    }
+
+    private static int hikariPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (java.sql.SQLException e) {
+            log.warn("Could not read Hikari pool size, using {} database permits", DEFAULT_DB_PERMITS, e);
+        }
+        return DEFAULT_DB_PERMITS;
+    }
 }
@@ -10,6 +10,8 @@ import com.smecs.exception.UnauthorizedException;
 import com.smecs.security.AuthCookieUtils;
 import com.smecs.security.SmecsUserPrincipal;
 import com.smecs.service.AuthenticationService;
+import com.smecs.service.LoginAttemptService;
+import com.smecs.service.RefreshTokenService;
 import com.smecs.service.UserService;
 import lombok.AllArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -38,6 +40,8 @@ public class AuthController {
     private final JwtUtil jwtUtil;
     private final SecurityEventService securityEventService;
     private final TokenRevocationService tokenRevocationService;
+    private final LoginAttemptService loginAttemptService;
+    private final RefreshTokenService refreshTokenService;
 
     @PostMapping("/register")
     public ResponseEntity<ResponseDTO<UserResponseDTO>> register(@Valid @RequestBody UserRegisterDTO dto,
@@ -46,6 +50,8 @@ public class AuthController {
         User user = userService.registerUser(dto);
         String token = jwtUtil.generateToken(user);
         AuthCookieUtils.addAccessTokenCookie(response, token, jwtUtil.getExpirationTimeSeconds());
+        AuthCookieUtils.addRefreshTokenCookie(response,
+                refreshTokenService.issue(toPrincipal(user)), refreshTokenService.getTtlSeconds());
         securityEventService.recordTokenIssued(user, token, RequestMetadata.from(request));
         UserResponseDTO responseBody = mapToDTO(user);
         responseBody.setToken(token);
@@ -57,23 +63,65 @@ public class AuthController {
     public ResponseEntity<ResponseDTO<UserResponseDTO>> login(@Valid @RequestBody UserLoginDTO dto,
                                                               HttpServletResponse response,
                                                               HttpServletRequest request) {
+        RequestMetadata metadata = RequestMetadata.from(request);
+        // Checked before authenticating so abusive clients never reach the password hash comparison.
+        if (loginAttemptService.isBlocked(dto.getUsername(), metadata.getIpAddress())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(new ResponseDTO<>("error", "Too many failed login attempts, try again later", null));
+        }
         try {
             Authentication authentication = authenticationService.authenticateUser(dto.getUsername(), dto.getPassword());
             SmecsUserPrincipal principal = requirePrincipal(authentication);
             String token = jwtUtil.generateToken(principal);
             AuthCookieUtils.addAccessTokenCookie(response, token, jwtUtil.getExpirationTimeSeconds());
-            securityEventService.recordLoginSuccess(toUser(principal), RequestMetadata.from(request));
-            securityEventService.recordTokenIssued(toUser(principal), token, RequestMetadata.from(request));
+            AuthCookieUtils.addRefreshTokenCookie(response,
+                    refreshTokenService.issue(principal), refreshTokenService.getTtlSeconds());
+            loginAttemptService.recordSuccess(dto.getUsername(), metadata.getIpAddress());
+            securityEventService.recordLoginSuccess(toUser(principal), metadata);
+            securityEventService.recordTokenIssued(toUser(principal), token, metadata);
             UserResponseDTO responseBody = mapToDTO(principal);
             responseBody.setToken(token);
             return ResponseEntity.ok(new ResponseDTO<>("success", "Login successful", responseBody));
         } catch (AuthenticationException ex) {
-            securityEventService.recordLoginFailure(dto.getUsername(), RequestMetadata.from(request));
+            long attempts = loginAttemptService.recordFailure(dto.getUsername(), metadata.getIpAddress());
+            securityEventService.recordLoginFailure(dto.getUsername(), metadata, attempts);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ResponseDTO<>("error", "Invalid credentials", null));
         }
     }
 
+    /**
+     * Mints a new access token from the refresh cookie without re-checking the
+     * password or reading the users table. The refresh token is rotated on every call.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ResponseDTO<UserResponseDTO>> refresh(HttpServletRequest request,
+                                                                HttpServletResponse response) {
+        String refreshToken = AuthCookieUtils.readRefreshTokenCookie(request);
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ResponseDTO<>("error", "Missing refresh token", null));
+        }
+        RefreshTokenService.Rotation rotation;
+        try {
+            rotation = refreshTokenService.rotate(refreshToken);
+        } catch (UnauthorizedException ex) {
+            AuthCookieUtils.clearAccessTokenCookie(response);
+            AuthCookieUtils.clearRefreshTokenCookie(response);
+            throw ex;
+        }
+
+        SmecsUserPrincipal principal = rotation.principal();
+        String token = jwtUtil.generateToken(principal);
+        AuthCookieUtils.addAccessTokenCookie(response, token, jwtUtil.getExpirationTimeSeconds());
+        AuthCookieUtils.addRefreshTokenCookie(response, rotation.refreshToken(), rotation.ttlSeconds());
+        securityEventService.recordTokenIssued(toUser(principal), token, RequestMetadata.from(request));
+
+        UserResponseDTO responseBody = mapToDTO(principal);
+        responseBody.setToken(token);
+        return ResponseEntity.ok(new ResponseDTO<>("success", "Token refreshed", responseBody));
+    }
+
     @GetMapping("/verify")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Void> verify() {
@@ -90,6 +138,12 @@ public class AuthController {
     @PostMapping("/logout")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ResponseDTO<Void>> logout(HttpServletRequest request, HttpServletResponse response) {
+        String refreshToken = AuthCookieUtils.readRefreshTokenCookie(request);
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        AuthCookieUtils.clearRefreshTokenCookie(response);
+
         String token = jwtUtil.resolveToken(request);
         if (token == null || token.isBlank()) {
             AuthCookieUtils.clearAccessTokenCookie(response);
@@ -129,6 +183,10 @@ public class AuthController {
         return principal;
     }
 
+    private SmecsUserPrincipal toPrincipal(User user) {
+        return new SmecsUserPrincipal(user.getId(), user.getUsername(), user.getEmail(), user.getRole());
+    }
+
     private User toUser(SmecsUserPrincipal principal) {
         User user = new User();
         user.setId(principal.getUserId());
@@ -1,6 +1,7 @@
 package com.smecs.controller;
 
 import com.smecs.dto.CartDTO;
+import com.smecs.dto.CartSummaryDTO;
 import com.smecs.dto.CreateCartRequest;
 import com.smecs.dto.ResponseDTO;
 import com.smecs.service.CartItemService;
@@ -62,6 +63,14 @@ public class CartController {
                         .body(new ResponseDTO<>("error", "Cart not found", null)));
     }
 
+    /** Everything needed to render a cart in one call: lines, product details, stock and totals. */
+    @GetMapping("/{cartId}/summary")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<ResponseDTO<CartSummaryDTO>> getCartSummary(@PathVariable Long cartId) {
+        return ResponseEntity.ok(new ResponseDTO<>("success", "Cart summary retrieved successfully",
+                cartService.getCartSummary(cartId)));
+    }
+
     @DeleteMapping("/{cartId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ResponseDTO<Void>> deleteCart(@PathVariable Long cartId) {
@@ -1,6 +1,7 @@
 package com.smecs.controller;
 
 import com.smecs.dto.AddToCartRequest;
+import com.smecs.dto.BatchAddToCartRequest;
 import com.smecs.dto.CartItemDTO;
 import com.smecs.dto.ResponseDTO;
 import com.smecs.entity.CartItem;
@@ -31,6 +32,16 @@ public class CartItemsController {
                 .body(new ResponseDTO<>("success", "Item added to cart", mapToDTO(createdItem)));
     }
 
+    /** Adds several items in one round trip, e.g. for "reorder" or bundles; all or nothing. */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<ResponseDTO<List<CartItemDTO>>> addCartItems(@RequestBody @Valid BatchAddToCartRequest request) {
+        List<CartItemDTO> dtos = cartItemService.addItemsToCart(request).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new ResponseDTO<>("success", "Items added to cart", dtos));
+    }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('CUSTOMER')")
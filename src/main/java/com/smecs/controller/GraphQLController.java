@@ -4,6 +4,7 @@ import com.smecs.dto.*;
 import com.smecs.entity.User;
 import com.smecs.service.CategoryService;
 import com.smecs.service.InventoryService;
+import com.smecs.service.OrderService;
 import com.smecs.service.ProductService;
 import com.smecs.service.ReviewService;
 import com.smecs.service.UserService;
@@ -30,6 +31,7 @@ public class GraphQLController {
     private final InventoryService inventoryService;
     private final UserService userService;
     private final ReviewService reviewService;
+    private final OrderService orderService;
 
     // --- Products ---
 
@@ -175,6 +177,14 @@ public class GraphQLController {
         return toGqlCategory(created);
     }
 
+    // --- Orders ---
+
+    @QueryMapping
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public OrderDetailDTO order(@Argument String id) {
+        return orderService.getOrderDetail(Long.parseLong(id));
+    }
+
     // --- Users ---
 
     @QueryMapping
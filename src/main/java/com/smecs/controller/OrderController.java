@@ -1,19 +1,28 @@
 package com.smecs.controller;
 
 import com.smecs.dto.OrderDTO;
+import com.smecs.dto.OrderDetailDTO;
 import com.smecs.dto.OrderQuery;
 import com.smecs.dto.PagedResponseDTO;
 import com.smecs.dto.ResponseDTO;
 import com.smecs.dto.UpdateOrderStatusRequestDTO;
 import com.smecs.entity.Order;
+import com.smecs.exception.BadRequestException;
+import com.smecs.service.OrderExportService;
 import com.smecs.service.OrderService;
 import com.smecs.mapper.OrderMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
 
 @Validated
 @RestController
@@ -21,11 +30,13 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
     private final OrderService orderService;
     private final OrderMapper orderMapper;
+    private final OrderExportService orderExportService;
 
     @Autowired
-    public OrderController(OrderService orderService, OrderMapper orderMapper) {
+    public OrderController(OrderService orderService, OrderMapper orderMapper, OrderExportService orderExportService) {
         this.orderService = orderService;
         this.orderMapper = orderMapper;
+        this.orderExportService = orderExportService;
     }
 
     @PostMapping
@@ -43,6 +54,12 @@ public class OrderController {
         return ResponseEntity.ok(new ResponseDTO<>("success", "Order found", orderService.getOrderById(id)));
     }
 
+    @GetMapping("/{id}/details")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<ResponseDTO<OrderDetailDTO>> getOrderDetail(@PathVariable Long id) {
+        return ResponseEntity.ok(new ResponseDTO<>("success", "Order found", orderService.getOrderDetail(id)));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<ResponseDTO<OrderDTO>> updateOrderStatus(@PathVariable Long id, @RequestBody UpdateOrderStatusRequestDTO request) {
@@ -55,13 +72,23 @@ public class OrderController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt,desc") String sort,
-            @RequestParam(required = false) Order.Status status) {
+            @RequestParam(required = false) Order.Status status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) Double minTotal,
+            @RequestParam(required = false) Double maxTotal) {
 
         OrderQuery query = OrderQuery.builder()
                 .page(page)
                 .size(size)
                 .sort(sort)
                 .status(status)
+                .userId(userId)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .minTotal(minTotal)
+                .maxTotal(maxTotal)
                 .build();
 
         return ResponseEntity.ok(orderService.getAllOrders(query));
@@ -73,17 +100,49 @@ public class OrderController {
             @PathVariable Long userId,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt,desc") String sort) {
+            @RequestParam(defaultValue = "createdAt,desc") String sort,
+            @RequestParam(required = false) Order.Status status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) Double minTotal,
+            @RequestParam(required = false) Double maxTotal) {
 
         OrderQuery query = OrderQuery.builder()
                 .page(page)
                 .size(size)
                 .sort(sort)
+                .status(status)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .minTotal(minTotal)
+                .maxTotal(maxTotal)
                 .build();
 
         return ResponseEntity.ok(orderService.getOrdersByUserId(userId, query));
     }
 
+    /**
+     * Streams every order as CSV or NDJSON ({@code format=csv|ndjson}) from a database
+     * cursor, in constant memory and without per-page COUNT queries. Written on the
+     * request thread rather than as an async request, so the export's time limit is
+     * its own ({@code app.orders.export.timeout-seconds}) and not the MVC async timeout
+     * shared with other endpoints.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public void exportOrders(@RequestParam(defaultValue = "csv") String format,
+                             HttpServletResponse response) throws IOException {
+        OrderExportService.Format exportFormat = OrderExportService.Format.parse(format)
+                .orElseThrow(() -> new BadRequestException("format must be csv or ndjson"));
+
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("orders." + exportFormat.extension())
+                .build()
+                .toString());
+        orderExportService.exportOrders(exportFormat, response.getOutputStream());
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<ResponseDTO<Void>> deleteOrder(@PathVariable Long id) {
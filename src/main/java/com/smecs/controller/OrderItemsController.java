@@ -4,6 +4,8 @@ import com.smecs.dto.OrderItemDTO;
 import com.smecs.dto.ResponseDTO;
 import com.smecs.entity.OrderItem;
 import com.smecs.exception.ResourceNotFoundException;
+import com.smecs.mapper.OrderItemMapper;
+import com.smecs.service.CheckoutService;
 import com.smecs.service.OrderItemService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -18,11 +20,21 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/order-items")
 public class OrderItemsController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
     private final OrderItemService orderItemService;
+    private final CheckoutService checkoutService;
+    private final OrderItemMapper orderItemMapper;
 
     @Autowired
-    public OrderItemsController(OrderItemService orderItemService) {
+    public OrderItemsController(OrderItemService orderItemService,
+                                CheckoutService checkoutService,
+                                OrderItemMapper orderItemMapper) {
         this.orderItemService = orderItemService;
+        this.checkoutService = checkoutService;
+        this.orderItemMapper = orderItemMapper;
     }
 
     @GetMapping("/{id}")
@@ -42,13 +54,25 @@ public class OrderItemsController {
         return ResponseEntity.ok(new ResponseDTO<>("success", "Order items retrieved", dtos));
     }
 
+    /**
+     * Checks out the cart. Clients should send an {@code Idempotency-Key} and reuse it
+     * on retries; a retry of a completed checkout returns the original items with
+     * {@code Idempotent-Replayed: true} instead of placing another order.
+     */
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<ResponseDTO<List<OrderItemDTO>>> createOrderItems() {
-        List<OrderItem> savedItems = orderItemService.createOrderItems();
-        List<OrderItemDTO> dtos = savedItems.stream().map(this::mapToDTO).collect(Collectors.toList());
+    public ResponseEntity<ResponseDTO<List<OrderItemDTO>>> createOrderItems(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null
+                && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ResponseDTO<>("error",
+                            "Idempotency-Key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters", null));
+        }
+        CheckoutService.Result result = checkoutService.checkout(idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(new ResponseDTO<>("success", "Order items created", dtos));
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(new ResponseDTO<>("success", "Order items created", result.items()));
     }
 
     @PutMapping("/{id}")
@@ -76,12 +100,6 @@ public class OrderItemsController {
     }
 
     private OrderItemDTO mapToDTO(OrderItem item) {
-        OrderItemDTO dto = new OrderItemDTO();
-        dto.setId(item.getOrderItemId());
-        dto.setOrderId(item.getOrder() != null ? item.getOrder().getId() : null);
-        dto.setProductId(item.getProduct() != null ? item.getProduct().getId() : null);
-        dto.setQuantity(item.getQuantity());
-        dto.setPrice(item.getPriceAtPurchase());
-        return dto;
+        return orderItemMapper.toDTO(item);
     }
 }
@@ -2,10 +2,11 @@ package com.smecs.controller;
 
 import com.smecs.dto.*;
 import com.smecs.entity.SecurityEventType;
-import com.smecs.repository.SecurityEventRepository;
+import com.smecs.service.ReportEngine;
+import com.smecs.service.SecurityEventReportService;
+import com.smecs.service.SecurityEventSketchService;
+import com.smecs.util.ReportScope.Subtask;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,31 +18,42 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
 
+/**
+ * Report endpoints return a {@link CompletableFuture}, so the servlet thread is
+ * released as soon as the report is handed to the {@link ReportEngine}. With
+ * {@code partial=true} a report whose sub-queries fail or miss the deadline is
+ * returned without those sections and flagged {@code partial}, instead of a 503.
+ */
 @RestController
 @RequestMapping("/api/security/reports")
 public class SecurityEventReportController {
 
     private static final Duration DEFAULT_WINDOW = Duration.ofDays(7);
 
-    private final SecurityEventRepository securityEventRepository;
-    private final Executor reportTaskExecutor;
+    private final SecurityEventReportService reportService;
+    private final SecurityEventSketchService sketchService;
+    private final ReportEngine reportEngine;
 
     @Autowired
-    public SecurityEventReportController(SecurityEventRepository securityEventRepository,
-                                         @Qualifier("reportTaskExecutor") Executor reportTaskExecutor) {
-        this.securityEventRepository = securityEventRepository;
-        this.reportTaskExecutor = reportTaskExecutor;
+    public SecurityEventReportController(SecurityEventReportService reportService,
+                                         SecurityEventSketchService sketchService,
+                                         ReportEngine reportEngine) {
+        this.reportService = reportService;
+        this.sketchService = sketchService;
+        this.reportEngine = reportEngine;
     }
 
     @GetMapping("/token-usage")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseDTO<SecurityTokenUsageReportDTO> tokenUsageReport(
+    public CompletableFuture<ResponseDTO<SecurityTokenUsageReportDTO>> tokenUsageReport(
             @RequestParam(required = false) String start,
             @RequestParam(required = false) String end,
-            @RequestParam(required = false, defaultValue = "10") int limit) {
+            @RequestParam(required = false, defaultValue = "10") int limit,
+            @RequestParam(required = false, defaultValue = "false") boolean approximate,
+            @RequestParam(required = false, defaultValue = "false") boolean partial) {
 
+        SecurityEventReportService reports = reportsFor(approximate);
         InstantRange range = resolveRange(start, end);
         int safeLimit = Math.max(1, Math.min(limit, 50));
         Set<SecurityEventType> types = Set.of(
@@ -50,87 +62,100 @@ public class SecurityEventReportController {
                 SecurityEventType.TOKEN_INVALID
         );
 
-        CompletableFuture<List<SecurityEventCountDTO>> totalsFuture = CompletableFuture.supplyAsync(
-                () -> securityEventRepository.countByEventType(types, range.start(), range.end()), reportTaskExecutor);
-
-        CompletableFuture<List<SecurityEventUserCountDTO>> topUsersFuture = CompletableFuture.supplyAsync(
-                () -> securityEventRepository.findTopUsers(types, range.start(), range.end(), PageRequest.of(0, safeLimit)), reportTaskExecutor);
-
-        CompletableFuture<List<SecurityEventIpCountDTO>> topIpsFuture = CompletableFuture.supplyAsync(
-                () -> securityEventRepository.findTopIps(types, range.start(), range.end(), PageRequest.of(0, safeLimit)), reportTaskExecutor);
-
-        CompletableFuture.allOf(totalsFuture, topUsersFuture, topIpsFuture).join();
-
-        List<SecurityEventCountDTO> totals = totalsFuture.join();
-        long totalEvents = totals.stream().mapToLong(SecurityEventCountDTO::getCount).sum();
-
-        SecurityTokenUsageReportDTO report = new SecurityTokenUsageReportDTO();
-        report.setTotalsByType(totals);
-        report.setTopUsers(topUsersFuture.join());
-        report.setTopIps(topIpsFuture.join());
-        report.setTotalEvents(totalEvents);
-
-        return new ResponseDTO<>("success", "Token usage report", report);
+        return reportEngine.run(partial, scope -> {
+            Subtask<List<SecurityEventCountDTO>> totals = scope.fork(
+                    () -> reports.countByEventType(types, range.start(), range.end()));
+            Subtask<List<SecurityEventUserCountDTO>> topUsers = scope.fork(
+                    () -> reports.findTopUsers(types, range.start(), range.end(), safeLimit));
+            Subtask<List<SecurityEventIpCountDTO>> topIps = scope.fork(
+                    () -> reports.findTopIps(types, range.start(), range.end(), safeLimit));
+            scope.join();
+
+            List<SecurityEventCountDTO> totalsByType = totals.getOrElse(List.of());
+            long totalEvents = totalsByType.stream().mapToLong(SecurityEventCountDTO::getCount).sum();
+
+            SecurityTokenUsageReportDTO report = new SecurityTokenUsageReportDTO();
+            report.setTotalsByType(totalsByType);
+            report.setTopUsers(topUsers.getOrElse(List.of()));
+            report.setTopIps(topIps.getOrElse(List.of()));
+            report.setTotalEvents(totalEvents);
+            report.setPartial(scope.isPartial());
+
+            return new ResponseDTO<>("success", "Token usage report", report);
+        });
     }
 
     @GetMapping("/brute-force")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseDTO<SecurityBruteForceReportDTO> bruteForceReport(
+    public CompletableFuture<ResponseDTO<SecurityBruteForceReportDTO>> bruteForceReport(
             @RequestParam(required = false) String start,
             @RequestParam(required = false) String end,
-            @RequestParam(required = false, defaultValue = "10") int limit) {
+            @RequestParam(required = false, defaultValue = "10") int limit,
+            @RequestParam(required = false, defaultValue = "false") boolean approximate,
+            @RequestParam(required = false, defaultValue = "false") boolean partial) {
 
+        SecurityEventReportService reports = reportsFor(approximate);
         InstantRange range = resolveRange(start, end);
         int safeLimit = Math.max(1, Math.min(limit, 50));
         Set<SecurityEventType> failureTypes = Set.of(SecurityEventType.LOGIN_FAILURE);
 
-        CompletableFuture<Long> alertCountFuture = CompletableFuture.supplyAsync(
-                () -> securityEventRepository.countByEventTypeAndCreatedAtBetween(
-                        SecurityEventType.BRUTE_FORCE_ALERT, range.start(), range.end()), reportTaskExecutor);
-
-        CompletableFuture<List<SecurityEventUserCountDTO>> topUsersFuture = CompletableFuture.supplyAsync(
-                () -> securityEventRepository.findTopUsers(failureTypes, range.start(), range.end(), PageRequest.of(0, safeLimit)), reportTaskExecutor);
-
-        CompletableFuture<List<SecurityEventIpCountDTO>> topIpsFuture = CompletableFuture.supplyAsync(
-                () -> securityEventRepository.findTopIps(failureTypes, range.start(), range.end(), PageRequest.of(0, safeLimit)), reportTaskExecutor);
-
-        CompletableFuture.allOf(alertCountFuture, topUsersFuture, topIpsFuture).join();
-
-        SecurityBruteForceReportDTO report = new SecurityBruteForceReportDTO();
-        report.setAlertCount(alertCountFuture.join());
-        report.setTopUsernames(topUsersFuture.join());
-        report.setTopIps(topIpsFuture.join());
-
-        return new ResponseDTO<>("success", "Brute force report", report);
+        return reportEngine.run(partial, scope -> {
+            Subtask<Long> alertCount = scope.fork(
+                    () -> reports.countEvents(SecurityEventType.BRUTE_FORCE_ALERT, range.start(), range.end()));
+            Subtask<List<SecurityEventUserCountDTO>> topUsers = scope.fork(
+                    () -> reports.findTopUsers(failureTypes, range.start(), range.end(), safeLimit));
+            Subtask<List<SecurityEventIpCountDTO>> topIps = scope.fork(
+                    () -> reports.findTopIps(failureTypes, range.start(), range.end(), safeLimit));
+            scope.join();
+
+            SecurityBruteForceReportDTO report = new SecurityBruteForceReportDTO();
+            report.setAlertCount(alertCount.getOrElse(0L));
+            report.setTopUsernames(topUsers.getOrElse(List.of()));
+            report.setTopIps(topIps.getOrElse(List.of()));
+            report.setPartial(scope.isPartial());
+
+            return new ResponseDTO<>("success", "Brute force report", report);
+        });
     }
 
     @GetMapping("/endpoint-frequency")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseDTO<SecurityEndpointAccessReportDTO> endpointAccessFrequency(
+    public CompletableFuture<ResponseDTO<SecurityEndpointAccessReportDTO>> endpointAccessFrequency(
             @RequestParam(required = false) String start,
             @RequestParam(required = false) String end,
-            @RequestParam(required = false, defaultValue = "10") int limit) {
+            @RequestParam(required = false, defaultValue = "10") int limit,
+            @RequestParam(required = false, defaultValue = "false") boolean approximate,
+            @RequestParam(required = false, defaultValue = "false") boolean partial) {
 
+        SecurityEventReportService reports = reportsFor(approximate);
         InstantRange range = resolveRange(start, end);
         int safeLimit = Math.max(1, Math.min(limit, 50));
 
-        CompletableFuture<List<SecurityEventEndpointCountDTO>> topEndpointsFuture = CompletableFuture.supplyAsync(
-                () -> securityEventRepository.findTopEndpoints(range.start(), range.end(), PageRequest.of(0, safeLimit)), reportTaskExecutor);
-
-        CompletableFuture<Long> totalEventsFuture = CompletableFuture.supplyAsync(
-                () -> securityEventRepository.countByCreatedAtBetween(range.start(), range.end()), reportTaskExecutor);
-
-        CompletableFuture<Long> uniqueEndpointsFuture = CompletableFuture.supplyAsync(
-                () -> securityEventRepository.countDistinctEndpoints(range.start(), range.end()), reportTaskExecutor);
-
-        CompletableFuture.allOf(topEndpointsFuture, totalEventsFuture, uniqueEndpointsFuture).join();
-
-        SecurityEndpointAccessReportDTO report = new SecurityEndpointAccessReportDTO();
-        report.setTopEndpoints(topEndpointsFuture.join());
-        report.setTotalEvents(totalEventsFuture.join());
-        report.setUniqueEndpoints(uniqueEndpointsFuture.join());
+        return reportEngine.run(partial, scope -> {
+            Subtask<List<SecurityEventEndpointCountDTO>> topEndpoints = scope.fork(
+                    () -> reports.findTopEndpoints(range.start(), range.end(), safeLimit));
+            Subtask<Long> totalEvents = scope.fork(
+                    () -> reports.countEvents(range.start(), range.end()));
+            Subtask<Long> uniqueEndpoints = scope.fork(
+                    () -> reports.countDistinctEndpoints(range.start(), range.end()));
+            scope.join();
+
+            SecurityEndpointAccessReportDTO report = new SecurityEndpointAccessReportDTO();
+            report.setTopEndpoints(topEndpoints.getOrElse(List.of()));
+            report.setTotalEvents(totalEvents.getOrElse(0L));
+            report.setUniqueEndpoints(uniqueEndpoints.getOrElse(0L));
+            report.setPartial(scope.isPartial());
+
+            return new ResponseDTO<>("success", "Endpoint access frequency report", report);
+        });
+    }
 
-        return new ResponseDTO<>("success", "Endpoint access frequency report", report);
+    /**
+     * {@code approximate=true} answers from in-memory sketches: hour-aligned, with
+     * estimated distinct counts and upper-bound top-K counts, but no database reads.
+     */
+    private SecurityEventReportService reportsFor(boolean approximate) {
+        return approximate ? sketchService : reportService;
     }
 
     private InstantRange resolveRange(String start, String end) {
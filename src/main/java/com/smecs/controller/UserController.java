@@ -41,6 +41,13 @@ public class UserController {
         return ResponseEntity.ok(new ResponseDTO<>("success", "User found", mapToDTO(user)));
     }
 
+    @PatchMapping("/{id}/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseDTO<UserResponseDTO>> changeRole(@PathVariable Long id, @RequestParam String role) {
+        User user = userService.changeRole(id, role);
+        return ResponseEntity.ok(new ResponseDTO<>("success", "User role updated successfully", mapToDTO(user)));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ResponseDTO<Void>> deleteUser(@PathVariable Long id) {
@@ -3,15 +3,20 @@ package com.smecs.dto;
 import lombok.Data;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import jakarta.validation.Valid;
 import java.util.List;
 
 @Data
 public class BatchAddToCartRequest {
+    /** Bounds the product lookup's IN list and the batch insert done for one request. */
+    public static final int MAX_ITEMS = 100;
+
     @NotNull(message = "User ID is required")
     private Long userId;
 
     @NotEmpty(message = "Items list cannot be empty")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " items can be added at once")
     @Valid
     private List<CartItemRequest> items;
 }
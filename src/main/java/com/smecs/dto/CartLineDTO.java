@@ -0,0 +1,35 @@
+package com.smecs.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One cart line as shown to the shopper, built by a single JPQL constructor query
+ * over cart items, products and inventory.
+ */
+@Data
+@NoArgsConstructor
+public class CartLineDTO {
+    private Long cartItemId;
+    private Long productId;
+    private String productName;
+    private String productImage;
+    private double price;
+    private int quantity;
+    private int stock;
+    private boolean inStock;
+    private double lineTotal;
+
+    public CartLineDTO(Long cartItemId, Long productId, String productName, String productImage,
+                       Double price, int quantity, Integer stock) {
+        this.cartItemId = cartItemId;
+        this.productId = productId;
+        this.productName = productName;
+        this.productImage = productImage;
+        this.price = price != null ? price : 0.0;
+        this.quantity = quantity;
+        this.stock = stock != null ? stock : 0;
+        this.inStock = this.stock >= quantity;
+        this.lineTotal = this.price * quantity;
+    }
+}
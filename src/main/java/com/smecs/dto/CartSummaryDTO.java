@@ -0,0 +1,24 @@
+package com.smecs.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CartSummaryDTO {
+    private Long cartId;
+    private List<CartLineDTO> items;
+    private int totalQuantity;
+    private double total;
+    private boolean allInStock;
+
+    public static CartSummaryDTO of(Long cartId, List<CartLineDTO> items) {
+        CartSummaryDTO summary = new CartSummaryDTO();
+        summary.setCartId(cartId);
+        summary.setItems(items);
+        summary.setTotalQuantity(items.stream().mapToInt(CartLineDTO::getQuantity).sum());
+        summary.setTotal(items.stream().mapToDouble(CartLineDTO::getLineTotal).sum());
+        summary.setAllInStock(items.stream().allMatch(CartLineDTO::isInStock));
+        return summary;
+    }
+}
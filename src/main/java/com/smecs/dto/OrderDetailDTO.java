@@ -0,0 +1,27 @@
+package com.smecs.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class OrderDetailDTO {
+    private Long id;
+    private Long userId;
+    private Double totalAmount;
+    private String status;
+    private LocalDateTime createdAt;
+    private List<OrderLineDTO> items;
+
+    public static OrderDetailDTO of(OrderDTO order, List<OrderLineDTO> items) {
+        OrderDetailDTO detail = new OrderDetailDTO();
+        detail.setId(order.getId());
+        detail.setUserId(order.getUserId());
+        detail.setTotalAmount(order.getTotalAmount());
+        detail.setStatus(order.getStatus());
+        detail.setCreatedAt(order.getCreatedAt());
+        detail.setItems(items);
+        return detail;
+    }
+}
@@ -0,0 +1,21 @@
+package com.smecs.dto;
+
+import com.smecs.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One exported order, read by a JPQL constructor query so streamed rows are never
+ * managed entities and the persistence context stays empty during an export.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderExportRow {
+    private final Long id;
+    private final Long userId;
+    private final Order.Status status;
+    private final Double totalAmount;
+    private final LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.smecs.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One order line with its product, built by a single JPQL constructor query over
+ * order items and products. {@code product} is null if the product was deleted.
+ */
+@Data
+@NoArgsConstructor
+public class OrderLineDTO {
+    private Long id;
+    private int quantity;
+    private double priceAtPurchase;
+    private double lineTotal;
+    private ProductDTO product;
+
+    public OrderLineDTO(Long id, int quantity, double priceAtPurchase, Long productId, String productName,
+                        String productDescription, Double productPrice, Long categoryId, String imageUrl) {
+        this.id = id;
+        this.quantity = quantity;
+        this.priceAtPurchase = priceAtPurchase;
+        this.lineTotal = priceAtPurchase * quantity;
+        if (productId != null) {
+            ProductDTO productDTO = new ProductDTO();
+            productDTO.setId(productId);
+            productDTO.setName(productName);
+            productDTO.setDescription(productDescription);
+            productDTO.setPrice(productPrice);
+            productDTO.setCategoryId(categoryId);
+            productDTO.setImageUrl(imageUrl);
+            this.product = productDTO;
+        }
+    }
+}
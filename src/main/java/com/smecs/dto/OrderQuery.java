@@ -4,11 +4,23 @@ import com.smecs.entity.Order;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public final class OrderQuery {
+    public static final String DEFAULT_SORT = "createdAt,desc";
+    /** Sortable fields; each has a composite index for every filter column it can follow. */
+    public static final List<String> SORT_KEYS = List.of("createdAt", "totalAmount");
+
     private final Integer page;
     private final Integer size;
     private final String sort;
     private final Order.Status status;
+    private final Long userId;
+    private final LocalDateTime createdFrom;
+    private final LocalDateTime createdTo;
+    private final Double minTotal;
+    private final Double maxTotal;
 }
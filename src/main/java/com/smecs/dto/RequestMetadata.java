@@ -28,11 +28,15 @@ public class RequestMetadata {
                 .build();
     }
 
-    private static String extractClientIp(HttpServletRequest request) {
-        String forwarded = request.getHeader("X-Forwarded-For");
-        if (forwarded != null && !forwarded.isBlank()) {
-            return forwarded.split(",")[0].trim();
-        }
+    /**
+     * The client address used for rate limiting and brute-force tracking. Headers such
+     * as {@code X-Forwarded-For} are never read here: with
+     * {@code server.forward-headers-strategy=native} the server applies them to
+     * {@link HttpServletRequest#getRemoteAddr()} only when the request came from a
+     * proxy listed in {@code server.tomcat.remoteip.internal-proxies}. A client
+     * connecting directly cannot choose its own address.
+     */
+    public static String extractClientIp(HttpServletRequest request) {
         return request.getRemoteAddr();
     }
 }
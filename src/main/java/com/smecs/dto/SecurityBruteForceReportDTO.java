@@ -11,5 +11,7 @@ public class SecurityBruteForceReportDTO {
     private long alertCount;
     private List<SecurityEventUserCountDTO> topUsernames;
     private List<SecurityEventIpCountDTO> topIps;
+    /** True when some sections are missing because their query failed or timed out. */
+    private boolean partial;
 }
 
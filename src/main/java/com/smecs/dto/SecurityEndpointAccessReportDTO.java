@@ -11,5 +11,7 @@ public class SecurityEndpointAccessReportDTO {
     private List<SecurityEventEndpointCountDTO> topEndpoints;
     private long totalEvents;
     private long uniqueEndpoints;
+    /** True when some sections are missing because their query failed or timed out. */
+    private boolean partial;
 }
 
@@ -12,5 +12,7 @@ public class SecurityTokenUsageReportDTO {
     private List<SecurityEventUserCountDTO> topUsers;
     private List<SecurityEventIpCountDTO> topIps;
     private long totalEvents;
+    /** True when some sections are missing because their query failed or timed out. */
+    private boolean partial;
 }
 
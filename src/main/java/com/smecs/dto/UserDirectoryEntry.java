@@ -0,0 +1,44 @@
+package com.smecs.dto;
+
+import com.smecs.entity.User;
+
+import java.sql.Timestamp;
+
+/**
+ * Immutable snapshot of a {@link User} row held in the user directory caches.
+ * Cached instead of the entity so no lazy associations or persistence state are
+ * shared between requests. The password hash is deliberately left out: login
+ * reads credentials from the database.
+ */
+public record UserDirectoryEntry(Long id,
+                                 String username,
+                                 String email,
+                                 String role,
+                                 Timestamp createdAt,
+                                 String provider,
+                                 String providerId) {
+
+    public static UserDirectoryEntry from(User user) {
+        return new UserDirectoryEntry(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getRole(),
+                user.getCreatedAt(),
+                user.getProvider(),
+                user.getProviderId());
+    }
+
+    /** Detached copy for callers that only read the user's columns. */
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setRole(role);
+        user.setCreatedAt(createdAt);
+        user.setProvider(provider);
+        user.setProviderId(providerId);
+        return user;
+    }
+}
@@ -0,0 +1,32 @@
+package com.smecs.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Failed login count for one key (user+IP or IP) within one slot of the
+ * brute-force detection window.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "login_attempt_buckets",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"attempt_key", "bucket_start"}),
+        indexes = @Index(name = "idx_login_attempt_buckets_bucket_start", columnList = "bucket_start"))
+public class LoginAttemptBucket {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "attempt_key", nullable = false, length = 200)
+    private String attemptKey;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "attempt_count", nullable = false)
+    private long attemptCount;
+}
@@ -8,7 +8,15 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+        indexes = {
+                @Index(name = "idx_orders_created_at", columnList = "created_at, id"),
+                @Index(name = "idx_orders_total_amount", columnList = "total_amount, id"),
+                @Index(name = "idx_orders_user_created_at", columnList = "user_id, created_at, id"),
+                @Index(name = "idx_orders_user_total_amount", columnList = "user_id, total_amount, id"),
+                @Index(name = "idx_orders_status_created_at", columnList = "status, created_at, id"),
+                @Index(name = "idx_orders_status_total_amount", columnList = "status, total_amount, id")
+        })
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -9,7 +9,13 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "security_events")
+@Table(name = "security_events",
+        indexes = {
+                @Index(name = "idx_security_events_created_at", columnList = "created_at"),
+                @Index(name = "idx_security_events_type_created_at", columnList = "event_type, created_at DESC"),
+                @Index(name = "idx_security_events_user_created_at", columnList = "user_id, created_at DESC"),
+                @Index(name = "idx_security_events_ip_created_at", columnList = "ip_address, created_at DESC")
+        })
 public class SecurityEvent {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
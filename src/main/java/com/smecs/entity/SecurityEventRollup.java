@@ -0,0 +1,52 @@
+package com.smecs.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Hourly pre-aggregated count of security events for a single report dimension.
+ * Rows are upserted as events are written so reports can sum whole hours
+ * instead of scanning raw {@code security_events} rows.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "security_event_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"bucket_start", "dimension", "event_type", "dimension_key"}),
+        indexes = @Index(name = "idx_security_event_rollups_dimension_bucket", columnList = "dimension, bucket_start"))
+public class SecurityEventRollup {
+
+    public enum Dimension {
+        TYPE, USER, IP, ENDPOINT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false, length = 16)
+    private Dimension dimension;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 40)
+    private SecurityEventType eventType;
+
+    /** Grouping value for the dimension; empty string for {@link Dimension#TYPE}. */
+    @Column(name = "dimension_key", nullable = false, length = 200)
+    private String dimensionKey;
+
+    private Long userId;
+
+    @Column(length = 100)
+    private String username;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+}
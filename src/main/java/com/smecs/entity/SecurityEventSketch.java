@@ -0,0 +1,31 @@
+package com.smecs.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Serialized approximate-analytics sketches (per-type counts, heavy hitters and
+ * distinct counters) for one hour of security events. Written periodically from
+ * memory so approximate reports survive a restart.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "security_event_sketches")
+public class SecurityEventSketch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false, unique = true)
+    private Instant bucketStart;
+
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
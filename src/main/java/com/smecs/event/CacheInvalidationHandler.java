@@ -0,0 +1,96 @@
+package com.smecs.event;
+
+import com.smecs.config.CacheConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Evicts entries made stale by committed writes. Per-id entries are evicted one by
+ * one; search caches are cleared at most once per batch.
+ */
+@Component
+public class CacheInvalidationHandler implements DomainEventHandler {
+
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public CacheInvalidationHandler(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Evicts a cart's summary on the writing thread as soon as its transaction
+     * commits, so a read that follows the write cannot get the old cart from the
+     * cache while the batched eviction is still queued.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCartChanged(CartChanged event) {
+        evict(CacheConfig.CART_SUMMARY, event.cartId());
+    }
+
+    @Override
+    public void handle(List<DomainEvent> batch) {
+        boolean productSearchStale = false;
+        boolean inventorySearchStale = false;
+        boolean cartSummariesStale = false;
+        boolean orderDetailsStale = false;
+
+        for (DomainEvent event : batch) {
+            switch (event) {
+                case ProductChanged changed -> {
+                    if (changed.change() == ProductChanged.Change.DELETED) {
+                        evict(CacheConfig.PRODUCTS_BY_ID, changed.productId());
+                    }
+                    productSearchStale = true;
+                    // Cart summaries and order details embed product names and prices.
+                    cartSummariesStale = true;
+                    orderDetailsStale = true;
+                }
+                case InventoryChanged changed -> {
+                    // Quantity changes made outside InventoryService (e.g. checkout) never refreshed these entries.
+                    evict(CacheConfig.INVENTORIES_BY_ID, changed.inventoryId());
+                    evict(CacheConfig.INVENTORIES_BY_PRODUCT_ID, changed.productId());
+                    inventorySearchStale = true;
+                }
+                case OrderPlaced placed -> {
+                    // Order search caches are invalidated per user by OrderSearchCaches.
+                }
+                case ReviewPosted posted -> {
+                }
+                case CartChanged changed -> evict(CacheConfig.CART_SUMMARY, changed.cartId());
+            }
+        }
+
+        if (productSearchStale) {
+            clear(CacheConfig.PRODUCT_SEARCH);
+        }
+        if (inventorySearchStale) {
+            clear(CacheConfig.INVENTORY_SEARCH);
+        }
+        if (cartSummariesStale) {
+            clear(CacheConfig.CART_SUMMARY);
+        }
+        if (orderDetailsStale) {
+            clear(CacheConfig.ORDER_DETAILS);
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
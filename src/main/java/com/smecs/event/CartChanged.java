@@ -0,0 +1,4 @@
+package com.smecs.event;
+
+public record CartChanged(Long cartId) implements DomainEvent {
+}
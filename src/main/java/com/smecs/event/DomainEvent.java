@@ -0,0 +1,10 @@
+package com.smecs.event;
+
+/**
+ * Something that happened to the catalog, stock, carts or orders. Services publish these
+ * with {@code ApplicationEventPublisher}; {@link DomainEventBus} delivers them to
+ * {@link DomainEventHandler}s in batches once the publishing transaction commits.
+ */
+public sealed interface DomainEvent permits ProductChanged, InventoryChanged, OrderPlaced, ReviewPosted,
+        CartChanged {
+}
@@ -0,0 +1,117 @@
+package com.smecs.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects domain events after their transaction commits (or straight away when
+ * published outside a transaction) and hands them to every
+ * {@link DomainEventHandler} in batches from a single dispatcher thread, so the
+ * request only pays for a queue insert. Rolled-back transactions publish nothing.
+ *
+ * <p>When the queue is full the publishing thread dispatches its event itself
+ * instead of dropping it, since handlers include cache invalidation.</p>
+ */
+@Component
+public class DomainEventBus {
+    private static final Logger log = LoggerFactory.getLogger(DomainEventBus.class);
+
+    private final List<DomainEventHandler> handlers;
+    private final BlockingQueue<DomainEvent> queue;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Object dispatchLock = new Object();
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    @Autowired
+    public DomainEventBus(List<DomainEventHandler> handlers,
+                          @Value("${app.events.queue-capacity:10000}") int queueCapacity,
+                          @Value("${app.events.batch-size:500}") int batchSize,
+                          @Value("${app.events.poll-interval-ms:100}") long pollIntervalMs) {
+        this.handlers = handlers;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcher = Thread.ofPlatform().name("domain-events").daemon().start(this::dispatchLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            dispatcher.join(pollInterval.multipliedBy(10).toMillis());
+        }
+        drainAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(DomainEvent event) {
+        if (!queue.offer(event)) {
+            log.warn("Domain event queue full, dispatching {} on the publishing thread", event.getClass().getSimpleName());
+            dispatch(List.of(event));
+        }
+    }
+
+    /** Dispatches everything queued so far; used on shutdown and by tests. */
+    public void drainAll() {
+        List<DomainEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            dispatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void dispatchLoop() {
+        List<DomainEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                DomainEvent first = queue.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<DomainEvent> batch) {
+        List<DomainEvent> events = List.copyOf(batch);
+        synchronized (dispatchLock) {
+            for (DomainEventHandler handler : handlers) {
+                try {
+                    handler.handle(events);
+                } catch (RuntimeException e) {
+                    log.error("Domain event handler {} failed on a batch of {} events",
+                            handler.getClass().getSimpleName(), events.size(), e);
+                }
+            }
+        }
+    }
+}
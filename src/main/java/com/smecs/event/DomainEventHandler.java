@@ -0,0 +1,13 @@
+package com.smecs.event;
+
+import java.util.List;
+
+/**
+ * Receives committed domain events in publication order, a batch at a time, on the
+ * {@link DomainEventBus} dispatcher thread. Handlers should collapse repeated work
+ * within a batch (for example, clear a search cache once, not once per event).
+ */
+public interface DomainEventHandler {
+
+    void handle(List<DomainEvent> batch);
+}
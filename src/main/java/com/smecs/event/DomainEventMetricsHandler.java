@@ -0,0 +1,27 @@
+package com.smecs.event;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** Counts committed events as {@code smecs.domain.events}, tagged by event type. */
+@Component
+public class DomainEventMetricsHandler implements DomainEventHandler {
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public DomainEventMetricsHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void handle(List<DomainEvent> batch) {
+        for (DomainEvent event : batch) {
+            meterRegistry.counter("smecs.domain.events", "type", event.getClass().getSimpleName()).increment();
+        }
+        meterRegistry.summary("smecs.domain.events.batch.size").record(batch.size());
+    }
+}
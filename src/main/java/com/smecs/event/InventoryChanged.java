@@ -0,0 +1,5 @@
+package com.smecs.event;
+
+/** {@code quantity} is the new stock level, or null when the inventory row was deleted. */
+public record InventoryChanged(Long inventoryId, Long productId, Integer quantity) implements DomainEvent {
+}
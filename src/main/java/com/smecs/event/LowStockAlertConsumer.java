@@ -0,0 +1,46 @@
+package com.smecs.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smecs.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/** Logs a warning when a committed stock change leaves a product at or below the threshold. */
+@Component
+public class LowStockAlertConsumer implements OutboxEventConsumer {
+    private static final Logger log = LoggerFactory.getLogger(LowStockAlertConsumer.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int threshold;
+
+    @Autowired
+    public LowStockAlertConsumer(@Value("${app.outbox.low-stock-threshold:5}") int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void accept(OutboxEvent event) {
+        if (!InventoryChanged.class.getSimpleName().equals(event.getEventType())) {
+            return;
+        }
+        JsonNode payload;
+        try {
+            payload = MAPPER.readTree(event.getPayload());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        JsonNode quantity = payload.get("quantity");
+        if (quantity != null && !quantity.isNull() && quantity.asInt() <= threshold) {
+            log.warn("Low stock: productId={} quantity={} (threshold {})",
+                    event.getAggregateId(), quantity.asInt(), threshold);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.smecs.event;
+
+public record OrderPlaced(Long orderId, Long userId, int itemCount) implements DomainEvent {
+}
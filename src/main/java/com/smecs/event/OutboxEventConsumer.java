@@ -0,0 +1,13 @@
+package com.smecs.event;
+
+import com.smecs.entity.OutboxEvent;
+
+/**
+ * Receives events from the outbox relay. Delivery is at-least-once: an event whose
+ * batch fails part-way, or whose relay dies before marking it, is delivered again,
+ * so consumers must be idempotent. Throwing leaves the event for a later retry.
+ */
+public interface OutboxEventConsumer {
+
+    void accept(OutboxEvent event);
+}
@@ -0,0 +1,50 @@
+package com.smecs.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smecs.entity.OutboxEvent;
+import com.smecs.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Copies order and inventory domain events into {@code outbox_events}. Plain
+ * {@code @EventListener}s run on the publishing thread, so the row is written in
+ * the same transaction as the change and is rolled back with it.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    public OutboxWriter(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    @EventListener
+    public void onOrderPlaced(OrderPlaced event) {
+        append("ORDER", event.orderId(), event);
+    }
+
+    @EventListener
+    public void onInventoryChanged(InventoryChanged event) {
+        append("INVENTORY", event.productId(), event);
+    }
+
+    private void append(String aggregateType, Long aggregateId, DomainEvent event) {
+        OutboxEvent row = new OutboxEvent();
+        row.setAggregateType(aggregateType);
+        row.setAggregateId(aggregateId);
+        row.setEventType(event.getClass().getSimpleName());
+        try {
+            row.setPayload(MAPPER.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event, e);
+        }
+        outboxEventRepository.save(row);
+    }
+}
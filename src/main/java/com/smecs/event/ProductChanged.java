@@ -0,0 +1,6 @@
+package com.smecs.event;
+
+public record ProductChanged(Long productId, Change change) implements DomainEvent {
+
+    public enum Change { CREATED, UPDATED, DELETED }
+}
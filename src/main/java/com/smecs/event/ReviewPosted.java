@@ -0,0 +1,4 @@
+package com.smecs.event;
+
+public record ReviewPosted(Long reviewId, Long productId, Integer rating) implements DomainEvent {
+}
@@ -14,6 +14,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import jakarta.validation.ConstraintViolationException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -36,6 +38,12 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(new ResponseDTO<>("error", ex.getMessage(), null), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<ResponseDTO<String>> handleBadRequestException(BadRequestException ex) {
+        return new ResponseEntity<>(new ResponseDTO<>("error", ex.getMessage(), null), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseEntity<ResponseDTO<String>> handleResourceNotFoundException(ResourceNotFoundException ex) {
@@ -90,6 +98,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(new ResponseDTO<>("error", "Insufficient permissions", null), HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(TimeoutException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ResponseDTO<String>> handleTimeoutException(TimeoutException ex) {
+        return new ResponseEntity<>(new ResponseDTO<>("error", "The request timed out, please narrow the range or retry", null), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ResponseDTO<String>> handleRejectedExecutionException(RejectedExecutionException ex) {
+        return new ResponseEntity<>(new ResponseDTO<>("error", "Server is busy, please retry shortly", null), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<ResponseDTO<String>> handleAllExceptions(Exception ex) {
@@ -0,0 +1,19 @@
+package com.smecs.mapper;
+
+import com.smecs.dto.OrderItemDTO;
+import com.smecs.entity.OrderItem;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderItemMapper {
+    public OrderItemDTO toDTO(OrderItem item) {
+        if (item == null) return null;
+        OrderItemDTO dto = new OrderItemDTO();
+        dto.setId(item.getOrderItemId());
+        dto.setOrderId(item.getOrder() != null ? item.getOrder().getId() : null);
+        dto.setProductId(item.getProduct() != null ? item.getProduct().getId() : null);
+        dto.setQuantity(item.getQuantity());
+        dto.setPrice(item.getPriceAtPurchase());
+        return dto;
+    }
+}
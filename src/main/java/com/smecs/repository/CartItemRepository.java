@@ -1,21 +1,41 @@
 package com.smecs.repository;
 
+import com.smecs.dto.CartLineDTO;
 import com.smecs.entity.CartItem;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+public interface CartItemRepository extends JpaRepository<CartItem, Long>, CartItemRepositoryCustom {
     @Query("SELECT ci FROM CartItem ci WHERE ci.cart.cartId = :cartId")
     List<CartItem> findByCartId(@Param("cartId") Long cartId);
 
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.cartId = :cartId")
+    int deleteByCartId(@Param("cartId") Long cartId);
+
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.quantity = :quantity WHERE ci.cartItemId = :cartItemId")
+    int updateQuantity(@Param("cartItemId") Long cartItemId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cartItemId IN :cartItemIds")
+    int deleteByCartItemIdIn(@Param("cartItemIds") Collection<Long> cartItemIds);
+
+    @Query("SELECT new com.smecs.dto.CartLineDTO(ci.cartItemId, p.id, p.name, p.imageUrl, p.price, ci.quantity, i.quantity) " +
+            "FROM CartItem ci JOIN ci.product p LEFT JOIN Inventory i ON i.product = p " +
+            "WHERE ci.cart.cartId = :cartId ORDER BY ci.addedAt, ci.cartItemId")
+    List<CartLineDTO> findCartLines(@Param("cartId") Long cartId);
+
     @Query("SELECT ci FROM CartItem ci WHERE ci.cart.cartId = :cartId AND ci.product.id = :productId")
     CartItem findByCartIdAndProductId(@Param("cartId") Long cartId, @Param("productId") Long productId);
 
@@ -23,4 +43,13 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("SELECT ci FROM CartItem ci WHERE ci.cart.cartId = :cartId AND ci.product.id = :productId")
     Optional<CartItem> findByCartIdAndProductIdForUpdate(@Param("cartId") Long cartId,
                                                          @Param("productId") Long productId);
+
+    @Query("SELECT ci FROM CartItem ci WHERE ci.cart.cartId = :cartId AND ci.product.id IN :productIds")
+    List<CartItem> findByCartIdAndProductIds(@Param("cartId") Long cartId,
+                                             @Param("productIds") Collection<Long> productIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ci FROM CartItem ci WHERE ci.cart.cartId = :cartId AND ci.product.id IN :productIds")
+    List<CartItem> findByCartIdAndProductIdsForUpdate(@Param("cartId") Long cartId,
+                                                      @Param("productIds") Collection<Long> productIds);
 }
@@ -0,0 +1,15 @@
+package com.smecs.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CartItemRepositoryCustom {
+
+    /**
+     * Deletes up to {@code limit} items from carts last updated before {@code cutoff},
+     * skipping carts that are locked by an in-flight request.
+     *
+     * @return the cart id of each deleted item
+     */
+    List<Long> deleteAbandonedItems(LocalDateTime cutoff, int limit);
+}
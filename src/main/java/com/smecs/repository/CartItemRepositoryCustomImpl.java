@@ -0,0 +1,32 @@
+package com.smecs.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class CartItemRepositoryCustomImpl implements CartItemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String DELETE_ABANDONED_SQL =
+            "DELETE FROM cartitems WHERE cart_item_id IN (" +
+            "SELECT ci.cart_item_id FROM cartitems ci JOIN carts c ON c.cart_id = ci.cart_id " +
+            "WHERE c.updated_at < :cutoff " +
+            "ORDER BY ci.cart_item_id LIMIT :limit " +
+            "FOR UPDATE OF c, ci SKIP LOCKED) " +
+            "RETURNING cart_id";
+
+    @Override
+    public List<Long> deleteAbandonedItems(LocalDateTime cutoff, int limit) {
+        List<?> cartIds = entityManager.createNativeQuery(DELETE_ABANDONED_SQL)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit)
+                .getResultList();
+        return cartIds.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+}
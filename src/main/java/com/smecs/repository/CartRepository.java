@@ -4,12 +4,20 @@ import com.smecs.entity.Cart;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Cart> findByCartId(Long cartId);
+
+    @Modifying
+    @Query("UPDATE Cart c SET c.updatedAt = :updatedAt WHERE c.cartId = :cartId")
+    int touch(@Param("cartId") Long cartId, @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,7 @@
+package com.smecs.repository;
+
+import com.smecs.entity.LoginAttemptBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LoginAttemptBucketRepository extends JpaRepository<LoginAttemptBucket, Long>, LoginAttemptBucketRepositoryCustom {
+}
@@ -0,0 +1,18 @@
+package com.smecs.repository;
+
+import java.time.Instant;
+
+public interface LoginAttemptBucketRepositoryCustom {
+
+    /**
+     * Adds one attempt to the bucket at {@code bucketStart} and returns the total
+     * for {@code key} over buckets starting at or after {@code windowStart}.
+     */
+    long increment(String key, Instant bucketStart, Instant windowStart);
+
+    long sumSince(String key, Instant windowStart);
+
+    void deleteByKey(String key);
+
+    void deleteOlderThan(Instant cutoff);
+}
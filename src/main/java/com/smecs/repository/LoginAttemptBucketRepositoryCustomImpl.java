@@ -0,0 +1,65 @@
+package com.smecs.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public class LoginAttemptBucketRepositoryCustomImpl implements LoginAttemptBucketRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Upsert and window sum in one round trip; the CTE's own row is added explicitly
+    // because the outer SELECT does not see rows written by the same statement.
+    private static final String INCREMENT_SQL =
+            "WITH up AS (" +
+            "INSERT INTO login_attempt_buckets (attempt_key, bucket_start, attempt_count) VALUES (:key, :bucket, 1) " +
+            "ON CONFLICT (attempt_key, bucket_start) " +
+            "DO UPDATE SET attempt_count = login_attempt_buckets.attempt_count + 1 " +
+            "RETURNING attempt_count) " +
+            "SELECT up.attempt_count + COALESCE((SELECT SUM(b.attempt_count) FROM login_attempt_buckets b " +
+            "WHERE b.attempt_key = :key AND b.bucket_start >= :windowStart AND b.bucket_start <> :bucket), 0) " +
+            "FROM up";
+
+    @Override
+    @Transactional
+    public long increment(String key, Instant bucketStart, Instant windowStart) {
+        Object total = entityManager.createNativeQuery(INCREMENT_SQL)
+                .setParameter("key", key)
+                .setParameter("bucket", bucketStart)
+                .setParameter("windowStart", windowStart)
+                .getSingleResult();
+        return ((Number) total).longValue();
+    }
+
+    @Override
+    public long sumSince(String key, Instant windowStart) {
+        Object total = entityManager.createNativeQuery(
+                "SELECT COALESCE(SUM(b.attempt_count), 0) FROM login_attempt_buckets b " +
+                "WHERE b.attempt_key = :key AND b.bucket_start >= :windowStart")
+                .setParameter("key", key)
+                .setParameter("windowStart", windowStart)
+                .getSingleResult();
+        return ((Number) total).longValue();
+    }
+
+    @Override
+    @Transactional
+    public void deleteByKey(String key) {
+        entityManager.createNativeQuery("DELETE FROM login_attempt_buckets WHERE attempt_key = :key")
+                .setParameter("key", key)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void deleteOlderThan(Instant cutoff) {
+        entityManager.createNativeQuery("DELETE FROM login_attempt_buckets WHERE bucket_start < :cutoff")
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+}
@@ -1,7 +1,10 @@
 package com.smecs.repository;
 
+import com.smecs.dto.OrderLineDTO;
 import com.smecs.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +12,10 @@ import java.util.List;
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrder_Id(Long orderId);
+
+    @Query("SELECT new com.smecs.dto.OrderLineDTO(oi.orderItemId, oi.quantity, oi.priceAtPurchase, " +
+            "p.id, p.name, p.description, p.price, c.id, p.imageUrl) " +
+            "FROM OrderItem oi LEFT JOIN oi.product p LEFT JOIN p.category c " +
+            "WHERE oi.order.id = :orderId ORDER BY oi.orderItemId")
+    List<OrderLineDTO> findOrderLines(@Param("orderId") Long orderId);
 }
@@ -1,13 +1,47 @@
 package com.smecs.repository;
 
+import com.smecs.dto.OrderExportRow;
 import com.smecs.entity.Order;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    Page<Order> findByUser_Id(Long userId, Pageable pageable);
-    Page<Order> findByStatus(Order.Status status, Pageable pageable);
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
+    /**
+     * Forward-only cursor over all orders for export. Must be consumed inside a
+     * transaction and closed; PostgreSQL only honours the fetch size when
+     * autocommit is off.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.smecs.dto.OrderExportRow(o.id, u.id, o.status, o.totalAmount, o.createdAt) " +
+            "FROM Order o LEFT JOIN o.user u ORDER BY o.id")
+    Stream<OrderExportRow> streamForExport();
+
+    @Query("SELECT o.user.id FROM Order o WHERE o.id = :orderId")
+    Long findUserIdById(@Param("orderId") Long orderId);
+
+    /**
+     * Adds {@code delta} and rounds to cents in the same statement, so repeated
+     * edits cannot accumulate binary floating-point error in the stored total.
+     * Native because PostgreSQL only rounds to a scale on {@code numeric}.
+     */
+    @Modifying
+    @Query(value = "UPDATE orders SET total_amount = "
+            + "ROUND(CAST(COALESCE(total_amount, 0) + :delta AS numeric), 2) WHERE id = :orderId",
+            nativeQuery = true)
+    int addToTotalAmount(@Param("orderId") Long orderId, @Param("delta") double delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.totalAmount = COALESCE((SELECT SUM(oi.priceAtPurchase * oi.quantity) "
+            + "FROM OrderItem oi WHERE oi.order.id = o.id), 0) WHERE o.id = :orderId")
+    int recalculateTotalAmount(@Param("orderId") Long orderId);
 }
@@ -0,0 +1,43 @@
+package com.smecs.repository;
+
+import com.smecs.dto.OrderQuery;
+import com.smecs.entity.Order;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderSpecification {
+
+    /**
+     * Equality filters (user, status) followed by range filters (created date, total),
+     * matching the column order of the {@code idx_orders_*} composite indexes.
+     */
+    public static Specification<Order> filterBy(OrderQuery query) {
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (query.getUserId() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("user").get("id"), query.getUserId()));
+            }
+            if (query.getStatus() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("status"), query.getStatus()));
+            }
+            if (query.getCreatedFrom() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"), query.getCreatedFrom()));
+            }
+            if (query.getCreatedTo() != null) {
+                predicates.add(criteriaBuilder.lessThan(root.get("createdAt"), query.getCreatedTo()));
+            }
+            if (query.getMinTotal() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("totalAmount"), query.getMinTotal()));
+            }
+            if (query.getMaxTotal() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("totalAmount"), query.getMaxTotal()));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.smecs.repository;
+
+import com.smecs.entity.OutboxEvent;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEventRepositoryCustom {
+
+    /**
+     * Locks up to {@code limit} undelivered events that are due by {@code now},
+     * oldest first, skipping rows another relay already holds. Must run inside the
+     * transaction that marks them.
+     */
+    List<OutboxEvent> claimBatch(int limit, int maxAttempts, Instant now);
+}
@@ -0,0 +1,33 @@
+package com.smecs.repository;
+
+import com.smecs.entity.OutboxEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public class OutboxEventRepositoryCustomImpl implements OutboxEventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String CLAIM_SQL =
+            "SELECT * FROM outbox_events " +
+            "WHERE published_at IS NULL AND attempts < :maxAttempts " +
+            "AND (next_attempt_at IS NULL OR next_attempt_at <= :now) " +
+            "ORDER BY id LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<OutboxEvent> claimBatch(int limit, int maxAttempts, Instant now) {
+        return entityManager.createNativeQuery(CLAIM_SQL, OutboxEvent.class)
+                .setParameter("maxAttempts", maxAttempts)
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+}
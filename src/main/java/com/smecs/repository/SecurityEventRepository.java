@@ -15,7 +15,7 @@ import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
-public interface SecurityEventRepository extends JpaRepository<SecurityEvent, Long> {
+public interface SecurityEventRepository extends JpaRepository<SecurityEvent, Long>, SecurityEventRepositoryCustom {
 
     @Query("select new com.smecs.dto.SecurityEventCountDTO(e.eventType, count(e)) " +
            "from SecurityEvent e " +
@@ -0,0 +1,47 @@
+package com.smecs.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Partition maintenance for {@code security_events}, which is range-partitioned
+ * by {@code created_at} into one partition per UTC day.
+ */
+public interface SecurityEventRepositoryCustom {
+
+    boolean isPartitioned();
+
+    /**
+     * True if the table holds any row created before {@code day}, i.e. rows that
+     * {@link #convertToPartitioned} would discard.
+     */
+    boolean hasRowsBefore(LocalDate day);
+
+    /**
+     * Replaces the plain table created by Hibernate with a partitioned one, creating
+     * daily partitions for {@code [firstDay, lastDay]} plus a default partition, and
+     * copying the rows that fall inside that range. Older rows are discarded.
+     * Serialized across nodes; returns false without changing anything if another
+     * node has already converted the table.
+     */
+    boolean convertToPartitioned(LocalDate firstDay, LocalDate lastDay);
+
+    /**
+     * Creates the day's partition if it is missing, moving in any of its rows that
+     * landed in the default partition.
+     */
+    void createPartition(LocalDate day);
+
+    /**
+     * Days of the existing partitions, in ascending order.
+     */
+    List<LocalDate> findPartitionDays();
+
+    void dropPartition(LocalDate day);
+
+    /**
+     * Deletes rows older than {@code before} from the default partition, which
+     * dropping daily partitions does not reach.
+     */
+    void purgeDefaultPartition(LocalDate before);
+}
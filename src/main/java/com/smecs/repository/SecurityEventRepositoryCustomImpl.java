@@ -0,0 +1,167 @@
+package com.smecs.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Repository
+public class SecurityEventRepositoryCustomImpl implements SecurityEventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String TABLE = "security_events";
+    private static final String LEGACY_TABLE = "security_events_legacy";
+    private static final String PARTITION_PREFIX = "security_events_p";
+    private static final String DEFAULT_PARTITION = "security_events_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Override
+    public boolean isPartitioned() {
+        Object result = entityManager.createNativeQuery(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('" + TABLE + "'))")
+                .getSingleResult();
+        return Boolean.TRUE.equals(result);
+    }
+
+    @Override
+    public boolean hasRowsBefore(LocalDate day) {
+        Object result = entityManager.createNativeQuery(
+                "SELECT EXISTS (SELECT 1 FROM " + TABLE + " WHERE created_at < " + bound(day) + ")")
+                .getSingleResult();
+        return Boolean.TRUE.equals(result);
+    }
+
+    @Override
+    @Transactional
+    public boolean convertToPartitioned(LocalDate firstDay, LocalDate lastDay) {
+        lockPartitioning();
+        // A node that started at the same time may have converted while this one waited.
+        if (isPartitioned()) {
+            return false;
+        }
+        execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+        execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_TABLE);
+
+        // The primary key's index name is schema-wide, so the old one has to move out of the way.
+        Object primaryKey = entityManager.createNativeQuery(
+                "SELECT conname FROM pg_constraint WHERE conrelid = '" + LEGACY_TABLE + "'::regclass AND contype = 'p'")
+                .getResultStream().findFirst().orElse(null);
+        if (primaryKey != null) {
+            execute("ALTER TABLE " + LEGACY_TABLE + " RENAME CONSTRAINT " + primaryKey + " TO " + LEGACY_TABLE + "_pkey");
+        }
+
+        // LIKE keeps the column types and check constraints Hibernate generated; the
+        // partition key has to be part of the primary key.
+        execute("CREATE TABLE " + TABLE + " (LIKE " + LEGACY_TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) " +
+                "PARTITION BY RANGE (created_at)");
+        execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, created_at)");
+
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            createPartition(day);
+        }
+        // Catches inserts outside the premade days (a missed job, clock skew) instead of failing them.
+        execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+
+        execute("INSERT INTO " + TABLE + " SELECT * FROM " + LEGACY_TABLE +
+                " WHERE created_at >= " + bound(firstDay) + " AND created_at < " + bound(lastDay.plusDays(1)));
+        execute("DROP TABLE " + LEGACY_TABLE);
+
+        // The identity sequence went away with the legacy table; continue numbering from the copied rows.
+        execute("CREATE SEQUENCE IF NOT EXISTS " + TABLE + "_id_seq OWNED BY " + TABLE + ".id");
+        entityManager.createNativeQuery("SELECT setval('" + TABLE + "_id_seq', " +
+                "COALESCE((SELECT MAX(id) FROM " + TABLE + "), 0) + 1, false)").getSingleResult();
+        execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + TABLE + "_id_seq')");
+
+        // Index names are schema-wide too, so these are only free once the legacy table is gone.
+        // Indexes on the parent are created on every partition, including ones attached later.
+        execute("CREATE INDEX IF NOT EXISTS idx_security_events_created_at ON " + TABLE + " (created_at)");
+        execute("CREATE INDEX IF NOT EXISTS idx_security_events_type_created_at ON " + TABLE + " (event_type, created_at DESC)");
+        execute("CREATE INDEX IF NOT EXISTS idx_security_events_user_created_at ON " + TABLE + " (user_id, created_at DESC)");
+        execute("CREATE INDEX IF NOT EXISTS idx_security_events_ip_created_at ON " + TABLE + " (ip_address, created_at DESC)");
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void createPartition(LocalDate day) {
+        lockPartitioning();
+        String partition = partitionName(day);
+        if (relationExists(partition)) {
+            return;
+        }
+        if (!relationExists(DEFAULT_PARTITION)) {
+            execute("CREATE TABLE " + partition + " PARTITION OF " + TABLE +
+                    " FOR VALUES FROM (" + bound(day) + ") TO (" + bound(day.plusDays(1)) + ")");
+            return;
+        }
+        // Postgres refuses a new partition while the default one holds rows in its range,
+        // so those rows are moved into the new table before it is attached.
+        execute("CREATE TABLE " + partition + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        execute("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                " WHERE created_at >= " + bound(day) + " AND created_at < " + bound(day.plusDays(1)) + " RETURNING *) " +
+                "INSERT INTO " + partition + " SELECT * FROM moved");
+        execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + partition +
+                " FOR VALUES FROM (" + bound(day) + ") TO (" + bound(day.plusDays(1)) + ")");
+    }
+
+    @Override
+    public List<LocalDate> findPartitionDays() {
+        @SuppressWarnings("unchecked")
+        List<String> names = entityManager.createNativeQuery(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass('" + TABLE + "')")
+                .getResultList();
+        return names.stream()
+                .filter(name -> name.matches(PARTITION_PREFIX + "\\d{8}"))
+                .map(name -> LocalDate.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX))
+                .sorted()
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void dropPartition(LocalDate day) {
+        execute("DROP TABLE IF EXISTS " + partitionName(day));
+    }
+
+    @Override
+    @Transactional
+    public void purgeDefaultPartition(LocalDate before) {
+        if (relationExists(DEFAULT_PARTITION)) {
+            execute("DELETE FROM " + DEFAULT_PARTITION + " WHERE created_at < " + bound(before));
+        }
+    }
+
+    /**
+     * Transaction-scoped advisory lock, so nodes running the startup conversion or
+     * the daily job at the same time take turns instead of racing on DDL.
+     */
+    private void lockPartitioning() {
+        entityManager.createNativeQuery("SELECT 1 FROM pg_advisory_xact_lock(hashtext('" + TABLE + "_partitioning'))")
+                .getSingleResult();
+    }
+
+    private boolean relationExists(String name) {
+        Object result = entityManager.createNativeQuery("SELECT to_regclass('" + name + "') IS NOT NULL")
+                .getSingleResult();
+        return Boolean.TRUE.equals(result);
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+
+    private static String bound(LocalDate day) {
+        return "'" + day + " 00:00:00+00'";
+    }
+
+    private void execute(String sql) {
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+}
@@ -0,0 +1,7 @@
+package com.smecs.repository;
+
+import com.smecs.entity.SecurityEventRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SecurityEventRollupRepository extends JpaRepository<SecurityEventRollup, Long>, SecurityEventRollupRepositoryCustom {
+}
@@ -0,0 +1,35 @@
+package com.smecs.repository;
+
+import com.smecs.dto.SecurityEventCountDTO;
+import com.smecs.dto.SecurityEventEndpointCountDTO;
+import com.smecs.dto.SecurityEventIpCountDTO;
+import com.smecs.dto.SecurityEventUserCountDTO;
+import com.smecs.entity.SecurityEvent;
+import com.smecs.entity.SecurityEventType;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Report queries that read whole hours from {@code security_event_rollups} and
+ * only the partial edge hours of the window from raw {@code security_events}.
+ */
+public interface SecurityEventRollupRepositoryCustom {
+
+    void increment(SecurityEvent event);
+
+    void rebuild(Instant from, Instant to);
+
+    List<SecurityEventCountDTO> countByEventType(Collection<SecurityEventType> eventTypes, Instant start, Instant end);
+
+    List<SecurityEventUserCountDTO> findTopUsers(Collection<SecurityEventType> eventTypes, Instant start, Instant end, int limit);
+
+    List<SecurityEventIpCountDTO> findTopIps(Collection<SecurityEventType> eventTypes, Instant start, Instant end, int limit);
+
+    List<SecurityEventEndpointCountDTO> findTopEndpoints(Instant start, Instant end, int limit);
+
+    long countDistinctEndpoints(Instant start, Instant end);
+
+    long countEvents(Collection<SecurityEventType> eventTypes, Instant start, Instant end);
+}
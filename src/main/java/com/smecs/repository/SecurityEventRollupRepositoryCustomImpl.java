@@ -0,0 +1,262 @@
+package com.smecs.repository;
+
+import com.smecs.dto.SecurityEventCountDTO;
+import com.smecs.dto.SecurityEventEndpointCountDTO;
+import com.smecs.dto.SecurityEventIpCountDTO;
+import com.smecs.dto.SecurityEventUserCountDTO;
+import com.smecs.entity.SecurityEvent;
+import com.smecs.entity.SecurityEventType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public class SecurityEventRollupRepositoryCustomImpl implements SecurityEventRollupRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Same budget as the report endpoints, so a query abandoned by a timed-out request is also cancelled in the database.
+    @Value("${app.security.reports.timeout-ms:10000}")
+    private int queryTimeoutMs;
+
+    private static final String UPSERT_SUFFIX =
+            " ON CONFLICT (bucket_start, dimension, event_type, dimension_key) " +
+            "DO UPDATE SET event_count = security_event_rollups.event_count + EXCLUDED.event_count";
+
+    private static final String REBUILD_SUFFIX =
+            " ON CONFLICT (bucket_start, dimension, event_type, dimension_key) " +
+            "DO UPDATE SET event_count = EXCLUDED.event_count";
+
+    private static final String HOUR_BUCKET = "date_trunc('hour', e.created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC'";
+
+    private static final String USER_KEY = "COALESCE(CAST(e.user_id AS VARCHAR), '') || '|' || COALESCE(e.username, '')";
+
+    // Whole hours come from the rollups, the partial hours at either edge from raw rows.
+    private static final String ROLLUP_RANGE = "r.bucket_start >= :bodyStart AND r.bucket_start < :bodyEnd";
+    private static final String RAW_RANGE =
+            "((e.created_at >= :start AND e.created_at < :bodyStart) OR (e.created_at >= :bodyEnd AND e.created_at <= :end))";
+
+    @Override
+    @Transactional
+    public void increment(SecurityEvent event) {
+        Instant bucket = event.getCreatedAt().truncatedTo(ChronoUnit.HOURS);
+        String type = event.getEventType().name();
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO security_event_rollups (bucket_start, dimension, event_type, dimension_key, user_id, username, event_count) VALUES ")
+                .append("(:bucket, 'TYPE', :type, '', NULL, NULL, 1), ")
+                .append("(:bucket, 'USER', :type, :userKey, ")
+                .append(event.getUserId() != null ? ":userId" : "NULL").append(", ")
+                .append(event.getUsername() != null ? ":username" : "NULL").append(", 1), ")
+                .append("(:bucket, 'IP', :type, :ip, NULL, NULL, 1)");
+        boolean hasEndpoint = event.getEndpoint() != null && !event.getEndpoint().isEmpty();
+        if (hasEndpoint) {
+            sql.append(", (:bucket, 'ENDPOINT', :type, :endpoint, NULL, NULL, 1)");
+        }
+        sql.append(UPSERT_SUFFIX);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("bucket", bucket);
+        query.setParameter("type", type);
+        query.setParameter("userKey", userKey(event.getUserId(), event.getUsername()));
+        if (event.getUserId() != null) {
+            query.setParameter("userId", event.getUserId());
+        }
+        if (event.getUsername() != null) {
+            query.setParameter("username", event.getUsername());
+        }
+        query.setParameter("ip", event.getIpAddress() != null ? event.getIpAddress() : "");
+        if (hasEndpoint) {
+            query.setParameter("endpoint", event.getEndpoint());
+        }
+        query.executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void rebuild(Instant from, Instant to) {
+        String insert = "INSERT INTO security_event_rollups (bucket_start, dimension, event_type, dimension_key, user_id, username, event_count) ";
+        String where = " FROM security_events e WHERE e.created_at >= :from AND e.created_at < :to ";
+
+        List<String> statements = List.of(
+                insert + "SELECT " + HOUR_BUCKET + ", 'TYPE', e.event_type, '', NULL, NULL, COUNT(*)" + where +
+                        "GROUP BY 1, e.event_type" + REBUILD_SUFFIX,
+                insert + "SELECT " + HOUR_BUCKET + ", 'USER', e.event_type, " + USER_KEY + ", e.user_id, e.username, COUNT(*)" + where +
+                        "GROUP BY 1, e.event_type, e.user_id, e.username" + REBUILD_SUFFIX,
+                insert + "SELECT " + HOUR_BUCKET + ", 'IP', e.event_type, COALESCE(e.ip_address, ''), NULL, NULL, COUNT(*)" + where +
+                        "GROUP BY 1, e.event_type, COALESCE(e.ip_address, '')" + REBUILD_SUFFIX,
+                insert + "SELECT " + HOUR_BUCKET + ", 'ENDPOINT', e.event_type, e.endpoint, NULL, NULL, COUNT(*)" + where +
+                        "AND e.endpoint IS NOT NULL AND e.endpoint <> '' GROUP BY 1, e.event_type, e.endpoint" + REBUILD_SUFFIX
+        );
+
+        Instant alignedFrom = from.truncatedTo(ChronoUnit.HOURS);
+        Instant alignedTo = ceilToHour(to);
+        for (String statement : statements) {
+            entityManager.createNativeQuery(statement)
+                    .setParameter("from", alignedFrom)
+                    .setParameter("to", alignedTo)
+                    .executeUpdate();
+        }
+    }
+
+    @Override
+    public List<SecurityEventCountDTO> countByEventType(Collection<SecurityEventType> eventTypes, Instant start, Instant end) {
+        String sql = "SELECT t.event_type, SUM(t.cnt) FROM (" +
+                "SELECT r.event_type, r.event_count AS cnt FROM security_event_rollups r " +
+                "WHERE r.dimension = 'TYPE' AND r.event_type IN (:types) AND " + ROLLUP_RANGE +
+                " UNION ALL " +
+                "SELECT e.event_type, COUNT(*) FROM security_events e " +
+                "WHERE e.event_type IN (:types) AND " + RAW_RANGE + " GROUP BY e.event_type" +
+                ") t GROUP BY t.event_type";
+
+        Query query = windowQuery(sql, start, end);
+        query.setParameter("types", typeNames(eventTypes));
+
+        List<SecurityEventCountDTO> results = new ArrayList<>();
+        for (Object[] row : resultRows(query)) {
+            results.add(new SecurityEventCountDTO(SecurityEventType.valueOf((String) row[0]), toLong(row[1])));
+        }
+        return results;
+    }
+
+    @Override
+    public List<SecurityEventUserCountDTO> findTopUsers(Collection<SecurityEventType> eventTypes, Instant start, Instant end, int limit) {
+        String sql = "SELECT u.user_id, u.username, SUM(u.cnt) AS total FROM (" +
+                "SELECT r.user_id, r.username, r.event_count AS cnt FROM security_event_rollups r " +
+                "WHERE r.dimension = 'USER' AND r.event_type IN (:types) AND " + ROLLUP_RANGE +
+                " UNION ALL " +
+                "SELECT e.user_id, e.username, COUNT(*) FROM security_events e " +
+                "WHERE e.event_type IN (:types) AND " + RAW_RANGE + " GROUP BY e.user_id, e.username" +
+                ") u GROUP BY u.user_id, u.username ORDER BY total DESC LIMIT :limit";
+
+        Query query = windowQuery(sql, start, end);
+        query.setParameter("types", typeNames(eventTypes));
+        query.setParameter("limit", limit);
+
+        List<SecurityEventUserCountDTO> results = new ArrayList<>();
+        for (Object[] row : resultRows(query)) {
+            Long userId = row[0] != null ? toLong(row[0]) : null;
+            results.add(new SecurityEventUserCountDTO(userId, (String) row[1], toLong(row[2])));
+        }
+        return results;
+    }
+
+    @Override
+    public List<SecurityEventIpCountDTO> findTopIps(Collection<SecurityEventType> eventTypes, Instant start, Instant end, int limit) {
+        String sql = "SELECT i.ip, SUM(i.cnt) AS total FROM (" +
+                "SELECT NULLIF(r.dimension_key, '') AS ip, r.event_count AS cnt FROM security_event_rollups r " +
+                "WHERE r.dimension = 'IP' AND r.event_type IN (:types) AND " + ROLLUP_RANGE +
+                " UNION ALL " +
+                "SELECT e.ip_address, COUNT(*) FROM security_events e " +
+                "WHERE e.event_type IN (:types) AND " + RAW_RANGE + " GROUP BY e.ip_address" +
+                ") i GROUP BY i.ip ORDER BY total DESC LIMIT :limit";
+
+        Query query = windowQuery(sql, start, end);
+        query.setParameter("types", typeNames(eventTypes));
+        query.setParameter("limit", limit);
+
+        List<SecurityEventIpCountDTO> results = new ArrayList<>();
+        for (Object[] row : resultRows(query)) {
+            results.add(new SecurityEventIpCountDTO((String) row[0], toLong(row[1])));
+        }
+        return results;
+    }
+
+    @Override
+    public List<SecurityEventEndpointCountDTO> findTopEndpoints(Instant start, Instant end, int limit) {
+        String sql = "SELECT p.endpoint, SUM(p.cnt) AS total FROM (" +
+                "SELECT r.dimension_key AS endpoint, r.event_count AS cnt FROM security_event_rollups r " +
+                "WHERE r.dimension = 'ENDPOINT' AND " + ROLLUP_RANGE +
+                " UNION ALL " +
+                "SELECT e.endpoint, COUNT(*) FROM security_events e " +
+                "WHERE e.endpoint IS NOT NULL AND e.endpoint <> '' AND " + RAW_RANGE + " GROUP BY e.endpoint" +
+                ") p GROUP BY p.endpoint ORDER BY total DESC LIMIT :limit";
+
+        Query query = windowQuery(sql, start, end);
+        query.setParameter("limit", limit);
+
+        List<SecurityEventEndpointCountDTO> results = new ArrayList<>();
+        for (Object[] row : resultRows(query)) {
+            results.add(new SecurityEventEndpointCountDTO((String) row[0], toLong(row[1])));
+        }
+        return results;
+    }
+
+    @Override
+    public long countDistinctEndpoints(Instant start, Instant end) {
+        String sql = "SELECT COUNT(*) FROM (" +
+                "SELECT r.dimension_key FROM security_event_rollups r " +
+                "WHERE r.dimension = 'ENDPOINT' AND " + ROLLUP_RANGE +
+                " UNION " +
+                "SELECT e.endpoint FROM security_events e " +
+                "WHERE e.endpoint IS NOT NULL AND e.endpoint <> '' AND " + RAW_RANGE +
+                ") d";
+
+        return toLong(windowQuery(sql, start, end).getSingleResult());
+    }
+
+    @Override
+    public long countEvents(Collection<SecurityEventType> eventTypes, Instant start, Instant end) {
+        String sql = "SELECT COALESCE((SELECT SUM(r.event_count) FROM security_event_rollups r " +
+                "WHERE r.dimension = 'TYPE' AND r.event_type IN (:types) AND " + ROLLUP_RANGE + "), 0) + " +
+                "(SELECT COUNT(*) FROM security_events e WHERE e.event_type IN (:types) AND " + RAW_RANGE + ")";
+
+        Query query = windowQuery(sql, start, end);
+        query.setParameter("types", typeNames(eventTypes));
+        return toLong(query.getSingleResult());
+    }
+
+    /**
+     * Binds the window parameters shared by every report query. When the window does
+     * not contain a whole hour the rollup range collapses to empty and the raw range
+     * covers {@code [start, end]} on its own.
+     */
+    private Query windowQuery(String sql, Instant start, Instant end) {
+        Instant bodyStart = ceilToHour(start);
+        Instant bodyEnd = end.truncatedTo(ChronoUnit.HOURS);
+        if (!bodyStart.isBefore(bodyEnd)) {
+            bodyStart = end;
+            bodyEnd = end;
+        }
+
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("start", start);
+        query.setParameter("end", end);
+        query.setParameter("bodyStart", bodyStart);
+        query.setParameter("bodyEnd", bodyEnd);
+        query.setHint("jakarta.persistence.query.timeout", queryTimeoutMs);
+        return query;
+    }
+
+    static String userKey(Long userId, String username) {
+        return (userId != null ? userId.toString() : "") + "|" + (username != null ? username : "");
+    }
+
+    private static Instant ceilToHour(Instant instant) {
+        Instant floor = instant.truncatedTo(ChronoUnit.HOURS);
+        return floor.equals(instant) ? floor : floor.plus(1, ChronoUnit.HOURS);
+    }
+
+    private List<String> typeNames(Collection<SecurityEventType> eventTypes) {
+        return eventTypes.stream().map(Enum::name).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> resultRows(Query query) {
+        return query.getResultList();
+    }
+
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -0,0 +1,29 @@
+package com.smecs.repository;
+
+import com.smecs.entity.SecurityEventSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface SecurityEventSketchRepository extends JpaRepository<SecurityEventSketch, Long> {
+    /** Locks the row so concurrent flushes from other nodes merge instead of overwriting. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SecurityEventSketch> findByBucketStart(Instant bucketStart);
+
+    List<SecurityEventSketch> findByBucketStartGreaterThanEqual(Instant bucketStart);
+
+    List<SecurityEventSketch> findByUpdatedAtGreaterThanEqual(Instant updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SecurityEventSketch s WHERE s.bucketStart < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
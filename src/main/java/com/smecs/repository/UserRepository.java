@@ -2,7 +2,10 @@ package com.smecs.repository;
 
 import com.smecs.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,4 +14,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     Optional<User> findByProviderAndProviderId(String provider, String providerId);
+
+    /** {@code prefix} must already have LIKE wildcards escaped with a backslash. */
+    @Query("SELECT u.username FROM User u WHERE u.username LIKE CONCAT(:prefix, '%') ESCAPE '\\'")
+    List<String> findUsernamesStartingWith(@Param("prefix") String prefix);
 }
@@ -1,12 +1,20 @@
 package com.smecs.security;
 
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 
+import java.util.Arrays;
+
 public final class AuthCookieUtils {
 
     public static final String ACCESS_TOKEN_COOKIE = "smecs_access_token";
+    public static final String REFRESH_TOKEN_COOKIE = "smecs_refresh_token";
+
+    /** The refresh token is only ever needed by the auth endpoints, so it is not sent anywhere else. */
+    private static final String REFRESH_TOKEN_PATH = "/api/auth";
 
     private AuthCookieUtils() {
     }
@@ -32,4 +40,37 @@ public final class AuthCookieUtils {
                 .build()
                 .toString());
     }
+
+    public static void addRefreshTokenCookie(HttpServletResponse response, String token, long maxAgeSeconds) {
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(REFRESH_TOKEN_COOKIE, token)
+                .httpOnly(true)
+                .secure(false)
+                .sameSite("Strict")
+                .path(REFRESH_TOKEN_PATH)
+                .maxAge(maxAgeSeconds)
+                .build()
+                .toString());
+    }
+
+    public static void clearRefreshTokenCookie(HttpServletResponse response) {
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(REFRESH_TOKEN_COOKIE, "")
+                .httpOnly(true)
+                .secure(false)
+                .sameSite("Strict")
+                .path(REFRESH_TOKEN_PATH)
+                .maxAge(0)
+                .build()
+                .toString());
+    }
+
+    public static String readRefreshTokenCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return null;
+        }
+        return Arrays.stream(request.getCookies())
+                .filter(cookie -> REFRESH_TOKEN_COOKIE.equals(cookie.getName()))
+                .map(Cookie::getValue)
+                .findFirst()
+                .orElse(null);
+    }
 }
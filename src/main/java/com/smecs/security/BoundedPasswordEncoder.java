@@ -0,0 +1,78 @@
+package com.smecs.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the CPU-heavy {@code encode}/{@code matches} calls of the delegate on a
+ * dedicated bounded executor, so concurrent logins and registrations can use at
+ * most that pool's threads instead of every request thread. When the pool and its
+ * queue are full, or a hash waits longer than {@code timeout} for a thread, the call
+ * fails fast with {@link RejectedExecutionException} (mapped to 503). The timeout only
+ * applies to queued work: BCrypt ignores interruption, so a hash that has started is
+ * waited for, and its pool thread stays counted against the bound until it finishes.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final int QUEUED = 0;
+    private static final int STARTED = 1;
+    private static final int ABANDONED = 2;
+
+    private final PasswordEncoder delegate;
+    private final Executor executor;
+    private final Duration timeout;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, Executor executor, Duration timeout) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T call(Supplier<T> work) {
+        AtomicInteger state = new AtomicInteger(QUEUED);
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(
+                // Work abandoned while queued is skipped when a thread finally picks it up.
+                () -> state.compareAndSet(QUEUED, STARTED) ? work.get() : null,
+                executor);
+        try {
+            try {
+                return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (state.compareAndSet(QUEUED, ABANDONED)) {
+                    throw new RejectedExecutionException(
+                            "Password hashing did not start within " + timeout.toMillis() + "ms");
+                }
+                // Already running; cancelling would not stop BCrypt, so let it finish.
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            state.compareAndSet(QUEUED, ABANDONED);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
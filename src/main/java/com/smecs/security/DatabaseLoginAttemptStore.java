@@ -0,0 +1,50 @@
+package com.smecs.security;
+
+import com.smecs.repository.LoginAttemptBucketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Shared store backed by {@code login_attempt_buckets}, so every instance sees the
+ * attempts made against the others.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.login-attempts.store", havingValue = "database", matchIfMissing = true)
+public class DatabaseLoginAttemptStore implements LoginAttemptStore {
+
+    private final LoginAttemptBucketRepository bucketRepository;
+
+    @Autowired
+    public DatabaseLoginAttemptStore(LoginAttemptBucketRepository bucketRepository) {
+        this.bucketRepository = bucketRepository;
+    }
+
+    @Override
+    public long increment(String key, Instant now, Duration window, Duration slot) {
+        return bucketRepository.increment(key, slotStart(now, slot), slotStart(now.minus(window), slot));
+    }
+
+    @Override
+    public long count(String key, Instant now, Duration window, Duration slot) {
+        return bucketRepository.sumSince(key, slotStart(now.minus(window), slot));
+    }
+
+    @Override
+    public void reset(String key) {
+        bucketRepository.deleteByKey(key);
+    }
+
+    @Override
+    public void purgeBefore(Instant cutoff) {
+        bucketRepository.deleteOlderThan(cutoff);
+    }
+
+    private static Instant slotStart(Instant instant, Duration slot) {
+        long slotMillis = slot.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(instant.toEpochMilli(), slotMillis) * slotMillis);
+    }
+}
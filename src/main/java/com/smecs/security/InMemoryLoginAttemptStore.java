@@ -0,0 +1,87 @@
+package com.smecs.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Node-local stand-in for {@link DatabaseLoginAttemptStore}, for single-instance
+ * deployments and local development. Attempts on other instances are not seen.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.login-attempts.store", havingValue = "memory")
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+
+    private final Cache<String, SlidingWindow> windows = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1))
+            .maximumSize(100_000)
+            .build();
+
+    @Override
+    public long increment(String key, Instant now, Duration window, Duration slot) {
+        return windows.get(key, k -> new SlidingWindow()).increment(now, window, slot);
+    }
+
+    @Override
+    public long count(String key, Instant now, Duration window, Duration slot) {
+        SlidingWindow counter = windows.getIfPresent(key);
+        return counter != null ? counter.count(now, window, slot) : 0;
+    }
+
+    @Override
+    public void reset(String key) {
+        windows.invalidate(key);
+    }
+
+    @Override
+    public void purgeBefore(Instant cutoff) {
+        windows.asMap().values().forEach(counter -> counter.trim(cutoff.toEpochMilli()));
+        windows.asMap().values().removeIf(SlidingWindow::isEmpty);
+    }
+
+    private static final class SlidingWindow {
+        // Each element is {slotStartMillis, count}, oldest first.
+        private final Deque<long[]> slots = new ArrayDeque<>();
+
+        synchronized long increment(Instant now, Duration window, Duration slot) {
+            long slotStart = slotStart(now, slot);
+            long[] last = slots.peekLast();
+            if (last != null && last[0] == slotStart) {
+                last[1]++;
+            } else {
+                slots.addLast(new long[]{slotStart, 1});
+            }
+            return count(now, window, slot);
+        }
+
+        synchronized long count(Instant now, Duration window, Duration slot) {
+            trim(slotStart(now.minus(window), slot));
+            long total = 0;
+            for (long[] entry : slots) {
+                total += entry[1];
+            }
+            return total;
+        }
+
+        synchronized void trim(long cutoffMillis) {
+            while (!slots.isEmpty() && slots.peekFirst()[0] < cutoffMillis) {
+                slots.removeFirst();
+            }
+        }
+
+        synchronized boolean isEmpty() {
+            return slots.isEmpty();
+        }
+
+        private static long slotStart(Instant instant, Duration slot) {
+            long slotMillis = slot.toMillis();
+            return Math.floorDiv(instant.toEpochMilli(), slotMillis) * slotMillis;
+        }
+    }
+}
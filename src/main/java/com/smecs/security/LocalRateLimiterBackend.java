@@ -0,0 +1,78 @@
+package com.smecs.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process token buckets. Each bucket is an immutable state swapped with CAS,
+ * so concurrent requests for the same key never block each other.
+ */
+public class LocalRateLimiterBackend implements RateLimiterBackend {
+
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(100_000)
+            .build();
+
+    private final LongSupplier nanoClock;
+
+    public LocalRateLimiterBackend() {
+        this(System::nanoTime);
+    }
+
+    LocalRateLimiterBackend(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public boolean tryConsume(String key, long capacity, double refillPerSecond) {
+        long now = nanoClock.getAsLong();
+        return buckets.get(key, k -> new TokenBucket(capacity, now))
+                .tryConsume(capacity, refillPerSecond / 1_000_000_000d, now);
+    }
+
+    @Override
+    public long nanosUntilToken(String key, long capacity, double refillPerSecond) {
+        TokenBucket bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            return 0;
+        }
+        return bucket.nanosUntilToken(capacity, refillPerSecond / 1_000_000_000d, nanoClock.getAsLong());
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    private static final class TokenBucket {
+        private final AtomicReference<State> state;
+
+        TokenBucket(long capacity, long now) {
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        boolean tryConsume(long capacity, double refillPerNano, long now) {
+            while (true) {
+                State current = state.get();
+                long elapsed = Math.max(0, now - current.refilledAt());
+                double tokens = Math.min(capacity, current.tokens() + elapsed * refillPerNano);
+                if (tokens < 1) {
+                    return false;
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.refilledAt())))) {
+                    return true;
+                }
+            }
+        }
+
+        long nanosUntilToken(long capacity, double refillPerNano, long now) {
+            State current = state.get();
+            long elapsed = Math.max(0, now - current.refilledAt());
+            double tokens = Math.min(capacity, current.tokens() + elapsed * refillPerNano);
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / refillPerNano);
+        }
+    }
+}
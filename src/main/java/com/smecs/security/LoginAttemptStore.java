@@ -0,0 +1,26 @@
+package com.smecs.security;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Sliding-window counters for failed logins. The window is split into fixed
+ * slots; a count is the sum of the slots that start inside the window, so it may
+ * include up to one slot of attempts older than the window.
+ */
+public interface LoginAttemptStore {
+
+    /**
+     * Records one attempt for {@code key} and returns the count in the window, including it.
+     */
+    long increment(String key, Instant now, Duration window, Duration slot);
+
+    long count(String key, Instant now, Duration window, Duration slot);
+
+    void reset(String key);
+
+    /**
+     * Drops slots that started before {@code cutoff}.
+     */
+    void purgeBefore(Instant cutoff);
+}
@@ -2,6 +2,7 @@ package com.smecs.security;
 
 import com.smecs.dto.RequestMetadata;
 import com.smecs.entity.User;
+import com.smecs.service.RefreshTokenService;
 import com.smecs.service.SecurityEventService;
 import com.smecs.service.UserService;
 import com.smecs.util.JwtUtil;
@@ -25,7 +26,7 @@ import java.util.Arrays;
  * Responsibilities:
  *   1. Resolve (find or create) the local User record.
  *   2. Mint a JWT using the existing JwtUtil.
- *   3. Deliver the JWT in an HttpOnly cookie before redirecting the SPA.
+ *   3. Deliver the JWT and a refresh token in HttpOnly cookies before redirecting the SPA.
  */
 @Component
 public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
@@ -36,14 +37,17 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     private final UserService userService;
     private final SecurityEventService securityEventService;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
 
     @Autowired
     public OAuth2AuthenticationSuccessHandler(UserService userService,
                                               SecurityEventService securityEventService,
-                                              JwtUtil jwtUtil) {
+                                              JwtUtil jwtUtil,
+                                              RefreshTokenService refreshTokenService) {
         this.userService = userService;
         this.securityEventService = securityEventService;
         this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Override
@@ -60,6 +64,9 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
         securityEventService.recordOAuth2Success(user, RequestMetadata.from(request));
         securityEventService.recordTokenIssued(user, token, RequestMetadata.from(request));
         AuthCookieUtils.addAccessTokenCookie(response, token, jwtUtil.getExpirationTimeSeconds());
+        String refreshToken = refreshTokenService.issue(
+                new SmecsUserPrincipal(user.getId(), user.getUsername(), user.getEmail(), user.getRole()));
+        AuthCookieUtils.addRefreshTokenCookie(response, refreshToken, refreshTokenService.getTtlSeconds());
 
         String next = extractNextFromCookie(request);
         clearNextCookie(response);
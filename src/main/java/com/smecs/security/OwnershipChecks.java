@@ -27,11 +27,15 @@ public class OwnershipChecks {
     }
 
     public void assertOrderOwnership(Order order) {
+        assertOrderOwnerId(order.getUser() != null ? order.getUser().getId() : null);
+    }
+
+    /** Checks an order's owner id, e.g. from a cached read model, without loading the order. */
+    public void assertOrderOwnerId(Long orderUserId) {
         SmecsUserPrincipal principal = userService.requirePrincipal();
         if (userService.isAdmin(principal)) {
             return;
         }
-        Long orderUserId = order.getUser() != null ? order.getUser().getId() : null;
         if (orderUserId == null || !orderUserId.equals(principal.getUserId())) {
             throw new ForbiddenException("You do not have permission to access this order");
         }
@@ -71,6 +75,17 @@ public class OwnershipChecks {
         }
     }
 
+    /** Checks a cart id without loading the cart; carts share their owner's id. */
+    public void assertCartIdOwnership(Long cartId) {
+        SmecsUserPrincipal principal = userService.requirePrincipal();
+        if (userService.isAdmin(principal)) {
+            return;
+        }
+        if (cartId == null || !cartId.equals(principal.getUserId())) {
+            throw new ForbiddenException("You do not have permission to access this cart");
+        }
+    }
+
     public void assertCartItemOwnership(CartItem item) {
         SmecsUserPrincipal principal = userService.requirePrincipal();
         if (userService.isAdmin(principal)) {
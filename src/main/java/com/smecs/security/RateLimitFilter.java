@@ -0,0 +1,126 @@
+package com.smecs.security;
+
+import com.smecs.config.RateLimitProperties;
+import com.smecs.dto.RequestMetadata;
+import com.smecs.util.JwtUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-client token-bucket throttling, placed ahead of {@link JwtAuthenticationFilter}
+ * so rejected requests cost neither token validation nor a database connection.
+ * Limits are configured per route group in {@link RateLimitProperties}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final RateLimiterBackend backend;
+    private final JwtUtil jwtUtil;
+    private final List<RouteGroup> routeGroups;
+
+    @Autowired
+    public RateLimitFilter(RateLimitProperties properties, RateLimiterBackend backend, JwtUtil jwtUtil) {
+        this.properties = properties;
+        this.backend = backend;
+        this.jwtUtil = jwtUtil;
+        this.routeGroups = properties.getGroups().entrySet().stream()
+                .map(entry -> RouteGroup.of(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RouteGroup group = properties.isEnabled() ? match(request) : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = group.name() + ":" + clientKey(request, group.config().getKey());
+        long capacity = group.config().getCapacity();
+        double refillPerSecond = group.config().getRefillPerSecond();
+        if (!backend.tryConsume(key, capacity, refillPerSecond)) {
+            long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(
+                    backend.nanosUntilToken(key, capacity, refillPerSecond) + TimeUnit.SECONDS.toNanos(1) - 1);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, retryAfterSeconds)));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"status\":\"error\",\"message\":\"Too many requests\",\"data\":null}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private RouteGroup match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        String method = request.getMethod().toUpperCase(Locale.ROOT);
+        for (RouteGroup group : routeGroups) {
+            if (group.matches(method, path)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * User keys are only trusted from a valid token; anything else is keyed by IP
+     * so forged or expired tokens cannot mint fresh buckets.
+     */
+    private String clientKey(HttpServletRequest request, RateLimitProperties.KeyType keyType) {
+        if (keyType == RateLimitProperties.KeyType.USER) {
+            String token = jwtUtil.resolveToken(request);
+            if (token != null && !token.isBlank() && jwtUtil.validateToken(token)) {
+                Long userId = jwtUtil.extractUserId(token);
+                if (userId != null) {
+                    return "user:" + userId;
+                }
+            }
+        }
+        return "ip:" + RequestMetadata.extractClientIp(request);
+    }
+
+    private record RouteGroup(String name, RateLimitProperties.Group config,
+                              List<PathPattern> patterns, Set<String> methods) {
+
+        static RouteGroup of(String name, RateLimitProperties.Group config) {
+            List<PathPattern> patterns = config.getPatterns().stream()
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+            Set<String> methods = config.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+            return new RouteGroup(name, config, patterns, methods);
+        }
+
+        boolean matches(String method, PathContainer path) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            return patterns.stream().anyMatch(pattern -> pattern.matches(path));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.smecs.security;
+
+/**
+ * Storage for rate-limit token buckets. The default {@link LocalRateLimiterBackend}
+ * keeps buckets per instance; multi-node deployments that need a global limit can
+ * register their own bean backed by shared state, which replaces the default.
+ */
+public interface RateLimiterBackend {
+
+    /**
+     * Takes one token from the bucket for {@code key}, creating it full if absent.
+     *
+     * @return {@code false} if the bucket is empty and the request should be rejected
+     */
+    boolean tryConsume(String key, long capacity, double refillPerSecond);
+
+    /**
+     * Time until the bucket for {@code key} holds a whole token again, used for
+     * {@code Retry-After}. The default assumes the bucket was just emptied.
+     */
+    default long nanosUntilToken(String key, long capacity, double refillPerSecond) {
+        return (long) Math.ceil(1_000_000_000d / refillPerSecond);
+    }
+}
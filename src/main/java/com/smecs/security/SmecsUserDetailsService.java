@@ -5,12 +5,19 @@ import com.smecs.repository.UserRepository;
 import org.jspecify.annotations.NullMarked;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Always reads the user row, never the user directory cache: a cached hash or
+ * role would keep a deleted or demoted user logging in on other nodes until the
+ * entry expired.
+ */
 @Service
-public class SmecsUserDetailsService implements UserDetailsService {
+public class SmecsUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -23,7 +30,8 @@ public class SmecsUserDetailsService implements UserDetailsService {
     @NullMarked
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(usernameOrEmail)
-                .orElseGet(() -> userRepository.findByEmail(usernameOrEmail).orElse(null));
+                .or(() -> userRepository.findByEmail(usernameOrEmail))
+                .orElse(null);
         if (user == null) {
             throw new UsernameNotFoundException("User not found: " + usernameOrEmail);
         }
@@ -38,4 +46,24 @@ public class SmecsUserDetailsService implements UserDetailsService {
                 user.getRole(),
                 user.getPasswordHash());
     }
+
+    /**
+     * Called by {@code DaoAuthenticationProvider} after a successful login whose
+     * stored hash is weaker than the configured encoder, with the password re-hashed.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        SmecsUserPrincipal principal = (SmecsUserPrincipal) user;
+        userRepository.findById(principal.getUserId()).ifPresent(entity -> {
+            entity.setPasswordHash(newPassword);
+            userRepository.save(entity);
+        });
+        return new SmecsUserPrincipal(
+                principal.getUserId(),
+                principal.getUsername(),
+                principal.getEmail(),
+                principal.getRole(),
+                newPassword);
+    }
 }
@@ -2,12 +2,14 @@ package com.smecs.service;
 
 import com.smecs.entity.CartItem;
 import com.smecs.dto.AddToCartRequest;
+import com.smecs.dto.BatchAddToCartRequest;
 import java.util.List;
 import java.util.Optional;
 public interface CartItemService {
     Optional<CartItem> getCartItemById(Long cartItemId);
     List<CartItem> getCartItemsByCartId(Long cartId);
     CartItem addItemToCart(AddToCartRequest request);
+    List<CartItem> addItemsToCart(BatchAddToCartRequest request);
     CartItem updateCartItem(Long id, int quantity);
     void deleteCartItem(Long cartItemId);
 }
@@ -0,0 +1,12 @@
+package com.smecs.service;
+
+public interface CartMaintenanceService {
+
+    /**
+     * Deletes the items of carts untouched for longer than the configured age, in
+     * bounded batches.
+     *
+     * @return number of cart items deleted
+     */
+    int purgeAbandonedCartItems();
+}
@@ -1,6 +1,7 @@
 package com.smecs.service;
 
 import com.smecs.dto.CartItemRequest;
+import com.smecs.dto.CartSummaryDTO;
 import com.smecs.entity.Cart;
 import com.smecs.entity.CartItem;
 import java.util.List;
@@ -13,4 +14,5 @@ public interface CartService {
     Cart getOrCreateCartForUser(Long userId);
     void deleteCart(Long cartId);
     void clearCart(Long cartId);
+    CartSummaryDTO getCartSummary(Long cartId);
 }
@@ -0,0 +1,20 @@
+package com.smecs.service;
+
+import com.smecs.dto.OrderItemDTO;
+
+import java.util.List;
+
+public interface CheckoutService {
+
+    /**
+     * Checks out the current user's cart. With an idempotency key, a repeated call
+     * returns the first call's items without running checkout again.
+     *
+     * @param idempotencyKey client-chosen key, or null for a plain checkout
+     */
+    Result checkout(String idempotencyKey);
+
+    /** @param replayed true when {@code items} come from an earlier request with the same key */
+    record Result(List<OrderItemDTO> items, boolean replayed) {
+    }
+}
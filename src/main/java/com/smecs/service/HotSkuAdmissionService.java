@@ -0,0 +1,25 @@
+package com.smecs.service;
+
+/**
+ * Admission control for checkouts of designated hot SKUs. Instead of every checkout
+ * taking the inventory row lock, reservations for a hot product are queued and a
+ * single consumer per product applies them in micro-batches.
+ */
+public interface HotSkuAdmissionService {
+
+    boolean isHot(Long productId);
+
+    /**
+     * Reserves stock for a hot product and waits for the consumer's answer. The
+     * decrement is committed by the consumer; when called inside a transaction it is
+     * given back automatically if that transaction rolls back.
+     *
+     * @return the stock left after this reservation
+     * @throws IllegalArgumentException if there is not enough stock
+     * @throws java.util.concurrent.RejectedExecutionException if the queue is full or no answer arrives in time
+     */
+    int reserve(Long productId, int quantity);
+
+    /** Gives back stock taken by an earlier {@link #reserve} call. */
+    void release(Long productId, int quantity);
+}
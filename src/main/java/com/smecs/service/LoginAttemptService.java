@@ -0,0 +1,16 @@
+package com.smecs.service;
+
+public interface LoginAttemptService {
+    /**
+     * Whether this client has exceeded the failed-login limit for the username
+     * from its IP, or for its IP across all usernames.
+     */
+    boolean isBlocked(String username, String ipAddress);
+
+    /**
+     * Counts a failed login and returns the failures for this username and IP in the current window.
+     */
+    long recordFailure(String username, String ipAddress);
+
+    void recordSuccess(String username, String ipAddress);
+}
@@ -0,0 +1,45 @@
+package com.smecs.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Optional;
+
+public interface OrderExportService {
+
+    enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Optional<Format> parse(String value) {
+            if (value == null) {
+                return Optional.empty();
+            }
+            for (Format format : values()) {
+                if (format.name().equals(value.toUpperCase(Locale.ROOT))) {
+                    return Optional.of(format);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /** Writes every order to {@code out} and returns the number of rows written. */
+    long exportOrders(Format format, OutputStream out) throws IOException;
+}
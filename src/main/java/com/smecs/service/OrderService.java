@@ -1,6 +1,7 @@
 package com.smecs.service;
 
 import com.smecs.dto.OrderDTO;
+import com.smecs.dto.OrderDetailDTO;
 import com.smecs.entity.Order;
 import com.smecs.dto.OrderQuery;
 import com.smecs.dto.PagedResponseDTO;
@@ -9,9 +10,11 @@ import com.smecs.dto.UpdateOrderStatusRequestDTO;
 public interface OrderService {
     Order createOrder();
     OrderDTO getOrderById(Long id);
+    OrderDetailDTO getOrderDetail(Long id);
     OrderDTO updateOrderStatus(Long id, UpdateOrderStatusRequestDTO request);
     PagedResponseDTO<OrderDTO> getAllOrders(OrderQuery query);
     PagedResponseDTO<OrderDTO> getOrdersByUserId(Long userId, OrderQuery query);
     void deleteOrder(Long id);
     void updateOrderTotalOrThrow(Long orderId);
+    void adjustOrderTotalOrThrow(Long orderId, double delta);
 }
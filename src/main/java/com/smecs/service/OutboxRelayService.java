@@ -0,0 +1,13 @@
+package com.smecs.service;
+
+public interface OutboxRelayService {
+
+    /**
+     * Delivers pending outbox events in batches until none are left.
+     *
+     * @return number of events delivered
+     */
+    int relayPending();
+
+    void purgePublished();
+}
@@ -0,0 +1,32 @@
+package com.smecs.service;
+
+import com.smecs.security.SmecsUserPrincipal;
+
+public interface RefreshTokenService {
+
+    record Rotation(SmecsUserPrincipal principal, String refreshToken, long ttlSeconds) {
+    }
+
+    /**
+     * Starts a new rotation family for a freshly authenticated user and returns the raw token.
+     */
+    String issue(SmecsUserPrincipal principal);
+
+    /**
+     * Exchanges a refresh token for its successor. Presenting a token that was
+     * already exchanged revokes its whole family.
+     *
+     * @throws com.smecs.exception.UnauthorizedException if the token is unknown, expired, revoked or reused
+     */
+    Rotation rotate(String refreshToken);
+
+    void revoke(String refreshToken);
+
+    /**
+     * Revokes every family belonging to the user. Rotation copies the claims captured
+     * at login, so this must be called whenever those claims stop being true.
+     */
+    void revokeAllForUser(Long userId);
+
+    long getTtlSeconds();
+}
@@ -0,0 +1,28 @@
+package com.smecs.service;
+
+import com.smecs.util.ReportScope;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs report aggregations: each report gets its own {@link ReportScope} with the
+ * configured deadline, its sub-queries run in parallel, and the number of reports
+ * running at once is capped.
+ */
+public interface ReportEngine {
+
+    /**
+     * @param allowPartial when true, sub-queries that fail or miss the deadline are
+     *                     left out instead of failing the whole report
+     * @return completes with the report, or fails with {@code TimeoutException},
+     * {@code RejectedExecutionException} (too many concurrent reports) or the first
+     * sub-query failure
+     */
+    <R> CompletableFuture<R> run(boolean allowPartial, Report<R> report);
+
+    @FunctionalInterface
+    interface Report<R> {
+        /** Forks sub-queries on {@code scope}, calls {@code scope.join()} and assembles the result. */
+        R aggregate(ReportScope scope) throws Exception;
+    }
+}
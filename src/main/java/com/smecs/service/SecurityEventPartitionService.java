@@ -0,0 +1,9 @@
+package com.smecs.service;
+
+public interface SecurityEventPartitionService {
+    /**
+     * Creates the upcoming daily partitions of {@code security_events} and drops
+     * the ones that fall entirely outside the retention window.
+     */
+    void maintainPartitions();
+}
@@ -0,0 +1,27 @@
+package com.smecs.service;
+
+import com.smecs.dto.SecurityEventCountDTO;
+import com.smecs.dto.SecurityEventEndpointCountDTO;
+import com.smecs.dto.SecurityEventIpCountDTO;
+import com.smecs.dto.SecurityEventUserCountDTO;
+import com.smecs.entity.SecurityEventType;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface SecurityEventReportService {
+    List<SecurityEventCountDTO> countByEventType(Collection<SecurityEventType> eventTypes, Instant start, Instant end);
+
+    List<SecurityEventUserCountDTO> findTopUsers(Collection<SecurityEventType> eventTypes, Instant start, Instant end, int limit);
+
+    List<SecurityEventIpCountDTO> findTopIps(Collection<SecurityEventType> eventTypes, Instant start, Instant end, int limit);
+
+    List<SecurityEventEndpointCountDTO> findTopEndpoints(Instant start, Instant end, int limit);
+
+    long countDistinctEndpoints(Instant start, Instant end);
+
+    long countEvents(Instant start, Instant end);
+
+    long countEvents(SecurityEventType eventType, Instant start, Instant end);
+}
@@ -6,7 +6,11 @@ import com.smecs.entity.User;
 public interface SecurityEventService {
     void recordLoginSuccess(User user, RequestMetadata metadata);
 
-    void recordLoginFailure(String username, RequestMetadata metadata);
+    /**
+     * @param attempts failures for this username and IP in the current detection window,
+     *                 as counted by {@link LoginAttemptService#recordFailure}
+     */
+    void recordLoginFailure(String username, RequestMetadata metadata, long attempts);
 
     void recordTokenIssued(User user, String token, RequestMetadata metadata);
 
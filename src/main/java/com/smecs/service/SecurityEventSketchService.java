@@ -0,0 +1,12 @@
+package com.smecs.service;
+
+import com.smecs.entity.SecurityEvent;
+
+/**
+ * Approximate security reports answered from in-memory sketches instead of the database.
+ */
+public interface SecurityEventSketchService extends SecurityEventReportService {
+    void record(SecurityEvent event);
+
+    void flush();
+}
@@ -0,0 +1,28 @@
+package com.smecs.service;
+
+import com.smecs.dto.UserDirectoryEntry;
+import com.smecs.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Cached, node-local user lookups for profile reads. Entries may be stale by up
+ * to the cache TTL on other nodes, so nothing that authenticates or authorizes a
+ * user (login, OAuth2 linking, role checks) may read from here. Every write to a
+ * {@link User} must go through {@link #put(User)} or {@link #evict(UserDirectoryEntry)}
+ * once its transaction has committed, so the id, username and email caches stay
+ * consistent.
+ */
+public interface UserDirectoryService {
+
+    Optional<UserDirectoryEntry> findById(Long id);
+
+    Optional<UserDirectoryEntry> findByUsername(String username);
+
+    Optional<UserDirectoryEntry> findByEmail(String email);
+
+    /** Write-through after the user has been saved. */
+    UserDirectoryEntry put(User user);
+
+    void evict(UserDirectoryEntry entry);
+}
@@ -22,6 +22,11 @@ public interface UserService {
 
     void deleteUser(Long userId);
 
+    /**
+     * Changes the user's role and revokes their refresh tokens, which still carry the old one.
+     */
+    User changeRole(Long userId, String role);
+
     String hashPassword(String password);
 
     SmecsUserPrincipal requirePrincipal();
@@ -1,10 +1,13 @@
 package com.smecs.service.impl;
 
 import com.smecs.dto.AddToCartRequest;
+import com.smecs.dto.BatchAddToCartRequest;
+import com.smecs.dto.CartItemRequest;
 import com.smecs.entity.Cart;
 import com.smecs.entity.CartItem;
 import com.smecs.entity.Product;
 import com.smecs.entity.Inventory;
+import com.smecs.event.CartChanged;
 import com.smecs.exception.ResourceNotFoundException;
 import com.smecs.repository.CartItemRepository;
 import com.smecs.repository.ProductRepository;
@@ -16,12 +19,18 @@ import com.smecs.service.UserService;
 import com.smecs.security.OwnershipChecks;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @AllArgsConstructor(onConstructor_ = @Autowired)
 @Service
@@ -32,6 +41,9 @@ public class CartItemServiceImpl implements CartItemService {
     private final InventoryRepository inventoryRepository; // read-only checks only
     private final OwnershipChecks ownershipChecks;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CartLocking cartLocking;
+    private final CartWriteBehind cartWriteBehind;
 
     @Override
     @Transactional
@@ -44,17 +56,97 @@ public class CartItemServiceImpl implements CartItemService {
         Cart cart = cartService.getOrCreateCartForUser(principal.getUserId());
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + request.getProductId()));
-        Inventory inventory = inventoryRepository.findByProduct_Id(product.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product id: " + product.getId()));
+        Inventory inventory = findInventoryForCheck(product.getId());
+
+        CartItem item = addOrUpdateCartItem(cart, product, inventory, request.getQuantity());
+        eventPublisher.publishEvent(new CartChanged(cart.getCartId()));
+        return item;
+    }
+
+    /**
+     * Adds several lines in one transaction. The cart is locked once, and products,
+     * inventory and existing lines are each loaded with one IN query. Lines for the
+     * same product are merged. If any line fails validation, nothing is added.
+     */
+    @Override
+    @Transactional
+    public List<CartItem> addItemsToCart(BatchAddToCartRequest request) {
+        ownershipChecks.assertUserMatches(request.getUserId());
+        Map<Long, Integer> quantities = mergeQuantities(request.getItems());
+
+        SmecsUserPrincipal principal = userService.requirePrincipal();
+        Cart cart = cartService.getOrCreateCartForUser(principal.getUserId());
+        cartWriteBehind.flushUnderLock(cart.getCartId());
+
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Inventory> inventories = inventoryRepository.findByProductIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(inventory -> inventory.getProduct().getId(), Function.identity()));
+        List<CartItem> currentLines = cartLocking.isStriped()
+                ? cartItemRepository.findByCartIdAndProductIds(cart.getCartId(), quantities.keySet())
+                : cartItemRepository.findByCartIdAndProductIdsForUpdate(cart.getCartId(), quantities.keySet());
+        Map<Long, CartItem> existingItems = currentLines.stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CartItem> lines = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantityToAdd) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+            Inventory inventory = inventories.get(productId);
+            if (inventory == null) {
+                throw new ResourceNotFoundException("Inventory not found for product id: " + productId);
+            }
 
-        return addOrUpdateCartItem(cart, product, inventory, request.getQuantity());
+            CartItem item = existingItems.get(productId);
+            int desiredTotal = (item != null ? item.getQuantity() : 0) + quantityToAdd;
+            validateInventory(inventory, desiredTotal, productId);
+
+            if (item == null) {
+                item = new CartItem();
+                item.setCart(cart);
+                item.setProduct(product);
+                item.setAddedAt(now);
+            }
+            item.setQuantity(desiredTotal);
+            lines.add(item);
+        });
+
+        cart.setUpdatedAt(now);
+        List<CartItem> saved = cartItemRepository.saveAll(lines);
+        eventPublisher.publishEvent(new CartChanged(cart.getCartId()));
+        return saved;
+    }
+
+    private static Map<Long, Integer> mergeQuantities(List<CartItemRequest> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Items list cannot be empty");
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartItemRequest item : items) {
+            if (item.getProductId() == null) {
+                throw new IllegalArgumentException("Product ID is required");
+            }
+            if (item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be greater than 0");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
     }
 
     private CartItem addOrUpdateCartItem(Cart cart, Product product, Inventory inventory, int quantityToAdd) {
-        CartItem existingItem = cartItemRepository.findByCartIdAndProductIdForUpdate(cart.getCartId(), product.getId())
-                .orElse(null);
+        CartItem existingItem = findExistingItem(cart.getCartId(), product.getId());
 
         if (existingItem != null) {
+            int desiredTotal = cartWriteBehind.currentQuantity(existingItem) + quantityToAdd;
+            validateInventory(inventory, desiredTotal, product.getId());
+            CartItem staged = cartWriteBehind.stageQuantity(existingItem, desiredTotal);
+            if (staged != null) {
+                return staged;
+            }
             return incrementExistingCartItem(existingItem, inventory, quantityToAdd);
         }
 
@@ -76,6 +168,24 @@ public class CartItemServiceImpl implements CartItemService {
         }
     }
 
+    /** With striped cart locks the cart is already serialized in-process, so the row lock is skipped. */
+    private CartItem findExistingItem(Long cartId, Long productId) {
+        if (cartLocking.isStriped()) {
+            return cartItemRepository.findByCartIdAndProductId(cartId, productId);
+        }
+        return cartItemRepository.findByCartIdAndProductIdForUpdate(cartId, productId).orElse(null);
+    }
+
+    private Inventory findInventoryForCheck(Long productId) {
+        if (cartLocking.isStriped()) {
+            // Adding to a cart reserves nothing, so an unlocked read is enough for the stock check.
+            return inventoryRepository.findByProductIdIn(List.of(productId)).stream().findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product id: " + productId));
+        }
+        return inventoryRepository.findByProduct_Id(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product id: " + productId));
+    }
+
     private CartItem incrementExistingCartItem(CartItem cartItem, Inventory inventory, int quantityToAdd) {
         Long productId = cartItem.getProduct() != null ? cartItem.getProduct().getId() : null;
         int currentCartQty = cartItem.getQuantity();
@@ -105,7 +215,7 @@ public class CartItemServiceImpl implements CartItemService {
         CartItem item = getCartItemById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart Item not found with id " + id));
 
-        int oldQuantity = item.getQuantity();
+        int oldQuantity = cartWriteBehind.currentQuantity(item);
         if (oldQuantity == quantity) {
             return item;
         }
@@ -123,21 +233,35 @@ public class CartItemServiceImpl implements CartItemService {
             throw new IllegalArgumentException("Not enough inventory for product id: " + product.getId());
         }
 
+        CartItem staged = cartWriteBehind.stageQuantity(item, quantity);
+        if (staged != null) {
+            publishCartChanged(staged);
+            return staged;
+        }
+
         item.setQuantity(quantity);
-        return cartItemRepository.save(item);
+        if (item.getCart() != null) {
+            // Keeps the cart out of the abandoned-cart sweep.
+            item.getCart().setUpdatedAt(LocalDateTime.now());
+        }
+        CartItem saved = cartItemRepository.save(item);
+        publishCartChanged(saved);
+        return saved;
     }
 
     @Override
     public java.util.Optional<CartItem> getCartItemById(Long cartItemId) {
-        java.util.Optional<CartItem> itemOpt = cartItemRepository.findById(cartItemId);
+        java.util.Optional<CartItem> itemOpt = cartItemRepository.findById(cartItemId)
+                .filter(item -> !cartWriteBehind.isRemoved(item));
         itemOpt.ifPresent(ownershipChecks::assertCartItemOwnership);
-        return itemOpt;
+        return itemOpt.map(cartWriteBehind::withBufferedQuantity);
     }
 
     @Override
     public List<CartItem> getCartItemsByCartId(Long cartId) {
         cartService.getCartById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found with id: " + cartId));
+        cartWriteBehind.flush(cartId);
         return cartItemRepository.findByCartId(cartId);
     }
 
@@ -145,9 +269,19 @@ public class CartItemServiceImpl implements CartItemService {
     @Transactional
     public void deleteCartItem(Long cartItemId) {
         CartItem cartItem = cartItemRepository.findById(cartItemId)
+                .filter(item -> !cartWriteBehind.isRemoved(item))
                 .orElseThrow(() -> new ResourceNotFoundException("CartItem not found with id: " + cartItemId));
         ownershipChecks.assertCartItemOwnership(cartItem);
 
-        cartItemRepository.delete(cartItem);
+        if (!cartWriteBehind.stageRemoval(cartItem)) {
+            cartItemRepository.delete(cartItem);
+        }
+        publishCartChanged(cartItem);
+    }
+
+    private void publishCartChanged(CartItem item) {
+        if (item.getCart() != null) {
+            eventPublisher.publishEvent(new CartChanged(item.getCart().getCartId()));
+        }
     }
 }
@@ -0,0 +1,76 @@
+package com.smecs.service.impl;
+
+import com.smecs.util.StripedLocks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Chooses how cart writes are serialized, via {@code app.carts.locking}.
+ * <ul>
+ *     <li>{@code pessimistic} (default): {@code SELECT ... FOR UPDATE} on the cart row
+ *     and the cart item row. This is safe across any number of nodes.</li>
+ *     <li>{@code striped}: an in-process lock per user id, held until the transaction
+ *     completes, so add-to-cart takes no database row locks. This is only safe when all
+ *     of a user's requests reach the same node, for example a single instance or sticky
+ *     sessions. The unique (cart_id, product_id) constraint still stops duplicate lines
+ *     across nodes.</li>
+ * </ul>
+ */
+@Component
+public class CartLocking {
+
+    private final boolean striped;
+    private final StripedLocks locks;
+    private final Duration timeout;
+
+    @Autowired
+    public CartLocking(@Value("${app.carts.locking:pessimistic}") String mode,
+                       @Value("${app.carts.lock-stripes:256}") int stripes,
+                       @Value("${app.carts.lock-timeout-ms:2000}") long timeoutMs) {
+        this.striped = switch (mode.toLowerCase()) {
+            case "striped" -> true;
+            case "pessimistic" -> false;
+            default -> throw new IllegalArgumentException("Unknown app.carts.locking mode: " + mode);
+        };
+        this.locks = new StripedLocks(stripes);
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    public boolean isStriped() {
+        return striped;
+    }
+
+    /**
+     * Locks the cart's stripe until the current transaction completes. Releasing
+     * after commit matters: a lock released before commit would let the next
+     * writer read the previous writer's uncommitted quantities.
+     */
+    public void lockUntilCompletion(Long cartId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Cart locks must be taken inside a transaction");
+        }
+        ReentrantLock lock = locks.get(cartId);
+        try {
+            if (!lock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Timed out waiting for cart " + cartId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted waiting for cart " + cartId, e);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
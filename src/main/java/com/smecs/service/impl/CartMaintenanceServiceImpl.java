@@ -0,0 +1,82 @@
+package com.smecs.service.impl;
+
+import com.smecs.event.CartChanged;
+import com.smecs.repository.CartItemRepository;
+import com.smecs.service.CartMaintenanceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sweeps items out of carts nobody has touched for {@code app.carts.abandoned-after-days}.
+ * Each batch is its own short transaction of at most {@code app.carts.sweep.batch-size}
+ * rows, and a run stops after {@code app.carts.sweep.max-batches}, so the sweep never
+ * holds long locks or bloats a single transaction. Carts locked by a live request
+ * are skipped. Cart rows themselves are kept, since every user has exactly one.
+ */
+@Service
+@ConditionalOnProperty(name = "app.carts.sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class CartMaintenanceServiceImpl implements CartMaintenanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(CartMaintenanceServiceImpl.class);
+
+    private final CartItemRepository cartItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration abandonedAfter;
+    private final int batchSize;
+    private final int maxBatches;
+
+    @Autowired
+    public CartMaintenanceServiceImpl(CartItemRepository cartItemRepository,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.carts.abandoned-after-days:30}") long abandonedAfterDays,
+                                      @Value("${app.carts.sweep.batch-size:500}") int batchSize,
+                                      @Value("${app.carts.sweep.max-batches:200}") int maxBatches) {
+        this.cartItemRepository = cartItemRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.abandonedAfter = Duration.ofDays(abandonedAfterDays);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Override
+    @Scheduled(cron = "${app.carts.sweep-cron:0 45 3 * * *}")
+    public int purgeAbandonedCartItems() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(abandonedAfter);
+        int removed = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer deleted = transactionTemplate.execute(status -> deleteBatch(cutoff));
+            if (deleted == null) {
+                break;
+            }
+            removed += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            log.info("Purged {} items from carts untouched since {}", removed, cutoff);
+        }
+        return removed;
+    }
+
+    private int deleteBatch(LocalDateTime cutoff) {
+        List<Long> cartIds = cartItemRepository.deleteAbandonedItems(cutoff, batchSize);
+        cartIds.stream().distinct().forEach(cartId -> eventPublisher.publishEvent(new CartChanged(cartId)));
+        return cartIds.size();
+    }
+}
@@ -1,16 +1,21 @@
 package com.smecs.service.impl;
 
+import com.smecs.config.CacheConfig;
+import com.smecs.dto.CartSummaryDTO;
 import com.smecs.entity.Cart;
 import com.smecs.entity.User;
-import com.smecs.entity.CartItem;
 import com.smecs.repository.CartRepository;
 import com.smecs.repository.UserRepository;
 import com.smecs.repository.CartItemRepository;
+import com.smecs.event.CartChanged;
 import com.smecs.exception.ResourceNotFoundException;
 import com.smecs.service.CartService;
 import com.smecs.security.OwnershipChecks;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +30,10 @@ public class CartServiceImpl implements CartService {
     private final UserRepository userRepository;
     private final CartItemRepository cartItemRepository;
     private final OwnershipChecks ownershipChecks;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CartLocking cartLocking;
+    private final CartWriteBehind cartWriteBehind;
 
     @Override
     public List<Cart> getAllCarts() {
@@ -54,17 +63,29 @@ public class CartServiceImpl implements CartService {
     @Override
     @Transactional
     public Cart getOrCreateCartForUser(Long userId) {
-        return cartRepository.findByCartId(userId)
+        return findCartLocked(userId)
                 .orElseGet(() -> createCartWithRetry(userId));
     }
 
+    /**
+     * Loads the cart holding the lock every cart writer takes: the in-process stripe
+     * in striped mode, otherwise the row lock.
+     */
+    private Optional<Cart> findCartLocked(Long cartId) {
+        if (cartLocking.isStriped()) {
+            cartLocking.lockUntilCompletion(cartId);
+            return cartRepository.findById(cartId);
+        }
+        return cartRepository.findByCartId(cartId);
+    }
+
     private Cart createCartWithRetry(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         try {
             return createNewCart(user);
         } catch (DataIntegrityViolationException exception) {
-            return cartRepository.findByCartId(userId)
+            return (cartLocking.isStriped() ? cartRepository.findById(userId) : cartRepository.findByCartId(userId))
                     .orElseThrow(() -> exception);
         }
     }
@@ -83,20 +104,45 @@ public class CartServiceImpl implements CartService {
             throw new ResourceNotFoundException("Cart not found with id: " + cartId);
         }
         cartRepository.deleteById(cartId);
+        eventPublisher.publishEvent(new CartChanged(cartId));
     }
 
     @Override
+    @Transactional
     public void clearCart(Long cartId) {
-        Cart cart = cartRepository.findById(cartId)
+        // Locked like add-to-cart, so an increment cannot update a line this DELETE removes.
+        Cart cart = findCartLocked(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found with id: " + cartId));
         ownershipChecks.assertCartOwnership(cart);
 
-        List<CartItem> items = cartItemRepository.findByCartId(cartId);
-        if (items != null && !items.isEmpty()) {
-            cartItemRepository.deleteAll(items);
-        }
+        cartWriteBehind.discard(cartId);
+        // One DELETE statement instead of loading the items and deleting them row by row.
+        cartItemRepository.deleteByCartId(cartId);
 
         cart.setUpdatedAt(java.time.LocalDateTime.now());
         cartRepository.save(cart);
+        eventPublisher.publishEvent(new CartChanged(cartId));
+    }
+
+    /**
+     * Lines with product details, stock and totals from one joined query, cached per
+     * cart. Ownership is checked on every call, before the cache is consulted.
+     * Entries are evicted when the cart commits a change; stock levels may lag by
+     * up to the cache's short TTL.
+     */
+    @Override
+    public CartSummaryDTO getCartSummary(Long cartId) {
+        ownershipChecks.assertCartIdOwnership(cartId);
+        // The flush commits before returning, and its CartChanged evicts the entry on this thread.
+        cartWriteBehind.flush(cartId);
+        Cache cache = cacheManager.getCache(CacheConfig.CART_SUMMARY);
+        if (cache == null) {
+            return loadCartSummary(cartId);
+        }
+        return cache.get(cartId, () -> loadCartSummary(cartId));
+    }
+
+    private CartSummaryDTO loadCartSummary(Long cartId) {
+        return CartSummaryDTO.of(cartId, cartItemRepository.findCartLines(cartId));
     }
 }
@@ -0,0 +1,264 @@
+package com.smecs.service.impl;
+
+import com.smecs.entity.CartItem;
+import com.smecs.event.CartChanged;
+import com.smecs.repository.CartItemRepository;
+import com.smecs.repository.CartRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional write-behind buffer for cart line quantities, enabled with
+ * {@code app.carts.write-behind.enabled}. Quantity changes and removals of existing
+ * lines are kept in memory per cart. Repeated edits to a line collapse into one
+ * value, and the values are written every {@code app.carts.write-behind.flush-interval-ms}.
+ * New lines are still inserted straight away, because clients need their ids.
+ *
+ * <p>Anything that reads a whole cart, such as listing, the summary or checkout,
+ * calls {@link #flush} first. A flush locks the cart the same way a cart write does,
+ * and an entry leaves the buffer only once its write has committed, so a reader sees
+ * either the buffered value or the committed one. When
+ * {@code app.carts.write-behind.max-carts} carts are buffered, writes for other
+ * carts go straight to the database.</p>
+ *
+ * <p>An edit enters the buffer only after its transaction commits, so a rolled-back
+ * edit leaves nothing behind. Staging holds the cart's in-process lock until then.
+ * Writers that must not miss an edit, such as checkout, call {@link #flushUnderLock}
+ * before reading the cart. It locks the cart, takes the same lock, and writes the
+ * buffer inside the caller's transaction.</p>
+ */
+@Component
+public class CartWriteBehind {
+    private static final Logger log = LoggerFactory.getLogger(CartWriteBehind.class);
+
+    /** Buffered quantity meaning "remove this line". */
+    private static final int REMOVED = 0;
+
+    private final CartItemRepository cartItemRepository;
+    private final CartRepository cartRepository;
+    private final CartLocking cartLocking;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxCarts;
+    private final Map<Long, Map<Long, Integer>> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CartWriteBehind(CartItemRepository cartItemRepository,
+                           CartRepository cartRepository,
+                           CartLocking cartLocking,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.carts.write-behind.enabled:false}") boolean enabled,
+                           @Value("${app.carts.write-behind.max-carts:10000}") int maxCarts) {
+        this.cartItemRepository = cartItemRepository;
+        this.cartRepository = cartRepository;
+        this.cartLocking = cartLocking;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Cart edits stand on their own, even if the checkout that forced the flush rolls back.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxCarts = maxCarts;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The line's quantity including any buffered change; 0 if its removal is buffered. */
+    public int currentQuantity(CartItem item) {
+        Integer buffered = buffered(item);
+        return buffered != null ? buffered : item.getQuantity();
+    }
+
+    /** The line itself, or a detached copy carrying its buffered quantity. */
+    public CartItem withBufferedQuantity(CartItem item) {
+        Integer buffered = buffered(item);
+        return buffered == null || buffered == item.getQuantity() ? item : copyWithQuantity(item, buffered);
+    }
+
+    /** True if the line's removal is buffered but not yet written. */
+    public boolean isRemoved(CartItem item) {
+        Integer buffered = buffered(item);
+        return buffered != null && buffered == REMOVED;
+    }
+
+    /**
+     * Buffers a new quantity for an existing line.
+     *
+     * @return a detached copy of the line with the new quantity, or null if the
+     * buffer is disabled or full and the caller must write through
+     */
+    public CartItem stageQuantity(CartItem item, int quantity) {
+        return stage(item, quantity) ? copyWithQuantity(item, quantity) : null;
+    }
+
+    /** Buffers removal of a line; false if the caller must delete it directly. */
+    public boolean stageRemoval(CartItem item) {
+        return stage(item, REMOVED);
+    }
+
+    /**
+     * Writes the cart's buffered changes and waits for them to commit. Must be called
+     * before the caller locks the cart, since the flush takes the cart lock itself.
+     *
+     * @return true if anything was written
+     */
+    public boolean flush(Long cartId) {
+        Map<Long, Integer> lines = cartId != null ? pending.get(cartId) : null;
+        if (lines == null || lines.isEmpty()) {
+            return false;
+        }
+        Map<Long, Integer> snapshot = Map.copyOf(lines);
+        transactionTemplate.executeWithoutResult(status -> write(cartId, snapshot));
+        // Values staged while the write ran differ from the snapshot and stay buffered.
+        pending.computeIfPresent(cartId, (id, current) -> {
+            snapshot.forEach((cartItemId, quantity) -> current.remove(cartItemId, quantity));
+            return current.isEmpty() ? null : current;
+        });
+        return true;
+    }
+
+    /**
+     * Locks the cart and writes its buffered changes in the caller's transaction. It
+     * also takes the lock edits are staged under, so every edit has either reached the
+     * buffer or waits for the caller to finish. The entries leave the buffer only if
+     * the caller commits.
+     */
+    public void flushUnderLock(Long cartId) {
+        if (!enabled || cartId == null) {
+            return;
+        }
+        // Cart lock first, as the add-to-cart path does, then the staging lock.
+        lockCart(cartId);
+        cartLocking.lockUntilCompletion(cartId);
+        Map<Long, Integer> lines = pending.get(cartId);
+        if (lines == null || lines.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> snapshot = Map.copyOf(lines);
+        write(cartId, snapshot);
+        afterCommit(() -> pending.computeIfPresent(cartId, (id, current) -> {
+            snapshot.forEach((cartItemId, quantity) -> current.remove(cartItemId, quantity));
+            return current.isEmpty() ? null : current;
+        }));
+    }
+
+    /** Drops buffered changes for a cart whose lines are all being deleted anyway, once that commits. */
+    public void discard(Long cartId) {
+        if (cartId != null) {
+            afterCommit(() -> pending.remove(cartId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.carts.write-behind.flush-interval-ms:1000}")
+    public void flushAll() {
+        for (Long cartId : List.copyOf(pending.keySet())) {
+            try {
+                flush(cartId);
+            } catch (RuntimeException e) {
+                // Left buffered; the next run retries.
+                log.error("Write-behind flush failed for cart {}", cartId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushAll();
+    }
+
+    private boolean stage(CartItem item, int quantity) {
+        Long cartId = item.getCart() != null ? item.getCart().getCartId() : null;
+        if (!enabled || cartId == null || item.getCartItemId() == null) {
+            return false;
+        }
+        if (pending.size() >= maxCarts && !pending.containsKey(cartId)) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Held until the edit has entered the buffer, so flushUnderLock cannot slip in between.
+            cartLocking.lockUntilCompletion(cartId);
+        }
+        Long cartItemId = item.getCartItemId();
+        afterCommit(() -> pending.compute(cartId, (id, lines) -> {
+            Map<Long, Integer> target = lines != null ? lines : new ConcurrentHashMap<>();
+            target.put(cartItemId, quantity);
+            return target;
+        }));
+        return true;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static CartItem copyWithQuantity(CartItem item, int quantity) {
+        // A copy, so the change never reaches the database through dirty checking.
+        CartItem copy = new CartItem();
+        copy.setCartItemId(item.getCartItemId());
+        copy.setCart(item.getCart());
+        copy.setProduct(item.getProduct());
+        copy.setAddedAt(item.getAddedAt());
+        copy.setQuantity(quantity);
+        return copy;
+    }
+
+    private Integer buffered(CartItem item) {
+        Long cartId = item.getCart() != null ? item.getCart().getCartId() : null;
+        Map<Long, Integer> lines = cartId != null ? pending.get(cartId) : null;
+        return lines != null ? lines.get(item.getCartItemId()) : null;
+    }
+
+    private void lockCart(Long cartId) {
+        if (cartLocking.isStriped()) {
+            cartLocking.lockUntilCompletion(cartId);
+        } else {
+            cartRepository.findByCartId(cartId);
+        }
+    }
+
+    private void write(Long cartId, Map<Long, Integer> lines) {
+        lockCart(cartId);
+        List<Long> removed = new ArrayList<>();
+        lines.forEach((cartItemId, quantity) -> {
+            if (quantity == REMOVED) {
+                removed.add(cartItemId);
+            } else {
+                cartItemRepository.updateQuantity(cartItemId, quantity);
+            }
+        });
+        if (!removed.isEmpty()) {
+            cartItemRepository.deleteByCartItemIdIn(removed);
+        }
+        cartRepository.touch(cartId, LocalDateTime.now());
+        eventPublisher.publishEvent(new CartChanged(cartId));
+    }
+}
@@ -0,0 +1,130 @@
+package com.smecs.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smecs.dto.OrderItemDTO;
+import com.smecs.entity.IdempotencyRecord;
+import com.smecs.entity.OrderItem;
+import com.smecs.mapper.OrderItemMapper;
+import com.smecs.repository.IdempotencyRecordRepository;
+import com.smecs.service.CheckoutService;
+import com.smecs.service.OrderItemService;
+import com.smecs.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Idempotent checkout. A retry with a key that already committed costs one
+ * indexed lookup. The key row is inserted before the checkout runs, in the same
+ * transaction, so a concurrent retry blocks on the unique index until the first
+ * attempt commits and then replays it. If the first attempt rolls back, its key
+ * goes with it and the retry performs the checkout.
+ */
+@Service
+public class CheckoutServiceImpl implements CheckoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutServiceImpl.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<OrderItemDTO>> ITEM_LIST = new TypeReference<>() {
+    };
+
+    private final OrderItemService orderItemService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final UserService userService;
+    private final OrderItemMapper orderItemMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+
+    @Autowired
+    public CheckoutServiceImpl(OrderItemService orderItemService,
+                               IdempotencyRecordRepository idempotencyRecordRepository,
+                               UserService userService,
+                               OrderItemMapper orderItemMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.idempotency.retention-hours:24}") long retentionHours) {
+        this.orderItemService = orderItemService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.userService = userService;
+        this.orderItemMapper = orderItemMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @Override
+    public Result checkout(String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return new Result(toDTOs(orderItemService.createOrderItems()), false);
+        }
+
+        Long userId = userService.requirePrincipal().getUserId();
+        IdempotencyRecord existing = idempotencyRecordRepository
+                .findByUserIdAndIdempotencyKey(userId, idempotencyKey).orElse(null);
+        if (existing != null) {
+            return replay(existing);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> checkoutOnce(userId, idempotencyKey));
+        } catch (DataIntegrityViolationException e) {
+            // Another request with this key committed while we waited on the unique index.
+            return idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .map(this::replay)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    @Scheduled(cron = "${app.idempotency.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        Integer removed = transactionTemplate.execute(
+                status -> idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(retention)));
+        if (removed != null && removed > 0) {
+            log.info("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    private Result checkoutOnce(Long userId, String idempotencyKey) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(userId);
+        record.setIdempotencyKey(idempotencyKey);
+        idempotencyRecordRepository.saveAndFlush(record);
+
+        List<OrderItemDTO> items = toDTOs(orderItemService.createOrderItems());
+        record.setOrderId(items.isEmpty() ? null : items.get(0).getOrderId());
+        record.setResponseBody(write(items));
+        idempotencyRecordRepository.save(record);
+        return new Result(items, false);
+    }
+
+    private Result replay(IdempotencyRecord record) {
+        try {
+            return new Result(MAPPER.readValue(record.getResponseBody(), ITEM_LIST), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored checkout response is unreadable for key " + record.getIdempotencyKey(), e);
+        }
+    }
+
+    private List<OrderItemDTO> toDTOs(List<OrderItem> items) {
+        return items.stream().map(orderItemMapper::toDTO).toList();
+    }
+
+    private static String write(List<OrderItemDTO> items) {
+        try {
+            return MAPPER.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize checkout response", e);
+        }
+    }
+}
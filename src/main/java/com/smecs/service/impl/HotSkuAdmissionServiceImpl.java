@@ -0,0 +1,339 @@
+package com.smecs.service.impl;
+
+import com.smecs.entity.Inventory;
+import com.smecs.event.DomainEvent;
+import com.smecs.event.DomainEventHandler;
+import com.smecs.event.InventoryChanged;
+import com.smecs.exception.ResourceNotFoundException;
+import com.smecs.repository.InventoryRepository;
+import com.smecs.service.HotSkuAdmissionService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * One bounded queue and one consumer thread per hot SKU, configured with
+ * {@code app.checkout.hot-skus}. The consumer drains up to
+ * {@code app.checkout.hot-sku.batch-size} reservations, locks the inventory row
+ * once, grants them in arrival order while stock lasts and commits a single update,
+ * so the row lock is only ever contended by one thread. Once a product is known to
+ * be sold out, further reservations are refused without queueing. Local restocks
+ * arrive as {@link InventoryChanged} events; the hint also expires after
+ * {@code app.checkout.hot-sku.sold-out-recheck-ms}, so the next reservation re-reads
+ * the row and picks up restocks made on another node or directly in the database.
+ */
+@Service
+public class HotSkuAdmissionServiceImpl implements HotSkuAdmissionService, DomainEventHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(HotSkuAdmissionServiceImpl.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSizes;
+    private final Map<Long, Lane> lanes;
+    private final int batchSize;
+    private final Duration reserveTimeout;
+    private final Duration pollInterval;
+    private final long soldOutRecheckMillis;
+    private final LongSupplier clock;
+    private volatile boolean running;
+
+    @Autowired
+    public HotSkuAdmissionServiceImpl(InventoryRepository inventoryRepository,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.checkout.hot-skus:}") Set<Long> hotProductIds,
+                                      @Value("${app.checkout.hot-sku.queue-capacity:1000}") int queueCapacity,
+                                      @Value("${app.checkout.hot-sku.batch-size:200}") int batchSize,
+                                      @Value("${app.checkout.hot-sku.reserve-timeout-ms:2000}") long reserveTimeoutMs,
+                                      @Value("${app.checkout.hot-sku.poll-interval-ms:50}") long pollIntervalMs,
+                                      @Value("${app.checkout.hot-sku.sold-out-recheck-ms:1000}") long soldOutRecheckMs) {
+        this(inventoryRepository, eventPublisher, transactionManager, meterRegistry, hotProductIds, queueCapacity,
+                batchSize, reserveTimeoutMs, pollIntervalMs, soldOutRecheckMs, System::currentTimeMillis);
+    }
+
+    HotSkuAdmissionServiceImpl(InventoryRepository inventoryRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               Set<Long> hotProductIds,
+                               int queueCapacity,
+                               int batchSize,
+                               long reserveTimeoutMs,
+                               long pollIntervalMs,
+                               long soldOutRecheckMs,
+                               LongSupplier clock) {
+        this.inventoryRepository = inventoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // A restock can be applied from a checkout's afterCompletion callback, where the
+        // finished transaction is still bound to the thread and cannot be joined.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSizes = DistributionSummary.builder("smecs.checkout.hot_sku.batch")
+                .description("Reservations applied per hot-SKU inventory update")
+                .register(meterRegistry);
+        this.lanes = hotProductIds.stream()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), id -> new Lane(id, queueCapacity)));
+        this.batchSize = batchSize;
+        this.reserveTimeout = Duration.ofMillis(reserveTimeoutMs);
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+        this.soldOutRecheckMillis = soldOutRecheckMs;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        lanes.values().forEach(lane ->
+                lane.consumer = Thread.ofPlatform().name("hot-sku-" + lane.productId).daemon().start(lane::consumeLoop));
+        if (!lanes.isEmpty()) {
+            log.info("Hot-SKU admission enabled for products {}", lanes.keySet());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Lane lane : lanes.values()) {
+            if (lane.consumer != null) {
+                lane.consumer.interrupt();
+                lane.consumer.join(pollInterval.multipliedBy(10).toMillis());
+            }
+            lane.drainAll();
+        }
+    }
+
+    @Override
+    public boolean isHot(Long productId) {
+        return productId != null && lanes.containsKey(productId);
+    }
+
+    @Override
+    public int reserve(Long productId, int quantity) {
+        Lane lane = requireLane(productId);
+        StockHint hint = lane.stockHint;
+        if (hint != null && hint.stock() < quantity && clock.getAsLong() - hint.observedAt() < soldOutRecheckMillis) {
+            throw notEnough(productId);
+        }
+
+        Reservation reservation = new Reservation(quantity);
+        if (!lane.queue.offer(reservation)) {
+            throw new RejectedExecutionException("Checkout queue is full for product id: " + productId);
+        }
+        int remaining = await(reservation, productId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(productId, quantity);
+                    }
+                }
+            });
+        }
+        return remaining;
+    }
+
+    @Override
+    public void release(Long productId, int quantity) {
+        Lane lane = requireLane(productId);
+        Reservation restock = new Reservation(-quantity);
+        if (!lane.queue.offer(restock)) {
+            // Never drop a restock: apply it on this thread, in its own transaction.
+            lane.apply(List.of(restock));
+        }
+    }
+
+    /** Keeps the sold-out hint in step with stock changes made outside the consumer, such as restocks. */
+    @Override
+    public void handle(List<DomainEvent> batch) {
+        for (DomainEvent event : batch) {
+            if (event instanceof InventoryChanged changed && changed.quantity() != null) {
+                Lane lane = changed.productId() != null ? lanes.get(changed.productId()) : null;
+                if (lane != null) {
+                    lane.stockHint = new StockHint(changed.quantity(), clock.getAsLong());
+                }
+            }
+        }
+    }
+
+    private int await(Reservation reservation, Long productId) {
+        try {
+            try {
+                return reservation.result.get(reserveTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (reservation.cancel()) {
+                    throw new RejectedExecutionException("Checkout queue timed out for product id: " + productId);
+                }
+                // The consumer has already taken it; its answer is imminent.
+                return reservation.result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reservation.cancel();
+            throw new RejectedExecutionException("Interrupted while waiting for product id: " + productId, e);
+        }
+    }
+
+    private Lane requireLane(Long productId) {
+        Lane lane = productId != null ? lanes.get(productId) : null;
+        if (lane == null) {
+            throw new IllegalArgumentException("Product is not a hot SKU: " + productId);
+        }
+        return lane;
+    }
+
+    private static IllegalArgumentException notEnough(Long productId) {
+        return new IllegalArgumentException("Not enough inventory for product id: " + productId);
+    }
+
+    private final class Lane {
+        private final Long productId;
+        private final BlockingQueue<Reservation> queue;
+        private volatile StockHint stockHint;
+        private Thread consumer;
+
+        private Lane(Long productId, int queueCapacity) {
+            this.productId = productId;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        private void consumeLoop() {
+            List<Reservation> batch = new ArrayList<>(batchSize);
+            while (running) {
+                try {
+                    Reservation first = queue.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    apply(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        private void drainAll() {
+            List<Reservation> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                apply(batch);
+                batch.clear();
+            }
+        }
+
+        /** Applies a batch in one transaction: one row lock, one update, one event. */
+        private void apply(List<Reservation> batch) {
+            List<Reservation> live = batch.stream().filter(Reservation::take).toList();
+            if (live.isEmpty()) {
+                return;
+            }
+            int[] remainingAfter = new int[live.size()];
+            boolean[] granted = new boolean[live.size()];
+            Integer finalStock;
+            try {
+                finalStock = transactionTemplate.execute(status -> {
+                    Inventory inventory = inventoryRepository.findByProduct_Id(productId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product id: " + productId));
+                    int stock = inventory.getQuantity() == null ? 0 : inventory.getQuantity();
+                    for (int i = 0; i < live.size(); i++) {
+                        int quantity = live.get(i).quantity;
+                        if (stock >= quantity) {
+                            stock -= quantity;
+                            granted[i] = true;
+                            remainingAfter[i] = stock;
+                        }
+                    }
+                    if (inventory.getQuantity() == null || stock != inventory.getQuantity()) {
+                        inventory.setQuantity(stock);
+                        inventoryRepository.save(inventory);
+                        eventPublisher.publishEvent(new InventoryChanged(inventory.getId(), productId, stock));
+                    }
+                    return stock;
+                });
+            } catch (RuntimeException e) {
+                log.error("Hot-SKU batch of {} reservations failed for product {}", live.size(), productId, e);
+                live.forEach(reservation -> reservation.result.completeExceptionally(e));
+                return;
+            }
+
+            stockHint = finalStock != null ? new StockHint(finalStock, clock.getAsLong()) : null;
+            batchSizes.record(live.size());
+            for (int i = 0; i < live.size(); i++) {
+                if (granted[i]) {
+                    live.get(i).result.complete(remainingAfter[i]);
+                } else {
+                    live.get(i).result.completeExceptionally(notEnough(productId));
+                }
+            }
+        }
+    }
+
+    /** Stock last seen for a lane, and when it was seen. */
+    private record StockHint(int stock, long observedAt) {
+    }
+
+    /** A pending stock change; negative quantities give stock back. */
+    private static final class Reservation {
+        private static final int PENDING = 0;
+        private static final int TAKEN = 1;
+        private static final int CANCELLED = 2;
+
+        private final int quantity;
+        private final CompletableFuture<Integer> result = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Reservation(int quantity) {
+            this.quantity = quantity;
+        }
+
+        private boolean take() {
+            return state.compareAndSet(PENDING, TAKEN);
+        }
+
+        private boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.smecs.dto.ProductDTO;
 import com.smecs.dto.UpdateInventoryRequestDTO;
 import com.smecs.entity.Inventory;
 import com.smecs.entity.Product;
+import com.smecs.event.InventoryChanged;
 import com.smecs.exception.ResourceNotFoundException;
 import com.smecs.repository.CategoryRepository;
 import com.smecs.repository.InventoryRepository;
@@ -19,10 +20,10 @@ import com.smecs.service.InventoryService;
 import com.smecs.service.ProductService;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -41,6 +42,7 @@ public class InventoryServiceImpl implements InventoryService {
     private final ProductRepository productRepository;
     private final ProductService productService;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Cacheable(value = CacheConfig.INVENTORIES_BY_ID, key = "#id")
@@ -84,8 +86,6 @@ public class InventoryServiceImpl implements InventoryService {
     @Caching(put = {
             @CachePut(value = CacheConfig.INVENTORIES_BY_ID, key = "#result.id"),
             @CachePut(value = CacheConfig.INVENTORIES_BY_PRODUCT_ID, key = "#result.productId")
-    }, evict = {
-            @CacheEvict(value = CacheConfig.INVENTORY_SEARCH, allEntries = true)
     })
     public InventoryDTO createInventory(CreateInventoryRequestDTO request) {
         Inventory inventory = new Inventory();
@@ -118,6 +118,7 @@ public class InventoryServiceImpl implements InventoryService {
 
         inventory.setQuantity(request.getQuantity());
         Inventory savedInventory = inventoryRepository.save(inventory);
+        publishChanged(savedInventory);
         return mapToDTO(savedInventory);
     }
 
@@ -136,8 +137,6 @@ public class InventoryServiceImpl implements InventoryService {
     @Caching(put = {
             @CachePut(value = CacheConfig.INVENTORIES_BY_ID, key = "#result.id"),
             @CachePut(value = CacheConfig.INVENTORIES_BY_PRODUCT_ID, key = "#result.productId")
-    }, evict = {
-            @CacheEvict(value = CacheConfig.INVENTORY_SEARCH, allEntries = true)
     })
     public InventoryDTO updateInventory(Long inventoryId, UpdateInventoryRequestDTO request) {
         Inventory inventory = inventoryRepository.findById(inventoryId)
@@ -145,21 +144,25 @@ public class InventoryServiceImpl implements InventoryService {
 
         inventory.setQuantity(request.getQuantity());
         Inventory savedInventory = inventoryRepository.save(inventory);
+        publishChanged(savedInventory);
         return mapToDTO(savedInventory);
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.INVENTORIES_BY_ID, key = "#inventoryId"),
-            @CacheEvict(value = CacheConfig.INVENTORIES_BY_PRODUCT_ID, allEntries = true),
-            @CacheEvict(value = CacheConfig.INVENTORY_SEARCH, allEntries = true)
-    })
     public void deleteInventory(Long inventoryId) {
-        if (!inventoryRepository.existsById(inventoryId)) {
-            throw new ResourceNotFoundException("Inventory not found with id: " + inventoryId);
-        }
+        Inventory inventory = inventoryRepository.findById(inventoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with id: " + inventoryId));
         inventoryRepository.deleteById(inventoryId);
+        eventPublisher.publishEvent(new InventoryChanged(inventoryId,
+                inventory.getProduct() != null ? inventory.getProduct().getId() : null, null));
+    }
+
+    /** Search results and, for other writers, the per-id entries are invalidated after commit. */
+    private void publishChanged(Inventory inventory) {
+        eventPublisher.publishEvent(new InventoryChanged(inventory.getId(),
+                inventory.getProduct() != null ? inventory.getProduct().getId() : null,
+                inventory.getQuantity()));
     }
 
     private InventoryDTO mapToDTO(Inventory inventory) {
@@ -0,0 +1,97 @@
+package com.smecs.service.impl;
+
+import com.smecs.security.LoginAttemptStore;
+import com.smecs.service.LoginAttemptService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Sliding-window brute-force detector consulted synchronously by the login
+ * endpoint, before the password hash is checked. Failures are counted per
+ * username+IP and per IP in a {@link LoginAttemptStore}. The username part of a
+ * key is a SHA-256 digest, so any username fits the store's key column.
+ */
+@Service
+public class LoginAttemptServiceImpl implements LoginAttemptService {
+
+    private static final int SLOTS_PER_WINDOW = 10;
+
+    private final LoginAttemptStore store;
+    private final int maxPerUserAndIp;
+    private final int maxPerIp;
+    private final Duration window;
+    private final Duration slot;
+    private final Clock clock;
+
+    @Autowired
+    public LoginAttemptServiceImpl(LoginAttemptStore store,
+                                   @Value("${app.security.login-attempts.max-per-user-ip:5}") int maxPerUserAndIp,
+                                   @Value("${app.security.login-attempts.max-per-ip:20}") int maxPerIp,
+                                   @Value("${app.security.login-attempts.window-minutes:10}") long windowMinutes) {
+        this(store, maxPerUserAndIp, maxPerIp, Duration.ofMinutes(windowMinutes), Clock.systemUTC());
+    }
+
+    LoginAttemptServiceImpl(LoginAttemptStore store, int maxPerUserAndIp, int maxPerIp,
+                            Duration window, Clock clock) {
+        this.store = store;
+        this.maxPerUserAndIp = maxPerUserAndIp;
+        this.maxPerIp = maxPerIp;
+        this.window = window;
+        this.slot = window.dividedBy(SLOTS_PER_WINDOW);
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean isBlocked(String username, String ipAddress) {
+        Instant now = clock.instant();
+        return store.count(ipKey(ipAddress), now, window, slot) >= maxPerIp
+                || store.count(userKey(username, ipAddress), now, window, slot) >= maxPerUserAndIp;
+    }
+
+    @Override
+    public long recordFailure(String username, String ipAddress) {
+        Instant now = clock.instant();
+        store.increment(ipKey(ipAddress), now, window, slot);
+        return store.increment(userKey(username, ipAddress), now, window, slot);
+    }
+
+    @Override
+    public void recordSuccess(String username, String ipAddress) {
+        store.reset(userKey(username, ipAddress));
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login-attempts.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        store.purgeBefore(clock.instant().minus(window).minus(slot));
+    }
+
+    private static String userKey(String username, String ipAddress) {
+        String user = Objects.requireNonNullElse(username, "unknown").toLowerCase(Locale.ROOT);
+        return "user:" + sha256(user) + "|" + ipAddress;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String ipKey(String ipAddress) {
+        return "ip:" + ipAddress;
+    }
+}
@@ -0,0 +1,132 @@
+package com.smecs.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.smecs.dto.OrderExportRow;
+import com.smecs.repository.OrderRepository;
+import com.smecs.service.OrderExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders straight from a database cursor to the response. Rows are
+ * projections, not entities, and each is written as soon as it is read, so memory
+ * use does not grow with the number of orders. The read-only transaction, and its
+ * connection, stay open until the last row is written, for at most
+ * {@code app.orders.export.timeout-seconds}.
+ */
+@Service
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExportServiceImpl.class);
+
+    private static final String CSV_HEADER = "id,user_id,status,total_amount,created_at\n";
+    private static final JsonFactory JSON = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            // Rows are separated by the newline written after each one.
+            .rootValueSeparator("")
+            .build();
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public OrderExportServiceImpl(OrderRepository orderRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.orders.export.timeout-seconds:1800}") int timeoutSeconds) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout(timeoutSeconds);
+    }
+
+    @Override
+    public long exportOrders(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = format == Format.NDJSON ? JSON.createGenerator(writer) : null;
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        long written;
+        try {
+            written = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<OrderExportRow> rows = orderRepository.streamForExport()) {
+                    for (OrderExportRow row : (Iterable<OrderExportRow>) rows::iterator) {
+                        if (json != null) {
+                            writeJson(json, row);
+                        } else {
+                            writeCsv(writer, row);
+                        }
+                        count++;
+                    }
+                } catch (IOException e) {
+                    // Usually the client went away; abandon the cursor.
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+        log.info("Exported {} orders as {}", written, format);
+        return written;
+    }
+
+    private void writeCsv(Writer writer, OrderExportRow row) throws IOException {
+        // No field can contain a comma, quote or newline, so nothing needs escaping.
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(row.getUserId() != null ? row.getUserId().toString() : "");
+        writer.write(',');
+        writer.write(row.getStatus() != null ? row.getStatus().name() : "");
+        writer.write(',');
+        writer.write(row.getTotalAmount() != null ? row.getTotalAmount().toString() : "");
+        writer.write(',');
+        writer.write(row.getCreatedAt() != null ? row.getCreatedAt().toString() : "");
+        writer.write('\n');
+    }
+
+    private void writeJson(JsonGenerator json, OrderExportRow row) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", row.getId());
+        json.writeFieldName("userId");
+        writeNumberOrNull(json, row.getUserId());
+        json.writeStringField("status", row.getStatus() != null ? row.getStatus().name() : null);
+        json.writeFieldName("totalAmount");
+        writeNumberOrNull(json, row.getTotalAmount());
+        json.writeStringField("createdAt", row.getCreatedAt() != null ? row.getCreatedAt().toString() : null);
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void writeNumberOrNull(JsonGenerator json, Number value) throws IOException {
+        if (value != null) {
+            json.writeNumber(value.toString());
+        } else {
+            json.writeNull();
+        }
+    }
+}
@@ -2,15 +2,19 @@ package com.smecs.service.impl;
 
 import com.smecs.entity.*;
 import com.smecs.dto.OrderItemDTO;
+import com.smecs.event.InventoryChanged;
+import com.smecs.event.OrderPlaced;
 import com.smecs.service.OrderItemService;
 import com.smecs.service.OrderService;
 import com.smecs.service.CartService;
+import com.smecs.service.HotSkuAdmissionService;
 import com.smecs.service.UserService;
 import com.smecs.security.OwnershipChecks;
 import com.smecs.exception.ResourceNotFoundException;
 import com.smecs.repository.*;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,11 +35,21 @@ public class OrderItemServiceImpl implements OrderItemService {
     private final CartItemRepository cartItemRepository;
     private final UserService userService;
     private final OwnershipChecks ownershipChecks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HotSkuAdmissionService hotSkuAdmission;
+    private final CartWriteBehind cartWriteBehind;
+    private final CartLocking cartLocking;
 
     @Override
     @Transactional
     public List<OrderItem> createOrderItems() {
         Long userId = userService.requirePrincipal().getUserId();
+        if (cartLocking.isStriped()) {
+            // Striped add-to-cart takes only this lock, never the row lock below.
+            cartLocking.lockUntilCompletion(userId);
+        }
+        // Buffered cart edits are written in this transaction, under the cart lock, before the cart is read.
+        cartWriteBehind.flushUnderLock(userId);
         Cart cart = cartRepository.findByCartId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found for user: " + userId));
 
@@ -56,17 +70,24 @@ public class OrderItemServiceImpl implements OrderItemService {
             Product product = productRepository.findById(prodId)
                     .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + prodId));
 
-            Inventory inventory = inventoryRepository.findByProduct_Id(product.getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product id: " + product.getId()));
-
             int qty = ci.getQuantity();
-            int available = inventory.getQuantity() == null ? 0 : inventory.getQuantity();
-            if (available < qty) {
-                throw new IllegalArgumentException("Not enough inventory for product id: " + product.getId());
-            }
+            if (hotSkuAdmission.isHot(product.getId())) {
+                // Queued behind the SKU's single consumer instead of waiting on the row lock;
+                // given back automatically if this checkout rolls back.
+                hotSkuAdmission.reserve(product.getId(), qty);
+            } else {
+                Inventory inventory = inventoryRepository.findByProduct_Id(product.getId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product id: " + product.getId()));
 
-            inventory.setQuantity(available - qty);
-            inventoryRepository.save(inventory);
+                int available = inventory.getQuantity() == null ? 0 : inventory.getQuantity();
+                if (available < qty) {
+                    throw new IllegalArgumentException("Not enough inventory for product id: " + product.getId());
+                }
+
+                inventory.setQuantity(available - qty);
+                inventoryRepository.save(inventory);
+                publishInventoryChanged(inventory);
+            }
 
             OrderItem item = new OrderItem();
             item.setProduct(product);
@@ -78,13 +99,17 @@ public class OrderItemServiceImpl implements OrderItemService {
         }
 
         List<OrderItem> savedItems = orderItemRepository.saveAll(orderItems);
-        orderService.updateOrderTotalOrThrow(order.getId());
+        // The order was created empty above, so its total is just the sum of these lines.
+        orderService.adjustOrderTotalOrThrow(order.getId(), savedItems.stream()
+                .mapToDouble(OrderItemServiceImpl::lineTotal)
+                .sum());
 
         // Delete cart items for the user after successfully creating order items
         if (cart.getCartId() != null) {
             cartService.clearCart(cart.getCartId());
         }
 
+        eventPublisher.publishEvent(new OrderPlaced(order.getId(), userId, savedItems.size()));
         return savedItems;
     }
 
@@ -110,6 +135,7 @@ public class OrderItemServiceImpl implements OrderItemService {
                 .orElseThrow(() -> new ResourceNotFoundException("OrderItem not found with id: " + orderItemId));
 
         Long currentProductId = item.getProduct() != null ? item.getProduct().getId() : null;
+        double oldLineTotal = lineTotal(item);
         int oldQuantity = item.getQuantity();
         int newQuantity = oldQuantity;
 
@@ -151,12 +177,14 @@ public class OrderItemServiceImpl implements OrderItemService {
                 inventory.setQuantity(available - diff); // subtract negative -> add
             }
             inventoryRepository.save(inventory);
+            publishInventoryChanged(inventory);
         }
 
         OrderItem savedItem = orderItemRepository.save(item);
         Long orderId = savedItem.getOrder() != null ? savedItem.getOrder().getId() : null;
         if (orderId != null) {
-            orderService.updateOrderTotalOrThrow(orderId);
+            // Called even for a zero delta: it also evicts the order's cached detail.
+            orderService.adjustOrderTotalOrThrow(orderId, lineTotal(item) - oldLineTotal);
         }
         return savedItem;
     }
@@ -176,11 +204,22 @@ public class OrderItemServiceImpl implements OrderItemService {
             int available = inventory.getQuantity() == null ? 0 : inventory.getQuantity();
             inventory.setQuantity(available + item.getQuantity());
             inventoryRepository.save(inventory);
+            publishInventoryChanged(inventory);
         }
 
         orderItemRepository.deleteById(orderItemId);
         if (orderId != null) {
-            orderService.updateOrderTotalOrThrow(orderId);
+            orderService.adjustOrderTotalOrThrow(orderId, -lineTotal(item));
         }
     }
+
+    private static double lineTotal(OrderItem item) {
+        return item.getPriceAtPurchase() * item.getQuantity();
+    }
+
+    private void publishInventoryChanged(Inventory inventory) {
+        eventPublisher.publishEvent(new InventoryChanged(inventory.getId(),
+                inventory.getProduct() != null ? inventory.getProduct().getId() : null,
+                inventory.getQuantity()));
+    }
 }
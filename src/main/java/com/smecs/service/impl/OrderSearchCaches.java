@@ -0,0 +1,109 @@
+package com.smecs.service.impl;
+
+import com.smecs.config.CacheConfig;
+import com.smecs.dto.OrderQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Invalidation for the order search caches, scoped so one customer's order does
+ * not flush everyone else's cached history.
+ * <ul>
+ *     <li>{@code userOrderSearch}: only the affected user's entries are removed,
+ *     matched by their {@code user:<id>|} key prefix.</li>
+ *     <li>{@code orderSearch} (admin): keys carry a version that advances at most
+ *     once per {@code app.orders.admin-search.max-staleness-ms} after a write, so a
+ *     burst of checkouts retires the admin entries once instead of on every order.
+ *     Retired entries are never read again and age out of the cache.</li>
+ * </ul>
+ * Both take effect after the writing transaction commits.
+ */
+@Component
+public class OrderSearchCaches {
+
+    private final CacheManager cacheManager;
+    private final long maxStalenessMillis;
+    private final LongSupplier clock;
+
+    private final AtomicLong adminVersion = new AtomicLong();
+    private volatile boolean adminStale;
+    private volatile long adminVersionedAt;
+
+    @Autowired
+    public OrderSearchCaches(CacheManager cacheManager,
+                             @Value("${app.orders.admin-search.max-staleness-ms:5000}") long maxStalenessMillis) {
+        this(cacheManager, maxStalenessMillis, System::currentTimeMillis);
+    }
+
+    OrderSearchCaches(CacheManager cacheManager, long maxStalenessMillis, LongSupplier clock) {
+        this.cacheManager = cacheManager;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.clock = clock;
+    }
+
+    /** Cache key for the admin search; referenced from {@code @Cacheable} on {@code getAllOrders}. */
+    public String adminKey(OrderQuery query) {
+        return "v:" + currentAdminVersion() + "|" + OrderServiceImpl.searchCacheKey(query);
+    }
+
+    /** Records that an order belonging to {@code userId} changed. */
+    public void orderChanged(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(userId);
+                }
+            });
+        } else {
+            invalidate(userId);
+        }
+    }
+
+    private void invalidate(Long userId) {
+        adminStale = true;
+        evictUser(userId);
+    }
+
+    private void evictUser(Long userId) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_ORDER_SEARCH);
+        if (cache == null) {
+            return;
+        }
+        String prefix = OrderServiceImpl.userSearchKeyPrefix(userId);
+        Map<?, ?> entries = switch (cache.getNativeCache()) {
+            case com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine -> caffeine.asMap();
+            case Map<?, ?> map -> map;
+            default -> null;
+        };
+        if (entries == null) {
+            cache.clear();
+            return;
+        }
+        entries.keySet().removeIf(key -> key instanceof String s && s.startsWith(prefix));
+    }
+
+    private long currentAdminVersion() {
+        long now = clock.getAsLong();
+        if (adminStale && now - adminVersionedAt >= maxStalenessMillis) {
+            synchronized (this) {
+                if (adminStale && now - adminVersionedAt >= maxStalenessMillis) {
+                    // A write marked after this point waits for the next window; one marked before is covered here.
+                    adminStale = false;
+                    adminVersionedAt = now;
+                    return adminVersion.incrementAndGet();
+                }
+            }
+        }
+        return adminVersion.get();
+    }
+}
@@ -2,15 +2,17 @@ package com.smecs.service.impl;
 
 import com.smecs.config.CacheConfig;
 import com.smecs.dto.OrderDTO;
+import com.smecs.dto.OrderDetailDTO;
 import com.smecs.dto.OrderQuery;
 import com.smecs.dto.PagedResponseDTO;
 import com.smecs.dto.PageMetadataDTO;
 import com.smecs.dto.UpdateOrderStatusRequestDTO;
 import com.smecs.entity.Order;
-import com.smecs.entity.OrderItem;
 import com.smecs.entity.User;
+import com.smecs.exception.BadRequestException;
 import com.smecs.exception.ResourceNotFoundException;
 import com.smecs.repository.OrderRepository;
+import com.smecs.repository.OrderSpecification;
 import com.smecs.repository.UserRepository;
 import com.smecs.repository.OrderItemRepository;
 import com.smecs.security.OwnershipChecks;
@@ -22,6 +24,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import com.smecs.service.OrderService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
@@ -38,15 +42,16 @@ import java.util.stream.Collectors;
 public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
-    private final OrderItemRepository orderItemRepository;
     private final OwnershipChecks ownershipChecks;
     private final UserService userService;
     private final OrderMapper orderMapper;
+    private final OrderItemRepository orderItemRepository;
+    private final CacheManager cacheManager;
+    private final OrderSearchCaches orderSearchCaches;
 
     @Override
     @Transactional
     @CachePut(value = CacheConfig.ORDERS_BY_ID, key = "#result.id")
-    @CacheEvict(value = {CacheConfig.ORDER_SEARCH, CacheConfig.USER_ORDER_SEARCH}, allEntries = true)
     public Order createOrder() {
         Long userId = userService.requirePrincipal().getUserId();
         User user = userRepository.findById(userId)
@@ -57,6 +62,7 @@ public class OrderServiceImpl implements OrderService {
         order.setStatus(Order.Status.PENDING);
         order.setCreatedAt(LocalDateTime.now());
         order = orderRepository.save(order);
+        orderSearchCaches.orderChanged(userId);
         return order;
     }
 
@@ -69,13 +75,38 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toDTO(order);
     }
 
+    /**
+     * Order header plus lines and products from one projection query, so showing an
+     * order doesn't lazily load each line's product. Ownership is checked on every
+     * call against the cached owner id; entries are evicted per order on any change.
+     */
+    @Override
+    public OrderDetailDTO getOrderDetail(Long id) {
+        // Loaded outside Cache.get(key, loader), which would wrap a not-found in ValueRetrievalException.
+        Cache cache = cacheManager.getCache(CacheConfig.ORDER_DETAILS);
+        OrderDetailDTO detail = cache != null ? cache.get(id, OrderDetailDTO.class) : null;
+        if (detail == null) {
+            detail = loadOrderDetail(id);
+            if (cache != null) {
+                cache.put(id, detail);
+            }
+        }
+        ownershipChecks.assertOrderOwnerId(detail.getUserId());
+        return detail;
+    }
+
+    private OrderDetailDTO loadOrderDetail(Long id) {
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        return OrderDetailDTO.of(orderMapper.toDTO(order), orderItemRepository.findOrderLines(id));
+    }
+
     @Override
     @Transactional
     @Caching(put = {
             @CachePut(value = CacheConfig.ORDERS_BY_ID, key = "#result.id")
     }, evict = {
-            @CacheEvict(value = CacheConfig.ORDER_SEARCH, allEntries = true),
-            @CacheEvict(value = CacheConfig.USER_ORDER_SEARCH, allEntries = true)
+            @CacheEvict(value = CacheConfig.ORDER_DETAILS, key = "#id")
     })
     public OrderDTO updateOrderStatus(Long id, UpdateOrderStatusRequestDTO request) {
         Order order = orderRepository.findById(id)
@@ -87,61 +118,83 @@ public class OrderServiceImpl implements OrderService {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid order status: " + request.getStatus());
         }
+        orderSearchCaches.orderChanged(order.getUser() != null ? order.getUser().getId() : null);
 
         return orderMapper.toDTO(orderRepository.save(order));
     }
 
     @Override
-    @Cacheable(value = CacheConfig.ORDER_SEARCH, key = "T(com.smecs.service.impl.OrderServiceImpl).searchCacheKey(#query)")
+    @Cacheable(value = CacheConfig.ORDER_SEARCH, key = "@orderSearchCaches.adminKey(#query)")
     public PagedResponseDTO<OrderDTO> getAllOrders(OrderQuery query) {
-        Pageable pageable = buildPageable(query);
-        Order.Status status = Optional.ofNullable(query).map(OrderQuery::getStatus).orElse(null);
-        Page<Order> orderPage = status == null
-                ? orderRepository.findAll(pageable)
-                : orderRepository.findByStatus(status, pageable);
-        return getPagedResponse(orderPage);
+        return searchOrders(query != null ? query : OrderQuery.builder().build());
     }
 
     @Override
     @Cacheable(value = CacheConfig.USER_ORDER_SEARCH, key = "T(com.smecs.service.impl.OrderServiceImpl).userSearchCacheKey(#userId, #query)")
     public PagedResponseDTO<OrderDTO> getOrdersByUserId(Long userId, OrderQuery query) {
         ownershipChecks.assertUserMatches(userId);
-        Page<Order> orderPage = orderRepository.findByUser_Id(userId, buildPageable(query));
+        OrderQuery base = query != null ? query : OrderQuery.builder().build();
+        return searchOrders(base.toBuilder().userId(userId).build());
+    }
+
+    private PagedResponseDTO<OrderDTO> searchOrders(OrderQuery query) {
+        validateRanges(query);
+        Page<Order> orderPage = orderRepository.findAll(OrderSpecification.filterBy(query), buildPageable(query));
         return getPagedResponse(orderPage);
     }
 
+    private void validateRanges(OrderQuery query) {
+        if (query.getCreatedFrom() != null && query.getCreatedTo() != null
+                && query.getCreatedFrom().isAfter(query.getCreatedTo())) {
+            throw new BadRequestException("createdFrom must not be after createdTo");
+        }
+        if (query.getMinTotal() != null && query.getMaxTotal() != null
+                && query.getMinTotal() > query.getMaxTotal()) {
+            throw new BadRequestException("minTotal must not be greater than maxTotal");
+        }
+    }
+
     @Override
     @Transactional
     @Caching(evict = {
             @CacheEvict(value = CacheConfig.ORDERS_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.ORDER_SEARCH, allEntries = true),
-            @CacheEvict(value = CacheConfig.USER_ORDER_SEARCH, allEntries = true)
+            @CacheEvict(value = CacheConfig.ORDER_DETAILS, key = "#id")
     })
     public void deleteOrder(Long id) {
-        if (!orderRepository.existsById(id)) {
-             throw new ResourceNotFoundException("Order not found with id: " + id);
-        }
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        orderSearchCaches.orderChanged(order.getUser() != null ? order.getUser().getId() : null);
         orderRepository.deleteById(id);
     }
 
     @Override
     @Caching(evict = {
             @CacheEvict(value = CacheConfig.ORDERS_BY_ID, key = "#orderId"),
-            @CacheEvict(value = CacheConfig.ORDER_SEARCH, allEntries = true),
-            @CacheEvict(value = CacheConfig.USER_ORDER_SEARCH, allEntries = true)
+            @CacheEvict(value = CacheConfig.ORDER_DETAILS, key = "#orderId")
     })
     @Transactional
     public void updateOrderTotalOrThrow(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
-
-        List<OrderItem> items = orderItemRepository.findByOrder_Id(orderId);
-        double total = items.stream()
-                .mapToDouble(item -> item.getPriceAtPurchase() * item.getQuantity())
-                .sum();
+        if (orderRepository.recalculateTotalAmount(orderId) == 0) {
+            throw new ResourceNotFoundException("Order not found with id: " + orderId);
+        }
+        orderSearchCaches.orderChanged(orderRepository.findUserIdById(orderId));
+    }
 
-        order.setTotalAmount(total);
-        orderRepository.save(order);
+    /**
+     * Applies one line's change to the stored total with a single UPDATE, so item
+     * edits don't reload the order's other lines.
+     */
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.ORDERS_BY_ID, key = "#orderId"),
+            @CacheEvict(value = CacheConfig.ORDER_DETAILS, key = "#orderId")
+    })
+    @Transactional
+    public void adjustOrderTotalOrThrow(Long orderId, double delta) {
+        if (orderRepository.addToTotalAmount(orderId, delta) == 0) {
+            throw new ResourceNotFoundException("Order not found with id: " + orderId);
+        }
+        orderSearchCaches.orderChanged(orderRepository.findUserIdById(orderId));
     }
 
     private OrderDTO toDTO(Order order) {
@@ -169,7 +222,7 @@ public class OrderServiceImpl implements OrderService {
     private Pageable buildPageable(OrderQuery query) {
         int pageIndex = Math.max(0, Optional.ofNullable(query).map(OrderQuery::getPage).orElse(1) - 1);
         int pageSize = Math.max(1, Optional.ofNullable(query).map(OrderQuery::getSize).orElse(10));
-        String sortClause = Optional.ofNullable(query).map(OrderQuery::getSort).orElse("createdAt,desc");
+        String sortClause = Optional.ofNullable(query).map(OrderQuery::getSort).orElse(OrderQuery.DEFAULT_SORT);
 
         String sortField = "createdAt";
         Sort.Direction direction = Sort.Direction.DESC;
@@ -177,29 +230,46 @@ public class OrderServiceImpl implements OrderService {
         if (!sortClause.isBlank()) {
             String[] sortParams = sortClause.split(",");
             if (sortParams.length > 0 && !sortParams[0].isBlank()) {
-                sortField = sortParams[0];
+                sortField = sortParams[0].trim();
             }
             if (sortParams.length > 1 && !sortParams[1].isBlank()) {
                 direction = sortParams[1].equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
             }
         }
 
-        return PageRequest.of(pageIndex, pageSize, Sort.by(direction, sortField));
+        if (!OrderQuery.SORT_KEYS.contains(sortField)) {
+            throw new BadRequestException("Unsupported sort field: " + sortField
+                    + ". Supported: " + String.join(", ", OrderQuery.SORT_KEYS));
+        }
+
+        // The id tiebreaker keeps paging stable and is the last column of each composite index.
+        return PageRequest.of(pageIndex, pageSize, Sort.by(direction, sortField, "id"));
     }
 
     public static String searchCacheKey(OrderQuery query) {
         OrderQuery normalized = query != null ? query : OrderQuery.builder().build();
         int page = normalized.getPage() != null ? normalized.getPage() : 1;
         int size = normalized.getSize() != null ? normalized.getSize() : 10;
-        String sort = normalized.getSort() != null ? normalized.getSort() : "createdAt,desc";
+        String sort = normalized.getSort() != null ? normalized.getSort() : OrderQuery.DEFAULT_SORT;
         String statusKey = normalized.getStatus() != null ? normalized.getStatus().name() : "";
 
-        return String.format("status:%s|page:%d|size:%d|sort:%s", statusKey, page, size, sort);
+        return String.format("status:%s|userId:%s|from:%s|to:%s|min:%s|max:%s|page:%d|size:%d|sort:%s",
+                statusKey, keyPart(normalized.getUserId()), keyPart(normalized.getCreatedFrom()),
+                keyPart(normalized.getCreatedTo()), keyPart(normalized.getMinTotal()),
+                keyPart(normalized.getMaxTotal()), page, size, sort);
+    }
+
+    private static String keyPart(Object value) {
+        return value != null ? value.toString() : "";
     }
 
     public static String userSearchCacheKey(Long userId, OrderQuery query) {
+        return userSearchKeyPrefix(userId) + searchCacheKey(query);
+    }
+
+    public static String userSearchKeyPrefix(Long userId) {
         Long normalizedUserId = userId != null ? userId : -1L;
-        return String.format("user:%d|%s", normalizedUserId, searchCacheKey(query));
+        return String.format("user:%d|", normalizedUserId);
     }
 
 }
@@ -0,0 +1,145 @@
+package com.smecs.service.impl;
+
+import com.smecs.entity.OutboxEvent;
+import com.smecs.event.OutboxEventConsumer;
+import com.smecs.repository.OutboxEventRepository;
+import com.smecs.service.OutboxRelayService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polls {@code outbox_events} and hands each event to every
+ * {@link OutboxEventConsumer}. Each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED} and marked in the same transaction, so any number
+ * of nodes can run the relay without delivering a row twice concurrently. A failed
+ * event is not claimed again until its backoff has passed, starting at
+ * {@code app.outbox.retry-base-delay-ms} and doubling per attempt up to
+ * {@code app.outbox.retry-max-delay-ms}. Events that fail
+ * {@code app.outbox.max-attempts} times are left in the table for inspection.
+ */
+@Service
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayServiceImpl implements OutboxRelayService {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelayServiceImpl.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventConsumer> consumers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final Duration retryBaseDelay;
+    private final Duration retryMaxDelay;
+    private final Clock clock;
+
+    @Autowired
+    public OutboxRelayServiceImpl(OutboxEventRepository outboxEventRepository,
+                                  List<OutboxEventConsumer> consumers,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.outbox.batch-size:100}") int batchSize,
+                                  @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                                  @Value("${app.outbox.retention-days:7}") long retentionDays,
+                                  @Value("${app.outbox.retry-base-delay-ms:1000}") long retryBaseDelayMs,
+                                  @Value("${app.outbox.retry-max-delay-ms:300000}") long retryMaxDelayMs) {
+        this(outboxEventRepository, consumers, transactionManager, batchSize, maxAttempts, retentionDays,
+                retryBaseDelayMs, retryMaxDelayMs, Clock.systemUTC());
+    }
+
+    OutboxRelayServiceImpl(OutboxEventRepository outboxEventRepository,
+                           List<OutboxEventConsumer> consumers,
+                           PlatformTransactionManager transactionManager,
+                           int batchSize, int maxAttempts, long retentionDays,
+                           long retryBaseDelayMs, long retryMaxDelayMs, Clock clock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.consumers = consumers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = Duration.ofDays(retentionDays);
+        this.retryBaseDelay = Duration.ofMillis(retryBaseDelayMs);
+        this.retryMaxDelay = Duration.ofMillis(retryMaxDelayMs);
+        this.clock = clock;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public int relayPending() {
+        int delivered = 0;
+        while (true) {
+            BatchResult result = transactionTemplate.execute(status -> relayBatch());
+            if (result == null) {
+                return delivered;
+            }
+            delivered += result.delivered();
+            // A short batch means the backlog is drained; failures suggest a consumer is down, so wait for the next poll.
+            if (result.claimed() < batchSize || result.failed() > 0) {
+                return delivered;
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${app.outbox.purge-cron:0 30 3 * * *}")
+    public void purgePublished() {
+        Integer removed = transactionTemplate.execute(
+                status -> outboxEventRepository.deletePublishedBefore(clock.instant().minus(retention)));
+        if (removed != null && removed > 0) {
+            log.info("Purged {} published outbox events", removed);
+        }
+    }
+
+    private BatchResult relayBatch() {
+        Instant now = clock.instant();
+        List<OutboxEvent> claimed = outboxEventRepository.claimBatch(batchSize, maxAttempts, now);
+        List<Long> published = new ArrayList<>(claimed.size());
+        int failed = 0;
+        for (OutboxEvent event : claimed) {
+            try {
+                for (OutboxEventConsumer consumer : consumers) {
+                    consumer.accept(event);
+                }
+                published.add(event.getId());
+            } catch (RuntimeException e) {
+                failed++;
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(truncate(e.toString()));
+                event.setNextAttemptAt(now.plus(retryDelay(event.getAttempts())));
+                log.warn("Outbox event {} ({}) failed delivery attempt {}, next attempt at {}",
+                        event.getId(), event.getEventType(), event.getAttempts(), event.getNextAttemptAt(), e);
+            }
+        }
+        if (!published.isEmpty()) {
+            outboxEventRepository.markPublished(published, now);
+        }
+        return new BatchResult(claimed.size(), published.size(), failed);
+    }
+
+    /** Base delay doubled for each earlier failure, capped at the maximum. */
+    private Duration retryDelay(int attempts) {
+        Duration delay = retryBaseDelay.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(retryMaxDelay) > 0 ? retryMaxDelay : delay;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private record BatchResult(int claimed, int delivered, int failed) {
+    }
+}
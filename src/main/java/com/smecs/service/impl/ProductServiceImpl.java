@@ -7,6 +7,7 @@ import com.smecs.dto.ProductDTO;
 import com.smecs.dto.PagedResponseDTO;
 import com.smecs.dto.ProductQuery;
 import com.smecs.entity.Product;
+import com.smecs.event.ProductChanged;
 import com.smecs.exception.ResourceNotFoundException;
 import com.smecs.repository.CategoryRepository;
 import com.smecs.repository.ProductRepository;
@@ -16,10 +17,9 @@ import com.smecs.util.PaginationUtils;
 import lombok.AllArgsConstructor;
 import org.jspecify.annotations.NonNull;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -36,13 +36,16 @@ import java.util.stream.Collectors;
 public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /** Search caches are cleared by {@code CacheInvalidationHandler} once the change is committed. */
     @Override
     @CachePut(value = CacheConfig.PRODUCTS_BY_ID, key = "#result.id")
-    @CacheEvict(value = CacheConfig.PRODUCT_SEARCH, allEntries = true)
     public ProductDTO createProduct(CreateProductRequestDTO request) {
         Product product = new Product();
-        return persistProduct(request, product);
+        ProductDTO created = persistProduct(request, product);
+        eventPublisher.publishEvent(new ProductChanged(created.getId(), ProductChanged.Change.CREATED));
+        return created;
     }
 
     @Override
@@ -97,18 +100,15 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @CachePut(value = CacheConfig.PRODUCTS_BY_ID, key = "#id")
-    @CacheEvict(value = CacheConfig.PRODUCT_SEARCH, allEntries = true)
     public ProductDTO updateProduct(Long id, CreateProductRequestDTO productDTO) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return persistProduct(productDTO, product);
+        ProductDTO updated = persistProduct(productDTO, product);
+        eventPublisher.publishEvent(new ProductChanged(id, ProductChanged.Change.UPDATED));
+        return updated;
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.PRODUCTS_BY_ID, key = "#id"),
-            @CacheEvict(value = CacheConfig.PRODUCT_SEARCH, allEntries = true)
-    })
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new ResourceNotFoundException("Product not found with id: " + id);
@@ -120,6 +120,7 @@ public class ProductServiceImpl implements ProductService {
             // Database-level foreign key prevented deletion; return a generic business error without counts
             throw new IllegalStateException("Cannot delete product with id: " + id + " — it is referenced by other records.");
         }
+        eventPublisher.publishEvent(new ProductChanged(id, ProductChanged.Change.DELETED));
     }
 
     @NonNull
@@ -0,0 +1,126 @@
+package com.smecs.service.impl;
+
+import com.smecs.entity.RefreshToken;
+import com.smecs.exception.UnauthorizedException;
+import com.smecs.repository.RefreshTokenRepository;
+import com.smecs.security.SmecsUserPrincipal;
+import com.smecs.service.RefreshTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Rotating refresh tokens. Every refresh consumes the presented token and issues
+ * its successor in the same family; a consumed token presented again means it was
+ * copied, so the family is revoked and both holders must log in again.
+ */
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   @Value("${app.security.refresh-token.ttl-days:14}") long ttlDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = Duration.ofDays(ttlDays);
+    }
+
+    @Override
+    @Transactional
+    public String issue(SmecsUserPrincipal principal) {
+        return save(principal, UUID.randomUUID().toString(), Instant.now().plus(ttl));
+    }
+
+    // noRollbackFor keeps the family revocation when reuse is reported to the caller.
+    @Override
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public Rotation rotate(String refreshToken) {
+        RefreshToken current = findByRawToken(refreshToken);
+        if (current == null || current.isRevoked() || !current.getExpiresAt().isAfter(Instant.now())) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+
+        if (refreshTokenRepository.markUsed(current.getId(), Instant.now()) == 0) {
+            log.warn("Refresh token reuse detected for userId={}; revoking token family", current.getUserId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new UnauthorizedException("Refresh token reuse detected");
+        }
+
+        SmecsUserPrincipal principal = new SmecsUserPrincipal(
+                current.getUserId(), current.getUsername(), current.getEmail(), current.getRole());
+        // The successor keeps the family's absolute expiry, so an active session still has to log in again.
+        String successor = save(principal, current.getFamilyId(), current.getExpiresAt());
+        return new Rotation(principal, successor, Duration.between(Instant.now(), current.getExpiresAt()).toSeconds());
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken) {
+        RefreshToken current = findByRawToken(refreshToken);
+        if (current != null) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        int revoked = refreshTokenRepository.revokeAllForUser(userId);
+        if (revoked > 0) {
+            log.info("Revoked {} refresh tokens for userId={}", revoked, userId);
+        }
+    }
+
+    @Override
+    public long getTtlSeconds() {
+        return ttl.toSeconds();
+    }
+
+    @Scheduled(cron = "${app.security.refresh-token.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private RefreshToken findByRawToken(String refreshToken) {
+        String tokenHash = TokenRevocationServiceImpl.hashTokenForKey(refreshToken);
+        if (tokenHash == null) {
+            return null;
+        }
+        return refreshTokenRepository.findByTokenHash(tokenHash).orElse(null);
+    }
+
+    private String save(SmecsUserPrincipal principal, String familyId, Instant expiresAt) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(TokenRevocationServiceImpl.hashTokenForKey(rawToken));
+        token.setFamilyId(familyId);
+        token.setUserId(principal.getUserId());
+        token.setUsername(principal.getUsername());
+        token.setEmail(principal.getEmail());
+        token.setRole(principal.getRole());
+        token.setExpiresAt(expiresAt);
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+}
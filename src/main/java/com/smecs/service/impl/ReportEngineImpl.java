@@ -0,0 +1,67 @@
+package com.smecs.service.impl;
+
+import com.smecs.service.ReportEngine;
+import com.smecs.util.ReportScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Each report's owner runs on its own virtual thread, which only forks and waits,
+ * while the sub-queries run on {@code reportTaskExecutor}. Reports over the
+ * concurrency cap are rejected at once rather than queued behind running ones.
+ */
+@Service
+public class ReportEngineImpl implements ReportEngine {
+
+    private static final ThreadFactory OWNER_THREADS = Thread.ofVirtual().name("report-owner-", 0).factory();
+
+    private final Executor reportTaskExecutor;
+    private final Duration timeout;
+    private final Semaphore runningReports;
+
+    @Autowired
+    public ReportEngineImpl(@Qualifier("reportTaskExecutor") Executor reportTaskExecutor,
+                            @Value("${app.security.reports.timeout-ms:10000}") long timeoutMs,
+                            @Value("${app.security.reports.max-concurrent:4}") int maxConcurrent) {
+        this.reportTaskExecutor = reportTaskExecutor;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.runningReports = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> run(boolean allowPartial, Report<R> report) {
+        if (!runningReports.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Too many reports running, please retry shortly"));
+        }
+        CompletableFuture<R> result = new CompletableFuture<>();
+        try {
+            OWNER_THREADS.newThread(() -> {
+                R value = null;
+                Throwable failure = null;
+                try (ReportScope scope = new ReportScope(reportTaskExecutor, timeout, allowPartial)) {
+                    value = report.aggregate(scope);
+                } catch (Throwable t) {
+                    failure = t;
+                } finally {
+                    // Free the slot before completing, so a caller reacting to the result can start another report.
+                    runningReports.release();
+                }
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(value);
+                }
+            }).start();
+        } catch (RuntimeException | Error e) {
+            runningReports.release();
+            throw e;
+        }
+        return result;
+    }
+}
@@ -11,11 +11,13 @@ import com.smecs.dto.UpdateReviewRequestDTO;
 import com.smecs.entity.Product;
 import com.smecs.entity.Review;
 import com.smecs.entity.User;
+import com.smecs.event.ReviewPosted;
 import com.smecs.exception.ResourceNotFoundException;
 import com.smecs.service.ReviewService;
 import com.smecs.security.OwnershipChecks;
 import org.jspecify.annotations.NonNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,16 +32,19 @@ public class ReviewServiceImpl implements ReviewService {
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final OwnershipChecks ownershipChecks;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public ReviewServiceImpl(ReviewRepository reviewRepository,
                              UserRepository userRepository,
                              ProductRepository productRepository,
-                             OwnershipChecks ownershipChecks) {
+                             OwnershipChecks ownershipChecks,
+                             ApplicationEventPublisher eventPublisher) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
         this.ownershipChecks = ownershipChecks;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -57,6 +62,7 @@ public class ReviewServiceImpl implements ReviewService {
         review.setComment(request.getComment());
 
         review = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewPosted(review.getId(), product.getId(), review.getRating()));
         return mapToDTO(review);
     }
 
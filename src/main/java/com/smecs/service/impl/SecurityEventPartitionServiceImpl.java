@@ -0,0 +1,110 @@
+package com.smecs.service.impl;
+
+import com.smecs.repository.SecurityEventRepository;
+import com.smecs.service.SecurityEventPartitionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Keeps {@code security_events} partitioned by UTC day so report range scans only
+ * touch the partitions in the window, and retention is a {@code DROP TABLE} per
+ * expired day instead of a bulk delete. Hourly rollups are kept, so reports over
+ * whole hours still cover dropped days.
+ *
+ * <p>Converting an existing plain table discards rows older than the retention
+ * window, so it only happens on its own when there are none, e.g. on a fresh
+ * database. Otherwise it needs
+ * {@code app.security.events.partitioning.discard-expired-on-convert=true}; until
+ * then the table stays unpartitioned and maintenance is skipped.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "app.security.events.partitioning.enabled", havingValue = "true", matchIfMissing = true)
+public class SecurityEventPartitionServiceImpl implements SecurityEventPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityEventPartitionServiceImpl.class);
+
+    private final SecurityEventRepository securityEventRepository;
+    private final int retentionDays;
+    private final int premakeDays;
+    private final boolean discardExpiredOnConvert;
+    private final Clock clock;
+
+    @Autowired
+    public SecurityEventPartitionServiceImpl(SecurityEventRepository securityEventRepository,
+                                             @Value("${app.security.events.retention-days:90}") int retentionDays,
+                                             @Value("${app.security.events.partition-premake-days:7}") int premakeDays,
+                                             @Value("${app.security.events.partitioning.discard-expired-on-convert:false}")
+                                             boolean discardExpiredOnConvert) {
+        this(securityEventRepository, retentionDays, premakeDays, discardExpiredOnConvert, Clock.systemUTC());
+    }
+
+    SecurityEventPartitionServiceImpl(SecurityEventRepository securityEventRepository,
+                                      int retentionDays, int premakeDays, boolean discardExpiredOnConvert,
+                                      Clock clock) {
+        this.securityEventRepository = securityEventRepository;
+        this.retentionDays = retentionDays;
+        this.premakeDays = premakeDays;
+        this.discardExpiredOnConvert = discardExpiredOnConvert;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializePartitions() {
+        if (!securityEventRepository.isPartitioned()) {
+            LocalDate today = LocalDate.now(clock);
+            LocalDate firstRetainedDay = firstRetainedDay(today);
+            boolean discards = securityEventRepository.hasRowsBefore(firstRetainedDay);
+            if (discards && !discardExpiredOnConvert) {
+                log.warn("security_events is not partitioned and holds rows older than {} days, which converting "
+                        + "would delete. Archive them, or set app.security.events.partitioning"
+                        + ".discard-expired-on-convert=true to convert anyway. Partitioning stays off until then.",
+                        retentionDays);
+                return;
+            }
+            if (securityEventRepository.convertToPartitioned(firstRetainedDay, today.plusDays(premakeDays))) {
+                if (discards) {
+                    log.warn("Converted security_events to daily partitions; deleted rows created before {}",
+                            firstRetainedDay);
+                } else {
+                    log.info("Converted security_events to daily partitions");
+                }
+            }
+        }
+        maintainPartitions();
+    }
+
+    @Override
+    @Scheduled(cron = "${app.security.events.partition-cron:0 5 0 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        if (!securityEventRepository.isPartitioned()) {
+            return;
+        }
+        LocalDate today = LocalDate.now(clock);
+        for (int i = 0; i <= premakeDays; i++) {
+            securityEventRepository.createPartition(today.plusDays(i));
+        }
+
+        LocalDate firstRetainedDay = firstRetainedDay(today);
+        for (LocalDate day : securityEventRepository.findPartitionDays()) {
+            if (day.isBefore(firstRetainedDay)) {
+                log.info("Dropping expired security_events partition for {}", day);
+                securityEventRepository.dropPartition(day);
+            }
+        }
+        securityEventRepository.purgeDefaultPartition(firstRetainedDay);
+    }
+
+    private LocalDate firstRetainedDay(LocalDate today) {
+        return today.minusDays(retentionDays);
+    }
+}
@@ -1,14 +1,13 @@
 package com.smecs.service.impl;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import com.smecs.dto.RequestMetadata;
 import com.smecs.entity.SecurityEvent;
 import com.smecs.entity.SecurityEventType;
 import com.smecs.entity.User;
-import com.smecs.repository.SecurityEventRepository;
 import com.smecs.service.SecurityEventService;
+import com.smecs.service.SecurityEventSketchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Async;
@@ -16,30 +15,24 @@ import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.time.Duration;
 import java.util.HexFormat;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class SecurityEventServiceImpl implements SecurityEventService {
 
     private static final Logger log = LoggerFactory.getLogger(SecurityEventServiceImpl.class);
 
-    private static final int BRUTE_FORCE_THRESHOLD = 5;
-    private static final Duration BRUTE_FORCE_WINDOW = Duration.ofMinutes(10);
-
-    private final SecurityEventRepository securityEventRepository;
-    private final Cache<String, FailedLoginTracker> failedLoginCache;
+    private final SecurityEventWriter writer;
+    private final SecurityEventSketchService sketchService;
+    private final int bruteForceThreshold;
 
     @Autowired
-    public SecurityEventServiceImpl(SecurityEventRepository securityEventRepository) {
-        this.securityEventRepository = securityEventRepository;
-        this.failedLoginCache = Caffeine.newBuilder()
-                .expireAfterWrite(BRUTE_FORCE_WINDOW)
-                .maximumSize(10_000)
-                .build();
+    public SecurityEventServiceImpl(SecurityEventWriter writer,
+                                    SecurityEventSketchService sketchService,
+                                    @Value("${app.security.login-attempts.max-per-user-ip:5}") int bruteForceThreshold) {
+        this.writer = writer;
+        this.sketchService = sketchService;
+        this.bruteForceThreshold = bruteForceThreshold;
     }
 
     @Async
@@ -49,27 +42,25 @@ public class SecurityEventServiceImpl implements SecurityEventService {
         SecurityEvent event = baseEvent(SecurityEventType.LOGIN_SUCCESS, metadata);
         event.setUserId(user.getId());
         event.setUsername(user.getUsername());
-        securityEventRepository.save(event);
+        persist(event);
     }
 
     @Async
     @Override
-    public void recordLoginFailure(String username, RequestMetadata metadata) {
+    public void recordLoginFailure(String username, RequestMetadata metadata, long attempts) {
         log.info("recordLoginFailure invoked on thread={}", Thread.currentThread().getName());
-        String key = buildAttemptKey(username, metadata);
-        FailedLoginTracker tracker = failedLoginCache.get(key, k -> new FailedLoginTracker());
-        int attempts = tracker.incrementAndGet();
 
         SecurityEvent event = baseEvent(SecurityEventType.LOGIN_FAILURE, metadata);
         event.setUsername(username);
         event.setDetails("attempts=" + attempts);
-        securityEventRepository.save(event);
+        persist(event);
 
-        if (attempts >= BRUTE_FORCE_THRESHOLD && tracker.markAlertEmitted()) {
+        // The shared counter is incremented atomically, so only one failure observes the threshold value.
+        if (attempts == bruteForceThreshold) {
             SecurityEvent alert = baseEvent(SecurityEventType.BRUTE_FORCE_ALERT, metadata);
             alert.setUsername(username);
             alert.setDetails("attempts=" + attempts);
-            securityEventRepository.save(alert);
+            persist(alert);
         }
     }
 
@@ -81,7 +72,7 @@ public class SecurityEventServiceImpl implements SecurityEventService {
         event.setUserId(user.getId());
         event.setUsername(user.getUsername());
         event.setTokenHash(hashToken(token));
-        securityEventRepository.save(event);
+        persist(event);
     }
 
     @Async
@@ -92,7 +83,7 @@ public class SecurityEventServiceImpl implements SecurityEventService {
         event.setUserId(userId);
         event.setUsername(username);
         event.setTokenHash(hashToken(token));
-        securityEventRepository.save(event);
+        persist(event);
     }
 
     @Async
@@ -101,7 +92,7 @@ public class SecurityEventServiceImpl implements SecurityEventService {
         log.info("recordTokenRejected invoked on thread={}", Thread.currentThread().getName());
         SecurityEvent event = baseEvent(SecurityEventType.TOKEN_INVALID, metadata);
         event.setTokenHash(hashToken(token));
-        securityEventRepository.save(event);
+        persist(event);
     }
 
     @Async
@@ -111,7 +102,13 @@ public class SecurityEventServiceImpl implements SecurityEventService {
         SecurityEvent event = baseEvent(SecurityEventType.OAUTH2_SUCCESS, metadata);
         event.setUserId(user.getId());
         event.setUsername(user.getUsername());
-        securityEventRepository.save(event);
+        persist(event);
+    }
+
+    private void persist(SecurityEvent event) {
+        SecurityEvent saved = writer.write(event);
+        // In memory only, so recorded once the row and rollups have committed.
+        sketchService.record(saved);
     }
 
     private SecurityEvent baseEvent(SecurityEventType type, RequestMetadata metadata) {
@@ -123,11 +120,6 @@ public class SecurityEventServiceImpl implements SecurityEventService {
         return event;
     }
 
-    private String buildAttemptKey(String username, RequestMetadata metadata) {
-        String userPart = Objects.requireNonNullElse(username, "unknown");
-        return userPart + "|" + metadata.getIpAddress();
-    }
-
     private String hashToken(String token) {
         if (token == null || token.isBlank()) {
             return null;
@@ -146,17 +138,4 @@ public class SecurityEventServiceImpl implements SecurityEventService {
         if (value.length() <= maxLength) return value;
         return value.substring(0, maxLength);
     }
-
-    private static class FailedLoginTracker {
-        private final AtomicInteger attempts = new AtomicInteger();
-        private final AtomicBoolean alertEmitted = new AtomicBoolean(false);
-
-        int incrementAndGet() {
-            return attempts.incrementAndGet();
-        }
-
-        boolean markAlertEmitted() {
-            return alertEmitted.compareAndSet(false, true);
-        }
-    }
 }
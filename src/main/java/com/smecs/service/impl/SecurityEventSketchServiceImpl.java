@@ -0,0 +1,457 @@
+package com.smecs.service.impl;
+
+import com.smecs.dto.SecurityEventCountDTO;
+import com.smecs.dto.SecurityEventEndpointCountDTO;
+import com.smecs.dto.SecurityEventIpCountDTO;
+import com.smecs.dto.SecurityEventUserCountDTO;
+import com.smecs.entity.SecurityEvent;
+import com.smecs.entity.SecurityEventSketch;
+import com.smecs.entity.SecurityEventType;
+import com.smecs.repository.SecurityEventSketchRepository;
+import com.smecs.service.SecurityEventSketchService;
+import com.smecs.util.HyperLogLog;
+import com.smecs.util.SpaceSaving;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps one hour of sketches per bucket in memory: exact per-type counters,
+ * Space-Saving heavy hitters for users, IPs and endpoints, and a HyperLogLog of
+ * endpoints. Reports merge the buckets overlapping the window, so they are
+ * hour-aligned (the first and last hour are counted whole) and top-K counts are
+ * upper bounds.
+ *
+ * <p>Each hour is stored as one row of {@code security_event_sketches}, shared by
+ * every node. Besides the buckets used for reports, the service keeps the events
+ * recorded since its last flush as separate pending buckets. On a fixed delay each
+ * pending bucket is merged into the stored sketch under a row lock, so concurrent
+ * flushes from several nodes add up instead of overwriting each other. A pending
+ * bucket that fails to persist is folded back and retried on the next flush.
+ *
+ * <p>After each flush, rows updated by any node since the previous refresh are
+ * read back, and each report bucket becomes the stored sketch plus this node's
+ * unflushed events. Every node therefore reports cluster-wide counts, at most one
+ * flush interval behind. Startup does the same for every retained row.</p>
+ */
+@Service
+public class SecurityEventSketchServiceImpl implements SecurityEventSketchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityEventSketchServiceImpl.class);
+
+    private static final int HLL_PRECISION = 12;
+    private static final int TOP_K_CAPACITY = 200;
+    private static final int FORMAT_VERSION = 1;
+    /** Re-reads rows this far before the last refresh, to tolerate clock skew between nodes. */
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(5);
+
+    private final SecurityEventSketchRepository sketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final ConcurrentNavigableMap<Instant, Bucket> buckets = new ConcurrentSkipListMap<>();
+    // Events not yet merged into the stored sketches; compute and remove are atomic here.
+    private final ConcurrentMap<Instant, Bucket> pending = new ConcurrentHashMap<>();
+    // Guarded by this; null until the first refresh.
+    private Instant lastRefresh;
+
+    @Autowired
+    public SecurityEventSketchServiceImpl(SecurityEventSketchRepository sketchRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${app.security.sketches.retention-hours:720}") long retentionHours) {
+        this.sketchRepository = sketchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadPersistedSketches() {
+        Instant startedAt = Instant.now();
+        int loaded = refreshFrom(sketchRepository.findByBucketStartGreaterThanEqual(retentionCutoff()));
+        lastRefresh = startedAt;
+        log.info("Loaded {} security event sketch buckets", loaded);
+    }
+
+    @Override
+    public void record(SecurityEvent event) {
+        if (event == null || event.getCreatedAt() == null) {
+            return;
+        }
+        Instant bucketStart = event.getCreatedAt().truncatedTo(ChronoUnit.HOURS);
+        if (bucketStart.isBefore(retentionCutoff())) {
+            return;
+        }
+        pending.compute(bucketStart, (k, bucket) -> {
+            Bucket target = bucket != null ? bucket : new Bucket();
+            target.add(event);
+            // Inside the same per-key compute as refreshFrom, so a refreshed bucket never misses this event.
+            buckets.computeIfAbsent(k, key -> new Bucket()).add(event);
+            return target;
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.security.sketches.flush-interval-ms:60000}",
+            initialDelayString = "${app.security.sketches.flush-interval-ms:60000}")
+    public synchronized void flush() {
+        Instant startedAt = Instant.now();
+        Instant cutoff = retentionCutoff();
+        for (Instant bucketStart : new ArrayList<>(pending.keySet())) {
+            Bucket delta = pending.remove(bucketStart);
+            if (delta == null || bucketStart.isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> mergeIntoStored(bucketStart, delta));
+            } catch (RuntimeException e) {
+                // Events recorded meanwhile may have started a new pending bucket; add this one back to it.
+                pending.merge(bucketStart, delta, Bucket::mergeFrom);
+                log.warn("Failed to persist security event sketch for bucket {}", bucketStart, e);
+            }
+        }
+
+        buckets.headMap(cutoff).clear();
+        sketchRepository.deleteOlderThan(cutoff);
+
+        try {
+            refreshFrom(lastRefresh == null
+                    ? sketchRepository.findByBucketStartGreaterThanEqual(cutoff)
+                    : sketchRepository.findByUpdatedAtGreaterThanEqual(lastRefresh.minus(REFRESH_OVERLAP)));
+            lastRefresh = startedAt;
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh security event sketches from the database", e);
+        }
+    }
+
+    /**
+     * Replaces each row's report bucket with the stored sketch plus this node's
+     * pending events for that hour. Returns the number of rows applied.
+     */
+    private int refreshFrom(List<SecurityEventSketch> rows) {
+        Instant cutoff = retentionCutoff();
+        int applied = 0;
+        for (SecurityEventSketch row : rows) {
+            if (row.getBucketStart().isBefore(cutoff)) {
+                continue;
+            }
+            Bucket stored;
+            try {
+                stored = Bucket.fromBytes(row.getPayload());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Skipping unreadable security event sketch for bucket {}", row.getBucketStart(), e);
+                continue;
+            }
+            pending.compute(row.getBucketStart(), (bucketStart, local) -> {
+                if (local != null) {
+                    stored.mergeFrom(local);
+                }
+                buckets.put(bucketStart, stored);
+                return local;
+            });
+            applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * Adds {@code delta} to the stored sketch for the hour. Two nodes creating the
+     * same hour's row at once hit the unique constraint; the loser's delta is
+     * retried on its next flush and then merges into the winner's row.
+     */
+    private void mergeIntoStored(Instant bucketStart, Bucket delta) {
+        Optional<SecurityEventSketch> existing = sketchRepository.findByBucketStart(bucketStart);
+        SecurityEventSketch row = existing.orElseGet(SecurityEventSketch::new);
+        Bucket merged = new Bucket();
+        if (existing.isPresent()) {
+            try {
+                merged.mergeFrom(Bucket.fromBytes(row.getPayload()));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Replacing unreadable security event sketch for bucket {}", bucketStart, e);
+            }
+        }
+        merged.mergeFrom(delta);
+        row.setBucketStart(bucketStart);
+        row.setPayload(merged.toPayload());
+        row.setUpdatedAt(Instant.now());
+        sketchRepository.save(row);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush security event sketches on shutdown", e);
+        }
+    }
+
+    @Override
+    public List<SecurityEventCountDTO> countByEventType(Collection<SecurityEventType> eventTypes, Instant start, Instant end) {
+        long[] totals = new long[SecurityEventType.values().length];
+        for (Bucket bucket : window(start, end)) {
+            bucket.addTypeCountsTo(totals);
+        }
+        return eventTypes.stream()
+                .filter(type -> totals[type.ordinal()] > 0)
+                .map(type -> new SecurityEventCountDTO(type, totals[type.ordinal()]))
+                .sorted(Comparator.comparingLong(SecurityEventCountDTO::getCount).reversed())
+                .toList();
+    }
+
+    @Override
+    public List<SecurityEventUserCountDTO> findTopUsers(Collection<SecurityEventType> eventTypes, Instant start, Instant end, int limit) {
+        Map<String, Long> totals = new HashMap<>();
+        for (Bucket bucket : window(start, end)) {
+            bucket.addTopUsersTo(eventTypes, totals);
+        }
+        return top(totals, limit, (key, count) -> {
+            int separator = key.indexOf('|');
+            String id = key.substring(0, separator);
+            String username = key.substring(separator + 1);
+            return new SecurityEventUserCountDTO(
+                    id.isEmpty() ? null : Long.valueOf(id),
+                    username.isEmpty() ? null : username,
+                    count);
+        });
+    }
+
+    @Override
+    public List<SecurityEventIpCountDTO> findTopIps(Collection<SecurityEventType> eventTypes, Instant start, Instant end, int limit) {
+        Map<String, Long> totals = new HashMap<>();
+        for (Bucket bucket : window(start, end)) {
+            bucket.addTopIpsTo(eventTypes, totals);
+        }
+        return top(totals, limit, SecurityEventIpCountDTO::new);
+    }
+
+    @Override
+    public List<SecurityEventEndpointCountDTO> findTopEndpoints(Instant start, Instant end, int limit) {
+        Map<String, Long> totals = new HashMap<>();
+        for (Bucket bucket : window(start, end)) {
+            bucket.addTopEndpointsTo(totals);
+        }
+        return top(totals, limit, SecurityEventEndpointCountDTO::new);
+    }
+
+    @Override
+    public long countDistinctEndpoints(Instant start, Instant end) {
+        HyperLogLog merged = new HyperLogLog(HLL_PRECISION);
+        for (Bucket bucket : window(start, end)) {
+            bucket.mergeEndpointsInto(merged);
+        }
+        return merged.estimate();
+    }
+
+    @Override
+    public long countEvents(Instant start, Instant end) {
+        return countEvents(EnumSet.allOf(SecurityEventType.class), start, end);
+    }
+
+    @Override
+    public long countEvents(SecurityEventType eventType, Instant start, Instant end) {
+        return countEvents(Set.of(eventType), start, end);
+    }
+
+    private long countEvents(Collection<SecurityEventType> eventTypes, Instant start, Instant end) {
+        return countByEventType(eventTypes, start, end).stream()
+                .mapToLong(SecurityEventCountDTO::getCount)
+                .sum();
+    }
+
+    private Collection<Bucket> window(Instant start, Instant end) {
+        Instant from = start.truncatedTo(ChronoUnit.HOURS);
+        if (from.isAfter(end)) {
+            return List.of();
+        }
+        return buckets.subMap(from, true, end, true).values();
+    }
+
+    private Instant retentionCutoff() {
+        return Instant.now().truncatedTo(ChronoUnit.HOURS).minus(retention);
+    }
+
+    private static <T> List<T> top(Map<String, Long> totals, int limit,
+                                   BiFunction<String, Long, T> mapper) {
+        return totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .map(entry -> mapper.apply(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private static String userKey(Long userId, String username) {
+        return (userId != null ? userId.toString() : "") + "|" + (username != null ? username : "");
+    }
+
+    /**
+     * Sketches for one hour. All access is synchronized on the bucket; writes
+     * come from the async security event threads and reads from report requests.
+     */
+    static final class Bucket {
+        private final long[] typeCounts = new long[SecurityEventType.values().length];
+        private final Map<SecurityEventType, SpaceSaving> topUsers = new EnumMap<>(SecurityEventType.class);
+        private final Map<SecurityEventType, SpaceSaving> topIps = new EnumMap<>(SecurityEventType.class);
+        private SpaceSaving topEndpoints = new SpaceSaving(TOP_K_CAPACITY);
+        private HyperLogLog endpoints = new HyperLogLog(HLL_PRECISION);
+
+        synchronized void add(SecurityEvent event) {
+            SecurityEventType type = event.getEventType();
+            typeCounts[type.ordinal()]++;
+            if (event.getUserId() != null || event.getUsername() != null) {
+                summary(topUsers, type).offer(userKey(event.getUserId(), event.getUsername()));
+            }
+            summary(topIps, type).offer(event.getIpAddress() != null ? event.getIpAddress() : "");
+            if (event.getEndpoint() != null && !event.getEndpoint().isEmpty()) {
+                topEndpoints.offer(event.getEndpoint());
+                endpoints.offer(event.getEndpoint());
+            }
+        }
+
+        synchronized void addTypeCountsTo(long[] totals) {
+            for (int i = 0; i < typeCounts.length; i++) {
+                totals[i] += typeCounts[i];
+            }
+        }
+
+        synchronized void addTopUsersTo(Collection<SecurityEventType> eventTypes, Map<String, Long> totals) {
+            addSummariesTo(topUsers, eventTypes, totals);
+        }
+
+        synchronized void addTopIpsTo(Collection<SecurityEventType> eventTypes, Map<String, Long> totals) {
+            addSummariesTo(topIps, eventTypes, totals);
+        }
+
+        synchronized void addTopEndpointsTo(Map<String, Long> totals) {
+            topEndpoints.addCountsTo(totals);
+        }
+
+        synchronized void mergeEndpointsInto(HyperLogLog target) {
+            target.merge(endpoints);
+        }
+
+        synchronized byte[] toPayload() {
+            try {
+                return toBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Folds another bucket into this one. Counts are added, so the two must hold
+         * disjoint sets of events: a stored sketch and events it has not seen yet.
+         */
+        Bucket mergeFrom(Bucket other) {
+            synchronized (this) {
+                synchronized (other) {
+                    for (int i = 0; i < typeCounts.length; i++) {
+                        typeCounts[i] += other.typeCounts[i];
+                    }
+                    mergeSummaries(topUsers, other.topUsers);
+                    mergeSummaries(topIps, other.topIps);
+                    Map<String, Long> endpointCounts = new HashMap<>();
+                    other.topEndpoints.addCountsTo(endpointCounts);
+                    endpointCounts.forEach(topEndpoints::offer);
+                    endpoints.merge(other.endpoints);
+                }
+            }
+            return this;
+        }
+
+        private byte[] toBytes() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(typeCounts.length);
+                for (SecurityEventType type : SecurityEventType.values()) {
+                    out.writeUTF(type.name());
+                    out.writeLong(typeCounts[type.ordinal()]);
+                }
+                writeSummaries(out, topUsers);
+                writeSummaries(out, topIps);
+                topEndpoints.writeTo(out);
+                endpoints.writeTo(out);
+            }
+            return bytes.toByteArray();
+        }
+
+        static Bucket fromBytes(byte[] payload) throws IOException {
+            Bucket bucket = new Bucket();
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+                int version = in.readInt();
+                if (version != FORMAT_VERSION) {
+                    throw new IOException("Unsupported sketch format version " + version);
+                }
+                int types = in.readInt();
+                for (int i = 0; i < types; i++) {
+                    SecurityEventType type = SecurityEventType.valueOf(in.readUTF());
+                    bucket.typeCounts[type.ordinal()] = in.readLong();
+                }
+                readSummaries(in, bucket.topUsers);
+                readSummaries(in, bucket.topIps);
+                bucket.topEndpoints = SpaceSaving.readFrom(in);
+                bucket.endpoints = HyperLogLog.readFrom(in);
+            }
+            return bucket;
+        }
+
+        private static SpaceSaving summary(Map<SecurityEventType, SpaceSaving> summaries, SecurityEventType type) {
+            return summaries.computeIfAbsent(type, t -> new SpaceSaving(TOP_K_CAPACITY));
+        }
+
+        private static void addSummariesTo(Map<SecurityEventType, SpaceSaving> summaries,
+                                           Collection<SecurityEventType> eventTypes,
+                                           Map<String, Long> totals) {
+            for (SecurityEventType type : eventTypes) {
+                SpaceSaving summary = summaries.get(type);
+                if (summary != null) {
+                    summary.addCountsTo(totals);
+                }
+            }
+        }
+
+        private static void mergeSummaries(Map<SecurityEventType, SpaceSaving> target,
+                                           Map<SecurityEventType, SpaceSaving> source) {
+            source.forEach((type, summary) -> {
+                Map<String, Long> counts = new HashMap<>();
+                summary.addCountsTo(counts);
+                SpaceSaving merged = summary(target, type);
+                counts.forEach(merged::offer);
+            });
+        }
+
+        private static void writeSummaries(DataOutputStream out, Map<SecurityEventType, SpaceSaving> summaries) throws IOException {
+            out.writeInt(summaries.size());
+            for (Map.Entry<SecurityEventType, SpaceSaving> entry : summaries.entrySet()) {
+                out.writeUTF(entry.getKey().name());
+                entry.getValue().writeTo(out);
+            }
+        }
+
+        private static void readSummaries(DataInputStream in, Map<SecurityEventType, SpaceSaving> summaries) throws IOException {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                SecurityEventType type = SecurityEventType.valueOf(in.readUTF());
+                summaries.put(type, SpaceSaving.readFrom(in));
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.smecs.service.impl;
+
+import com.smecs.entity.SecurityEvent;
+import com.smecs.repository.SecurityEventRepository;
+import com.smecs.repository.SecurityEventRollupRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes a security event and its hourly rollup increments in one transaction, so
+ * the rollups never drift from the raw rows. A separate bean so the call from
+ * {@link SecurityEventServiceImpl} goes through the transactional proxy.
+ */
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@Component
+public class SecurityEventWriter {
+
+    private final SecurityEventRepository securityEventRepository;
+    private final SecurityEventRollupRepository rollupRepository;
+
+    @Transactional
+    public SecurityEvent write(SecurityEvent event) {
+        SecurityEvent saved = securityEventRepository.save(event);
+        rollupRepository.increment(saved);
+        return saved;
+    }
+}
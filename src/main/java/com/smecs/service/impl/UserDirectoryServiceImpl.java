@@ -0,0 +1,65 @@
+package com.smecs.service.impl;
+
+import com.smecs.config.CacheConfig;
+import com.smecs.dto.UserDirectoryEntry;
+import com.smecs.entity.User;
+import com.smecs.repository.UserRepository;
+import com.smecs.service.UserDirectoryService;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Misses are not cached, so a user registered on another instance is found on
+ * the next lookup. Hits cost no database round trip.
+ */
+@AllArgsConstructor(onConstructor_ = @Autowired)
+@Service
+public class UserDirectoryServiceImpl implements UserDirectoryService {
+
+    private final UserRepository userRepository;
+
+    @Override
+    @Cacheable(value = CacheConfig.USERS_BY_ID, key = "#id", unless = "#result == null")
+    public Optional<UserDirectoryEntry> findById(Long id) {
+        return userRepository.findById(id).map(UserDirectoryEntry::from);
+    }
+
+    @Override
+    @Cacheable(value = CacheConfig.USERS_BY_USERNAME, key = "#username", unless = "#result == null")
+    public Optional<UserDirectoryEntry> findByUsername(String username) {
+        return userRepository.findByUsername(username).map(UserDirectoryEntry::from);
+    }
+
+    @Override
+    @Cacheable(value = CacheConfig.USERS_BY_EMAIL, key = "#email", unless = "#result == null")
+    public Optional<UserDirectoryEntry> findByEmail(String email) {
+        return userRepository.findByEmail(email).map(UserDirectoryEntry::from);
+    }
+
+    @Override
+    @Caching(put = {
+            @CachePut(value = CacheConfig.USERS_BY_ID, key = "#result.id"),
+            @CachePut(value = CacheConfig.USERS_BY_USERNAME, key = "#result.username"),
+            @CachePut(value = CacheConfig.USERS_BY_EMAIL, key = "#result.email", unless = "#result.email == null")
+    })
+    public UserDirectoryEntry put(User user) {
+        return UserDirectoryEntry.from(user);
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.USERS_BY_ID, key = "#entry.id"),
+            @CacheEvict(value = CacheConfig.USERS_BY_USERNAME, key = "#entry.username"),
+            @CacheEvict(value = CacheConfig.USERS_BY_EMAIL, key = "#entry.email", condition = "#entry.email != null")
+    })
+    public void evict(UserDirectoryEntry entry) {
+        // Eviction is handled by the cache annotations.
+    }
+}
@@ -1,11 +1,14 @@
 package com.smecs.service.impl;
 
+import com.smecs.dto.UserDirectoryEntry;
 import com.smecs.dto.UserRegisterDTO;
 import com.smecs.entity.User;
 import com.smecs.exception.ResourceNotFoundException;
 import com.smecs.exception.UnauthorizedException;
 import com.smecs.repository.UserRepository;
 import com.smecs.security.SmecsUserPrincipal;
+import com.smecs.service.RefreshTokenService;
+import com.smecs.service.UserDirectoryService;
 import com.smecs.service.UserService;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,9 +18,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 import java.sql.Timestamp;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -29,6 +35,8 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDirectoryService userDirectory;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     @Transactional
@@ -59,7 +67,9 @@ public class UserServiceImpl implements UserService {
         user.setPasswordHash(hashPassword(password));
         user.setRole(resolveRole(role));
         user.setCreatedAt(new Timestamp(System.currentTimeMillis()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        afterCommit(() -> userDirectory.put(saved));
+        return saved;
     }
 
 
@@ -70,12 +80,12 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username).orElse(null);
+        return userDirectory.findByUsername(username).map(UserDirectoryEntry::toUser).orElse(null);
     }
 
     @Override
     public User findById(Long id) {
-        return userRepository.findById(id).orElse(null);
+        return userDirectory.findById(id).map(UserDirectoryEntry::toUser).orElse(null);
     }
 
     @Override
@@ -89,14 +99,39 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long userId) {
         if (userId == null || userId <= 0) {
             throw new IllegalArgumentException("Invalid user ID");
         }
-        if (!userRepository.existsById(userId)) {
-            throw new ResourceNotFoundException("User not found with id: " + userId);
-        }
+        UserDirectoryEntry entry = userRepository.findById(userId)
+                .map(UserDirectoryEntry::from)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         userRepository.deleteById(userId);
+        // Refresh does not read the users table, so the user's sessions must end here.
+        refreshTokenService.revokeAllForUser(userId);
+        // After commit, so a concurrent lookup cannot cache the row again before it is gone.
+        afterCommit(() -> userDirectory.evict(entry));
+    }
+
+    @Override
+    @Transactional
+    public User changeRole(Long userId, String role) {
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("Invalid user ID");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        String resolved = resolveRole(role);
+        if (resolved.equals(user.getRole())) {
+            return user;
+        }
+        user.setRole(resolved);
+        User saved = userRepository.save(user);
+        // Refresh tokens carry the old role; the user logs in again to pick up the new one.
+        refreshTokenService.revokeAllForUser(userId);
+        afterCommit(() -> userDirectory.put(saved));
+        return saved;
     }
 
     @Override
@@ -129,37 +164,50 @@ public class UserServiceImpl implements UserService {
         String email      = oAuth2User.getAttribute("email");
         String name       = oAuth2User.getAttribute("name");
 
-        return userRepository.findByProviderAndProviderId(provider, providerId)
-                .orElseGet(() -> {
-                    User user = userRepository.findByEmail(email).orElse(null);
-                    if (user == null) {
-                        user = new User();
-                        user.setEmail(email);
-                        user.setUsername(deriveUsername(name, email));
-                        user.setCreatedAt(new Timestamp(System.currentTimeMillis()));
-                        user.setRole("CUSTOMER");
-                    }
-                    user.setProvider(provider);
-                    user.setProviderId(providerId);
-                    return userRepository.save(user);
-                });
+        // Read from the database, not the directory: the returned role is put into the user's tokens.
+        User linked = userRepository.findByProviderAndProviderId(provider, providerId).orElse(null);
+        if (linked != null) {
+            return linked;
+        }
+
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            user = new User();
+            user.setEmail(email);
+            user.setUsername(deriveUsername(name, email));
+            user.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+            user.setRole("CUSTOMER");
+        }
+        user.setProvider(provider);
+        user.setProviderId(providerId);
+        User saved = userRepository.save(user);
+        afterCommit(() -> userDirectory.put(saved));
+        return saved;
     }
 
 
-    /** Turns "Jane Doe" → "jane.doe", appending digits until the username is unique. */
+    /**
+     * Turns "Jane Doe" → "jane.doe", appending the lowest number that makes the username
+     * unique. All taken names sharing the base are fetched in one query.
+     */
     private String deriveUsername(String displayName, String email) {
         String base = (displayName != null && !displayName.isBlank())
                 ? displayName.trim().toLowerCase().replaceAll("\\s+", ".")
                 : email.split("@")[0];
 
+        Set<String> taken = new HashSet<>(userRepository.findUsernamesStartingWith(escapeLike(base)));
         String candidate = base;
         int suffix = 1;
-        while (userRepository.existsByUsername(candidate)) {
+        while (taken.contains(candidate)) {
             candidate = base + suffix++;
         }
         return candidate;
     }
 
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     private boolean isValidEmail(String email) {
         if (email == null) return false;
         String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
@@ -176,4 +224,18 @@ public class UserServiceImpl implements UserService {
         }
         return normalizedRole;
     }
+
+    /** Directory writes wait for the commit, so the caches never hold rows that were rolled back. */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -0,0 +1,158 @@
+package com.smecs.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Fork/join scope for the sub-queries of one report, modelled on
+ * {@code StructuredTaskScope}: subtasks are forked from the owner thread, and
+ * {@link #join()} waits for them up to a shared deadline. In strict mode the first
+ * failure or the deadline cancels every sibling and is rethrown. In partial mode
+ * failed or unfinished subtasks are cancelled and reported as unavailable, and the
+ * owner builds the report from the rest.
+ *
+ * <p>Cancelling a queued subtask keeps it from starting. A running one is
+ * interrupted, but JDBC work stops at its query timeout.</p>
+ */
+public final class ReportScope implements AutoCloseable {
+
+    public enum State { SUCCESS, FAILED, UNAVAILABLE }
+
+    private final Executor executor;
+    private final Instant deadline;
+    private final boolean allowPartial;
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private boolean joined;
+
+    public ReportScope(Executor executor, Duration timeout, boolean allowPartial) {
+        this.executor = executor;
+        this.deadline = Instant.now().plus(timeout);
+        this.allowPartial = allowPartial;
+    }
+
+    public <T> Subtask<T> fork(Callable<T> query) {
+        if (joined) {
+            throw new IllegalStateException("Cannot fork after join");
+        }
+        Subtask<T> subtask = new Subtask<>(query);
+        subtasks.add(subtask);
+        try {
+            executor.execute(subtask::run);
+        } catch (RejectedExecutionException e) {
+            subtask.future.completeExceptionally(e);
+        }
+        return subtask;
+    }
+
+    /**
+     * Waits for all subtasks. Throws {@link TimeoutException} or the first subtask
+     * failure in strict mode; never throws for subtask outcomes in partial mode.
+     */
+    public void join() throws Exception {
+        joined = true;
+        CompletableFuture<?>[] futures = subtasks.stream().map(s -> s.future).toArray(CompletableFuture[]::new);
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures);
+        CompletableFuture<Object> done = new CompletableFuture<>();
+        if (!allowPartial) {
+            // Registered first: a subtask that already failed (e.g. rejected at fork) must win over allOf.
+            for (CompletableFuture<?> future : futures) {
+                future.whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        done.completeExceptionally(ex);
+                    }
+                });
+            }
+        }
+        all.whenComplete((result, ex) -> done.complete(null));
+
+        long remainingMs = Math.max(0, Duration.between(Instant.now(), deadline).toMillis());
+        try {
+            done.get(remainingMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancelUnfinished();
+            if (!allowPartial) {
+                throw new TimeoutException("Report did not complete before its deadline");
+            }
+        } catch (ExecutionException e) {
+            cancelUnfinished();
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            cancelUnfinished();
+            throw e;
+        }
+    }
+
+    /** True when at least one subtask did not succeed; only possible in partial mode. */
+    public boolean isPartial() {
+        return subtasks.stream().anyMatch(s -> s.state() != State.SUCCESS);
+    }
+
+    @Override
+    public void close() {
+        cancelUnfinished();
+    }
+
+    private void cancelUnfinished() {
+        for (Subtask<?> subtask : subtasks) {
+            subtask.cancel();
+        }
+    }
+
+    public static final class Subtask<T> {
+        private final Callable<T> query;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private volatile Thread runner;
+
+        private Subtask(Callable<T> query) {
+            this.query = query;
+        }
+
+        private void run() {
+            if (future.isDone()) {
+                return;
+            }
+            runner = Thread.currentThread();
+            try {
+                future.complete(query.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                runner = null;
+                Thread.interrupted();
+            }
+        }
+
+        private void cancel() {
+            if (future.cancel(false)) {
+                Thread thread = runner;
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            }
+        }
+
+        public State state() {
+            if (!future.isDone()) {
+                return State.UNAVAILABLE;
+            }
+            if (future.isCancelled()) {
+                return State.UNAVAILABLE;
+            }
+            return future.isCompletedExceptionally() ? State.FAILED : State.SUCCESS;
+        }
+
+        public T get() {
+            if (state() != State.SUCCESS) {
+                throw new IllegalStateException("Subtask did not complete successfully: " + state());
+            }
+            return future.join();
+        }
+
+        public T getOrElse(T fallback) {
+            return state() == State.SUCCESS ? future.join() : fallback;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.smecs.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters summary that tracks at most {@code capacity} keys.
+ * Any key whose true frequency exceeds {@code total / capacity} is guaranteed to
+ * be present, and each reported count overestimates by at most the smallest
+ * tracked count. Not thread-safe; callers synchronize.
+ */
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, long[]> counters;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(String key) {
+        offer(key, 1);
+    }
+
+    public void offer(String key, long increment) {
+        long[] counter = counters.get(key);
+        if (counter != null) {
+            counter[0] += increment;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new long[]{increment, 0});
+            return;
+        }
+        String minKey = null;
+        long min = Long.MAX_VALUE;
+        for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] < min) {
+                min = entry.getValue()[0];
+                minKey = entry.getKey();
+            }
+        }
+        counters.remove(minKey);
+        counters.put(key, new long[]{min + increment, min});
+    }
+
+    /**
+     * Adds this summary's estimated counts into {@code totals}, for merging
+     * summaries of several buckets before ranking.
+     */
+    public void addCountsTo(Map<String, Long> totals) {
+        counters.forEach((key, counter) -> totals.merge(key, counter[0], Long::sum));
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(capacity);
+        out.writeInt(counters.size());
+        for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue()[0]);
+            out.writeLong(entry.getValue()[1]);
+        }
+    }
+
+    public static SpaceSaving readFrom(DataInput in) throws IOException {
+        SpaceSaving summary = new SpaceSaving(in.readInt());
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            summary.counters.put(in.readUTF(), new long[]{in.readLong(), in.readLong()});
+        }
+        return summary;
+    }
+}
@@ -5,7 +5,12 @@
 -- =====================================================
 
 -- Drop tables in dependency order to allow clean recreation
+DROP TABLE IF EXISTS RefreshTokens CASCADE;
+DROP TABLE IF EXISTS LoginAttemptBuckets CASCADE;
+DROP TABLE IF EXISTS SecurityEventSketches CASCADE;
+DROP TABLE IF EXISTS SecurityEventRollups CASCADE;
 DROP TABLE IF EXISTS SecurityEvents CASCADE;
+DROP TABLE IF EXISTS IdempotencyKeys CASCADE;
 DROP TABLE IF EXISTS CartItems CASCADE;
 DROP TABLE IF EXISTS Carts CASCADE;
 DROP TABLE IF EXISTS Reviews CASCADE;
@@ -31,8 +36,10 @@ CREATE TABLE Users (
 
 -- 1b. Security Events Table
 -- Requirements: Audit login/token events and brute-force alerts
+-- Range-partitioned by created_at; the application creates one partition per UTC day
+-- (e.g. SecurityEvents_p20260301) ahead of time and drops partitions past retention.
 CREATE TABLE SecurityEvents (
-    id SERIAL PRIMARY KEY,
+    id SERIAL,
     event_type VARCHAR(40) NOT NULL,
     user_id INTEGER,
     username VARCHAR(100),
@@ -41,7 +48,57 @@ CREATE TABLE SecurityEvents (
     endpoint VARCHAR(200),
     token_hash VARCHAR(64),
     details VARCHAR(500),
-    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- 1c. Security Event Rollups Table
+-- Requirements: Hourly counts per event type, user, IP and endpoint, upserted as events are written
+CREATE TABLE SecurityEventRollups (
+    id SERIAL PRIMARY KEY,
+    bucket_start TIMESTAMP NOT NULL,
+    dimension VARCHAR(16) NOT NULL CHECK (dimension IN ('TYPE', 'USER', 'IP', 'ENDPOINT')),
+    event_type VARCHAR(40) NOT NULL,
+    dimension_key VARCHAR(200) NOT NULL DEFAULT '',
+    user_id INTEGER,
+    username VARCHAR(100),
+    event_count BIGINT NOT NULL DEFAULT 0,
+    UNIQUE (bucket_start, dimension, event_type, dimension_key)
+);
+
+-- 1d. Security Event Sketches Table
+-- Requirements: Hourly serialized sketches backing approximate security reports, flushed periodically
+CREATE TABLE SecurityEventSketches (
+    id SERIAL PRIMARY KEY,
+    bucket_start TIMESTAMP NOT NULL UNIQUE,
+    payload BYTEA NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 1e. Login Attempt Buckets Table
+-- Requirements: Sliding-window failed-login counters per username+IP and per IP, shared across instances
+CREATE TABLE LoginAttemptBuckets (
+    id SERIAL PRIMARY KEY,
+    attempt_key VARCHAR(200) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    attempt_count BIGINT NOT NULL DEFAULT 0,
+    UNIQUE (attempt_key, bucket_start)
+);
+
+-- 1f. Refresh Tokens Table
+-- Requirements: Rotating refresh tokens (hash only) grouped in families for reuse detection
+CREATE TABLE RefreshTokens (
+    id SERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    family_id VARCHAR(36) NOT NULL,
+    user_id INTEGER NOT NULL,
+    username VARCHAR(100),
+    email VARCHAR(255),
+    role VARCHAR(50),
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    used_at TIMESTAMP,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE
 );
 
 -- 2. Categories Table
@@ -124,6 +181,33 @@ CREATE TABLE CartItems (
     UNIQUE(cart_id, product_id)
 );
 
+-- 10. Outbox Events Table
+-- Requirements: Order and inventory events written in the business transaction, relayed afterwards
+CREATE TABLE OutboxEvents (
+    id SERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(40) NOT NULL,
+    aggregate_id INTEGER,
+    event_type VARCHAR(60) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    last_error VARCHAR(500)
+);
+
+-- 11. Idempotency Keys Table
+-- Requirements: Checkout results stored per user and Idempotency-Key so client retries replay instead of re-ordering
+CREATE TABLE IdempotencyKeys (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL REFERENCES Users(user_id) ON DELETE CASCADE,
+    idempotency_key VARCHAR(100) NOT NULL,
+    order_id INTEGER REFERENCES Orders(order_id) ON DELETE SET NULL,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_idempotency_keys_user_key UNIQUE (user_id, idempotency_key)
+);
+
 -- =====================================================
 -- EPIC 3: Indexes for Performance
 -- =====================================================
@@ -134,6 +218,8 @@ CREATE INDEX IF NOT EXISTS idx_users_email ON Users(email);
 CREATE INDEX IF NOT EXISTS idx_users_provider ON Users(provider, provider_id);
 
 -- SecurityEvents Indexes
+CREATE INDEX IF NOT EXISTS idx_security_events_created_at
+    ON SecurityEvents(created_at);
 CREATE INDEX IF NOT EXISTS idx_security_events_type_created_at
     ON SecurityEvents(event_type, created_at DESC);
 CREATE INDEX IF NOT EXISTS idx_security_events_user_created_at
@@ -141,6 +227,31 @@ CREATE INDEX IF NOT EXISTS idx_security_events_user_created_at
 CREATE INDEX IF NOT EXISTS idx_security_events_ip_created_at
     ON SecurityEvents(ip_address, created_at DESC);
 
+-- LoginAttemptBuckets Indexes
+CREATE INDEX IF NOT EXISTS idx_login_attempt_buckets_bucket_start
+    ON LoginAttemptBuckets(bucket_start);
+
+-- RefreshTokens Indexes
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family
+    ON RefreshTokens(family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user
+    ON RefreshTokens(user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at
+    ON RefreshTokens(expires_at);
+
+-- SecurityEventRollups Indexes
+CREATE INDEX IF NOT EXISTS idx_security_event_rollups_dimension_bucket
+    ON SecurityEventRollups(dimension, bucket_start);
+
+-- OutboxEvents Indexes
+-- Partial index keeps the relay's claim query small however many published rows are retained.
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending
+    ON OutboxEvents(id) WHERE published_at IS NULL;
+
+-- IdempotencyKeys Indexes
+-- (user_id, idempotency_key) is UNIQUE, which creates the replay lookup index implicitly.
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON IdempotencyKeys(created_at);
+
 -- Products Indexes
 CREATE INDEX IF NOT EXISTS idx_products_name ON Products(name);
 CREATE INDEX IF NOT EXISTS idx_products_category ON Products(category_id);
@@ -153,9 +264,14 @@ CREATE INDEX IF NOT EXISTS idx_products_created_at ON Products(created_at DESC);
 CREATE INDEX IF NOT EXISTS idx_categories_name ON Categories(name);
 
 -- Orders Indexes
-CREATE INDEX IF NOT EXISTS idx_orders_user_id ON Orders(user_id);
-CREATE INDEX IF NOT EXISTS idx_orders_status ON Orders(status);
-CREATE INDEX IF NOT EXISTS idx_orders_created_at ON Orders(created_at DESC);
+-- One index per (filter, sort key) pair of the order search API. Each ends with
+-- order_id, the paging tiebreaker, and is scanned backwards for descending sorts.
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON Orders(created_at, order_id);
+CREATE INDEX IF NOT EXISTS idx_orders_total_amount ON Orders(total_amount, order_id);
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_at ON Orders(user_id, created_at, order_id);
+CREATE INDEX IF NOT EXISTS idx_orders_user_total_amount ON Orders(user_id, total_amount, order_id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at ON Orders(status, created_at, order_id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_total_amount ON Orders(status, total_amount, order_id);
 
 -- OrderItems Indexes
 CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON OrderItems(order_id);
@@ -170,6 +286,8 @@ CREATE INDEX IF NOT EXISTS idx_reviews_user_id ON Reviews(user_id);
 
 -- Carts Indexes
 -- cart_id is the primary key, which already creates an index implicitly.
+-- Lets the abandoned-cart sweep find stale carts without scanning every cart.
+CREATE INDEX IF NOT EXISTS idx_carts_updated_at ON Carts(updated_at);
 
 -- CartItems Indexes
 CREATE INDEX IF NOT EXISTS idx_cart_items_cart_id ON CartItems(cart_id);
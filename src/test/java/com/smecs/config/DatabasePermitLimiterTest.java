@@ -0,0 +1,124 @@
+package com.smecs.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DatabasePermitLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void holdsPermitWhileTaskRunsAndReleasesAfterwards() throws Exception {
+        DatabasePermitLimiter limiter = new DatabasePermitLimiter(2, 10, true, "virtual", meterRegistry);
+        TaskDecorator decorator = limiter.decorator("report");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> running = executor.submit(decorator.decorate(() -> {
+            started.countDown();
+            await(release);
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(availablePermits()).isEqualTo(1.0);
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        assertThat(availablePermits()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("smecs.executor.tasks").tag("executor", "report").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("smecs.db.permit.wait").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void releasesPermitWhenTaskThrows() {
+        DatabasePermitLimiter limiter = new DatabasePermitLimiter(1, 10, true, "virtual", meterRegistry);
+        Runnable failing = limiter.decorator("async").decorate(() -> {
+            throw new IllegalStateException("query failed");
+        });
+
+        assertThrows(IllegalStateException.class, failing::run);
+        assertThat(availablePermits()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("smecs.executor.tasks").tag("executor", "async").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void waitingTaskRunsOncePermitIsReleased() throws Exception {
+        DatabasePermitLimiter limiter = new DatabasePermitLimiter(1, 10, true, "virtual", meterRegistry);
+        TaskDecorator decorator = limiter.decorator("report");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch secondRan = new CountDownLatch(1);
+
+        Future<?> first = executor.submit(decorator.decorate(() -> {
+            started.countDown();
+            await(release);
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<?> second = executor.submit(decorator.decorate(secondRan::countDown));
+
+        assertThat(secondRan.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(secondRan.getCount()).isZero();
+        assertThat(availablePermits()).isEqualTo(1.0);
+    }
+
+    @Test
+    void rejectsSubmissionWhenPermitsAndWaitingSlotsAreExhausted() throws Exception {
+        DatabasePermitLimiter limiter = new DatabasePermitLimiter(1, 0, true, "virtual", meterRegistry);
+        TaskDecorator decorator = limiter.decorator("report");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> running = executor.submit(decorator.decorate(() -> {
+            started.countDown();
+            await(release);
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThrows(RejectedExecutionException.class, () -> decorator.decorate(() -> { }));
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        // With the permit back, the next task is accepted again.
+        decorator.decorate(() -> { }).run();
+        assertThat(availablePermits()).isEqualTo(1.0);
+    }
+
+    @Test
+    void doesNotLimitInPlatformMode() {
+        DatabasePermitLimiter limiter = new DatabasePermitLimiter(1, 0, false, "platform", meterRegistry);
+        TaskDecorator decorator = limiter.decorator("async");
+        CountDownLatch ran = new CountDownLatch(2);
+
+        decorator.decorate(() -> decorator.decorate(ran::countDown).run()).run();
+
+        assertThat(ran.getCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("smecs.db.permit.wait").timer().count()).isZero();
+    }
+
+    private double availablePermits() {
+        return meterRegistry.get("smecs.db.permits.available").gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.smecs.controller;
+
+import com.smecs.dto.BatchAddToCartRequest;
+import com.smecs.exception.GlobalExceptionHandler;
+import com.smecs.service.CartItemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class CartItemsControllerTest {
+
+    @Mock
+    private CartItemService cartItemService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new CartItemsController(cartItemService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void addCartItems_rejectsBatchOverTheItemLimit() throws Exception {
+        mockMvc.perform(post("/api/cart-items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchJson(BatchAddToCartRequest.MAX_ITEMS + 1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Validation failed"))
+                .andExpect(jsonPath("$.data.items").value("At most 100 items can be added at once"));
+
+        verifyNoInteractions(cartItemService);
+    }
+
+    @Test
+    void addCartItems_acceptsBatchAtTheItemLimit() throws Exception {
+        when(cartItemService.addItemsToCart(argThat(request ->
+                request.getItems().size() == BatchAddToCartRequest.MAX_ITEMS))).thenReturn(List.of());
+
+        mockMvc.perform(post("/api/cart-items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchJson(BatchAddToCartRequest.MAX_ITEMS)))
+                .andExpect(status().isCreated());
+
+        verify(cartItemService).addItemsToCart(argThat(request ->
+                request.getItems().size() == BatchAddToCartRequest.MAX_ITEMS));
+    }
+
+    private static String batchJson(int items) {
+        String lines = IntStream.rangeClosed(1, items)
+                .mapToObj(i -> "{\"productId\":" + i + ",\"quantity\":1}")
+                .collect(Collectors.joining(","));
+        return "{\"userId\":7,\"items\":[" + lines + "]}";
+    }
+}
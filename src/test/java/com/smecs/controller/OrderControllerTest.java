@@ -0,0 +1,117 @@
+package com.smecs.controller;
+
+import com.smecs.exception.GlobalExceptionHandler;
+import com.smecs.mapper.OrderMapper;
+import com.smecs.repository.OrderItemRepository;
+import com.smecs.repository.OrderRepository;
+import com.smecs.repository.UserRepository;
+import com.smecs.security.OwnershipChecks;
+import com.smecs.service.OrderExportService;
+import com.smecs.service.UserService;
+import com.smecs.service.impl.OrderSearchCaches;
+import com.smecs.service.impl.OrderServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class OrderControllerTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OwnershipChecks ownershipChecks;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private OrderSearchCaches orderSearchCaches;
+
+    @Mock
+    private OrderExportService orderExportService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        OrderServiceImpl orderService = new OrderServiceImpl(orderRepository, userRepository, ownershipChecks,
+                userService, orderMapper, orderItemRepository, cacheManager, orderSearchCaches);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new OrderController(orderService, orderMapper, orderExportService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getAllOrders_rejectsUnsupportedSortKeyWithBadRequest() throws Exception {
+        mockMvc.perform(get("/api/orders").param("sort", "user.passwordHash,asc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.message").value(
+                        "Unsupported sort field: user.passwordHash. Supported: createdAt, totalAmount"));
+
+        verify(orderRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void exportOrders_writesOnTheRequestThreadWithoutStartingAsync() throws Exception {
+        mockMvc.perform(get("/api/orders/export").param("format", "ndjson"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"orders.ndjson\""));
+
+        verify(orderExportService).exportOrders(eq(OrderExportService.Format.NDJSON), any(OutputStream.class));
+    }
+
+    @Test
+    void exportOrders_rejectsUnknownFormatWithBadRequest() throws Exception {
+        mockMvc.perform(get("/api/orders/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("format must be csv or ndjson"));
+
+        verifyNoInteractions(orderExportService);
+    }
+
+    @Test
+    void getAllOrders_rejectsInvertedTotalRangeWithBadRequest() throws Exception {
+        mockMvc.perform(get("/api/orders").param("minTotal", "50").param("maxTotal", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("minTotal must not be greater than maxTotal"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.smecs.controller;
+
+import com.smecs.dto.SecurityEventCountDTO;
+import com.smecs.entity.SecurityEventType;
+import com.smecs.exception.GlobalExceptionHandler;
+import com.smecs.service.SecurityEventReportService;
+import com.smecs.service.SecurityEventSketchService;
+import com.smecs.service.impl.ReportEngineImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityEventReportControllerTest {
+
+    private static final String TOKEN_USAGE = "/api/security/reports/token-usage";
+
+    @Mock
+    private SecurityEventReportService reportService;
+
+    @Mock
+    private SecurityEventSketchService sketchService;
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+    private final CountDownLatch releaseQueries = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        releaseQueries.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void tokenUsageReport_completesAsynchronously() throws Exception {
+        when(reportService.countByEventType(any(), any(), any())).thenReturn(List.of(
+                new SecurityEventCountDTO(SecurityEventType.TOKEN_ISSUED, 4),
+                new SecurityEventCountDTO(SecurityEventType.TOKEN_INVALID, 1)));
+        when(reportService.findTopUsers(any(), any(), any(), anyInt())).thenReturn(List.of());
+        when(reportService.findTopIps(any(), any(), any(), anyInt())).thenReturn(List.of());
+        MockMvc mockMvc = mockMvc(new ReportEngineImpl(pool, 5000, 4));
+
+        MvcResult started = mockMvc.perform(get(TOKEN_USAGE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.data.totalEvents").value(5))
+                .andExpect(jsonPath("$.data.partial").value(false));
+    }
+
+    @Test
+    void tokenUsageReport_returnsServiceUnavailableWhenDeadlinePasses() throws Exception {
+        when(reportService.countByEventType(any(), any(), any())).thenAnswer(invocation -> {
+            releaseQueries.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(reportService.findTopUsers(any(), any(), any(), anyInt())).thenReturn(List.of());
+        when(reportService.findTopIps(any(), any(), any(), anyInt())).thenReturn(List.of());
+        MockMvc mockMvc = mockMvc(new ReportEngineImpl(pool, 50, 4));
+
+        MvcResult started = mockMvc.perform(get(TOKEN_USAGE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.message").value("The request timed out, please narrow the range or retry"));
+    }
+
+    @Test
+    void tokenUsageReport_withPartialReturnsFinishedSectionsWhenDeadlinePasses() throws Exception {
+        when(reportService.countByEventType(any(), any(), any())).thenAnswer(invocation -> {
+            releaseQueries.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(reportService.findTopUsers(any(), any(), any(), anyInt())).thenReturn(List.of());
+        when(reportService.findTopIps(any(), any(), any(), anyInt())).thenReturn(List.of());
+        MockMvc mockMvc = mockMvc(new ReportEngineImpl(pool, 50, 4));
+
+        MvcResult started = mockMvc.perform(get(TOKEN_USAGE).param("partial", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.partial").value(true))
+                .andExpect(jsonPath("$.data.totalEvents").value(0));
+    }
+
+    @Test
+    void tokenUsageReport_returnsServiceUnavailableWhenExecutorRejectsQueries() throws Exception {
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("No database permit available");
+        };
+        MockMvc mockMvc = mockMvc(new ReportEngineImpl(rejecting, 5000, 4));
+
+        MvcResult started = mockMvc.perform(get(TOKEN_USAGE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Server is busy, please retry shortly"));
+        verifyNoInteractions(reportService);
+    }
+
+    @Test
+    void tokenUsageReport_returnsServiceUnavailableWhenTooManyReportsRun() throws Exception {
+        MockMvc mockMvc = mockMvc(new ReportEngineImpl(pool, 5000, 0));
+
+        MvcResult started = mockMvc.perform(get(TOKEN_USAGE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Server is busy, please retry shortly"));
+        verifyNoInteractions(reportService);
+    }
+
+    private MockMvc mockMvc(ReportEngineImpl reportEngine) {
+        return MockMvcBuilders
+                .standaloneSetup(new SecurityEventReportController(reportService, sketchService, reportEngine))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+}
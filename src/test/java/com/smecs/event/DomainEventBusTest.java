@@ -0,0 +1,114 @@
+package com.smecs.event;
+
+import com.smecs.config.CacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainEventBusTest {
+
+    @Test
+    void deliversQueuedEventsInBatchesAndIsolatesFailingHandlers() {
+        List<List<DomainEvent>> received = new ArrayList<>();
+        DomainEventHandler failing = batch -> {
+            throw new IllegalStateException("boom");
+        };
+        DomainEventBus bus = new DomainEventBus(List.of(failing, received::add), 100, 2, 50);
+
+        bus.onCommitted(new ProductChanged(1L, ProductChanged.Change.UPDATED));
+        bus.onCommitted(new InventoryChanged(10L, 1L, 5));
+        bus.onCommitted(new OrderPlaced(7L, 3L, 2));
+        bus.drainAll();
+
+        assertThat(received).hasSize(2);
+        assertThat(received.get(0)).hasSize(2);
+        assertThat(received.get(1)).containsExactly(new OrderPlaced(7L, 3L, 2));
+    }
+
+    @Test
+    void dispatchesOnPublishingThreadWhenQueueIsFull() {
+        List<DomainEvent> received = new ArrayList<>();
+        DomainEventBus bus = new DomainEventBus(List.of(received::addAll), 1, 10, 50);
+
+        bus.onCommitted(new ReviewPosted(1L, 2L, 5));
+        bus.onCommitted(new ReviewPosted(2L, 2L, 4));
+
+        assertThat(received).containsExactly(new ReviewPosted(2L, 2L, 4));
+    }
+
+    @Test
+    void cacheInvalidationEvictsChangedEntriesAndClearsSearchesOnce() {
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        cacheManager.getCache(CacheConfig.PRODUCTS_BY_ID).put(1L, "deleted");
+        cacheManager.getCache(CacheConfig.PRODUCTS_BY_ID).put(2L, "kept");
+        cacheManager.getCache(CacheConfig.PRODUCT_SEARCH).put("q", "results");
+        cacheManager.getCache(CacheConfig.INVENTORIES_BY_PRODUCT_ID).put(2L, "stock");
+        cacheManager.getCache(CacheConfig.ORDER_SEARCH).put("q", "orders");
+        cacheManager.getCache(CacheConfig.CART_SUMMARY).put(5L, "summary");
+
+        new CacheInvalidationHandler(cacheManager).handle(List.of(
+                new ProductChanged(1L, ProductChanged.Change.DELETED),
+                new ProductChanged(2L, ProductChanged.Change.UPDATED),
+                new InventoryChanged(20L, 2L, 0)));
+
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCTS_BY_ID).get(1L)).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCTS_BY_ID).get(2L)).isNotNull();
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCT_SEARCH).get("q")).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.INVENTORIES_BY_PRODUCT_ID).get(2L)).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.ORDER_SEARCH).get("q")).isNotNull();
+        assertThat(cacheManager.getCache(CacheConfig.CART_SUMMARY).get(5L)).isNull();
+    }
+
+    @Test
+    void cartChangeEvictsOnlyThatCartsSummary() {
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        cacheManager.getCache(CacheConfig.CART_SUMMARY).put(5L, "changed");
+        cacheManager.getCache(CacheConfig.CART_SUMMARY).put(6L, "kept");
+
+        new CacheInvalidationHandler(cacheManager).handle(List.of(new CartChanged(5L)));
+
+        assertThat(cacheManager.getCache(CacheConfig.CART_SUMMARY).get(5L)).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.CART_SUMMARY).get(6L)).isNotNull();
+    }
+
+    @Test
+    void cartChangeEvictsSummaryOnTheWritingThreadWhenItCommits() {
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        cacheManager.getCache(CacheConfig.CART_SUMMARY).put(5L, "old cart");
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(TransactionalListeners.class, CacheInvalidationHandler.class);
+            context.registerBean(CacheManager.class, () -> cacheManager);
+            context.refresh();
+
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                context.publishEvent(new CartChanged(5L));
+                assertThat(cacheManager.getCache(CacheConfig.CART_SUMMARY).get(5L)).isNotNull();
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> {
+                    synchronization.afterCommit();
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+                });
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        assertThat(cacheManager.getCache(CacheConfig.CART_SUMMARY).get(5L)).isNull();
+    }
+
+    @EnableTransactionManagement
+    static class TransactionalListeners {
+    }
+}
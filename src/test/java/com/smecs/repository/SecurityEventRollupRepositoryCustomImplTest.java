@@ -0,0 +1,127 @@
+package com.smecs.repository;
+
+import com.smecs.entity.SecurityEvent;
+import com.smecs.entity.SecurityEventType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityEventRollupRepositoryCustomImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private SecurityEventRollupRepositoryCustomImpl rollupRepository;
+
+    private final Query query = mock(Query.class, RETURNS_SELF);
+
+    @BeforeEach
+    void setUp() {
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+    }
+
+    @Test
+    void increment_upsertsOneRowPerDimensionIntoTheEventsHour() {
+        SecurityEvent event = event(7L, "alice", "/api/auth/login");
+
+        rollupRepository.increment(event);
+
+        String sql = capturedSql();
+        assertThat(sql).contains("'TYPE'", "'USER'", "'IP'", "'ENDPOINT'");
+        assertThat(sql).endsWith("ON CONFLICT (bucket_start, dimension, event_type, dimension_key) " +
+                "DO UPDATE SET event_count = security_event_rollups.event_count + EXCLUDED.event_count");
+        verify(query).setParameter("bucket", Instant.parse("2026-03-10T10:00:00Z"));
+        verify(query).setParameter("type", "LOGIN_FAILURE");
+        verify(query).setParameter("userKey", "7|alice");
+        verify(query).setParameter("ip", "10.0.0.1");
+        verify(query).setParameter("endpoint", "/api/auth/login");
+        verify(query).executeUpdate();
+    }
+
+    @Test
+    void increment_skipsEndpointRowAndBindsNullsForAnonymousEvents() {
+        SecurityEvent event = event(null, null, null);
+
+        rollupRepository.increment(event);
+
+        String sql = capturedSql();
+        assertThat(sql).doesNotContain("'ENDPOINT'");
+        assertThat(sql).contains("(:bucket, 'USER', :type, :userKey, NULL, NULL, 1)");
+        verify(query).setParameter("userKey", "|");
+        verify(query, never()).setParameter(eq("userId"), any());
+        verify(query, never()).setParameter(eq("endpoint"), any());
+    }
+
+    @Test
+    void countEvents_readsWholeHoursFromRollupsAndEdgeHoursFromRawRows() {
+        when(query.getSingleResult()).thenReturn(12L);
+
+        long count = rollupRepository.countEvents(Set.of(SecurityEventType.LOGIN_FAILURE),
+                Instant.parse("2026-03-10T10:15:00Z"), Instant.parse("2026-03-10T13:40:00Z"));
+
+        assertThat(count).isEqualTo(12L);
+        assertThat(capturedSql())
+                .contains("r.bucket_start >= :bodyStart AND r.bucket_start < :bodyEnd")
+                .contains("(e.created_at >= :start AND e.created_at < :bodyStart) OR (e.created_at >= :bodyEnd AND e.created_at <= :end)");
+        verify(query).setParameter("bodyStart", Instant.parse("2026-03-10T11:00:00Z"));
+        verify(query).setParameter("bodyEnd", Instant.parse("2026-03-10T13:00:00Z"));
+    }
+
+    @Test
+    void countEvents_usesRollupsForTheWholeWindowWhenItIsHourAligned() {
+        when(query.getSingleResult()).thenReturn(0L);
+
+        rollupRepository.countEvents(Set.of(SecurityEventType.LOGIN_FAILURE),
+                Instant.parse("2026-03-10T10:00:00Z"), Instant.parse("2026-03-10T12:00:00Z"));
+
+        verify(query).setParameter("bodyStart", Instant.parse("2026-03-10T10:00:00Z"));
+        verify(query).setParameter("bodyEnd", Instant.parse("2026-03-10T12:00:00Z"));
+    }
+
+    @Test
+    void countEvents_readsOnlyRawRowsWhenNoWholeHourFits() {
+        when(query.getSingleResult()).thenReturn(0L);
+        Instant end = Instant.parse("2026-03-10T10:45:00Z");
+
+        rollupRepository.countEvents(Set.of(SecurityEventType.LOGIN_FAILURE),
+                Instant.parse("2026-03-10T10:15:00Z"), end);
+
+        // An empty rollup range; the raw range then covers [start, end] on its own.
+        verify(query).setParameter("bodyStart", end);
+        verify(query).setParameter("bodyEnd", end);
+    }
+
+    private SecurityEvent event(Long userId, String username, String endpoint) {
+        SecurityEvent event = new SecurityEvent();
+        event.setEventType(SecurityEventType.LOGIN_FAILURE);
+        event.setUserId(userId);
+        event.setUsername(username);
+        event.setIpAddress("10.0.0.1");
+        event.setEndpoint(endpoint);
+        event.setCreatedAt(Instant.parse("2026-03-10T10:37:12Z"));
+        return event;
+    }
+
+    private String capturedSql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createNativeQuery(sql.capture());
+        return sql.getValue();
+    }
+}
@@ -0,0 +1,114 @@
+package com.smecs.security;
+
+import com.smecs.config.RateLimitProperties;
+import com.smecs.util.JwtUtil;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Group products = new RateLimitProperties.Group();
+        products.setPatterns(List.of("/api/products/**"));
+        products.setMethods(List.of("GET"));
+        products.setCapacity(2);
+        products.setRefillPerSecond(1);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGroups(Map.of("products", products));
+
+        filter = new RateLimitFilter(properties, new LocalRateLimiterBackend(nanos::get), jwtUtil);
+    }
+
+    @Test
+    void rejectsRequestsOnceBucketIsEmptyAndRefillsOverTime() throws Exception {
+        assertThat(send("GET", "/api/products/1", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/products/2", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse limited = send("GET", "/api/products/3", "10.0.0.1");
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("1");
+
+        assertThat(send("GET", "/api/products/3", "10.0.0.2").getStatus()).isEqualTo(200);
+
+        nanos.addAndGet(1_000_000_000L);
+        assertThat(send("GET", "/api/products/3", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        verify(filterChain, times(4)).doFilter(any(), any());
+    }
+
+    @Test
+    void forwardedForHeaderFromClientDoesNotMintFreshBuckets() throws Exception {
+        assertThat(sendForwarded("198.51.100.1").getStatus()).isEqualTo(200);
+        assertThat(sendForwarded("198.51.100.2").getStatus()).isEqualTo(200);
+        assertThat(sendForwarded("198.51.100.3").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void retryAfterReflectsTheBucketsTokenDeficit() throws Exception {
+        RateLimitProperties.Group slow = new RateLimitProperties.Group();
+        slow.setPatterns(List.of("/api/products/**"));
+        slow.setCapacity(2);
+        slow.setRefillPerSecond(0.5);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGroups(Map.of("slow", slow));
+        filter = new RateLimitFilter(properties, new LocalRateLimiterBackend(nanos::get), jwtUtil);
+
+        send("GET", "/api/products/1", "10.0.0.1");
+        send("GET", "/api/products/1", "10.0.0.1");
+        assertThat(send("GET", "/api/products/1", "10.0.0.1").getHeader("Retry-After")).isEqualTo("2");
+
+        nanos.addAndGet(1_500_000_000L);
+        assertThat(send("GET", "/api/products/1", "10.0.0.1").getHeader("Retry-After")).isEqualTo("1");
+    }
+
+    @Test
+    void passesRequestsOutsideConfiguredGroups() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(send("POST", "/api/products", "10.0.0.1").getStatus()).isEqualTo(200);
+            assertThat(send("GET", "/api/orders", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        verify(filterChain, times(10)).doFilter(any(), any());
+    }
+
+    private MockHttpServletResponse sendForwarded(String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.setRemoteAddr("203.0.113.9");
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+        return response;
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+        return response;
+    }
+}
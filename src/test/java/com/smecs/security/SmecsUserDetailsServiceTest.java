@@ -27,15 +27,12 @@ class SmecsUserDetailsServiceTest {
 
     @Test
     void loadUserByUsername_returnsUserDetails() {
-        User user = new User();
-        user.setUsername("alice");
-        user.setPasswordHash("hashed");
-        user.setRole("admin");
-        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("hashed", "admin")));
 
         UserDetails details = userDetailsService.loadUserByUsername("alice");
 
         assertThat(details.getUsername()).isEqualTo("alice");
+        assertThat(details.getPassword()).isEqualTo("hashed");
         assertThat(details.getAuthorities()).anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
     }
 
@@ -49,12 +46,28 @@ class SmecsUserDetailsServiceTest {
 
     @Test
     void loadUserByUsername_throwsWhenNoPasswordHash() {
-        User user = new User();
-        user.setUsername("alice");
-        user.setPasswordHash(null);
-        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user(null, "customer")));
 
         assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("alice"));
     }
-}
 
+    @Test
+    void loadUserByUsername_fallsBackToEmail() {
+        when(userRepository.findByUsername("alice@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(user("hashed", "customer")));
+
+        UserDetails details = userDetailsService.loadUserByUsername("alice@example.com");
+
+        assertThat(details.getUsername()).isEqualTo("alice");
+    }
+
+    private static User user(String passwordHash, String role) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+        user.setPasswordHash(passwordHash);
+        user.setRole(role);
+        return user;
+    }
+}
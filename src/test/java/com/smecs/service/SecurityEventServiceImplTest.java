@@ -3,7 +3,9 @@ package com.smecs.service;
 import com.smecs.dto.RequestMetadata;
 import com.smecs.entity.SecurityEventType;
 import com.smecs.repository.SecurityEventRepository;
+import com.smecs.repository.SecurityEventRollupRepository;
 import com.smecs.service.impl.SecurityEventServiceImpl;
+import com.smecs.service.impl.SecurityEventWriter;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -15,15 +17,18 @@ class SecurityEventServiceImplTest {
     @Test
     void bruteForceAlertEmitsOnceAfterThreshold() {
         SecurityEventRepository repository = mock(SecurityEventRepository.class);
-        SecurityEventServiceImpl service = new SecurityEventServiceImpl(repository);
+        SecurityEventRollupRepository rollupRepository = mock(SecurityEventRollupRepository.class);
+        SecurityEventSketchService sketchService = mock(SecurityEventSketchService.class);
+        SecurityEventServiceImpl service = new SecurityEventServiceImpl(
+                new SecurityEventWriter(repository, rollupRepository), sketchService, 5);
         RequestMetadata metadata = RequestMetadata.builder()
                 .ipAddress("127.0.0.1")
                 .userAgent("JUnit")
                 .endpoint("/api/auth/login")
                 .build();
 
-        for (int i = 0; i < 6; i++) {
-            service.recordLoginFailure("alice", metadata);
+        for (int attempts = 1; attempts <= 6; attempts++) {
+            service.recordLoginFailure("alice", metadata, attempts);
         }
 
         ArgumentCaptor<com.smecs.entity.SecurityEvent> events =
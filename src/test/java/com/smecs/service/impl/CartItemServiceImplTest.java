@@ -1,6 +1,8 @@
 package com.smecs.service.impl;
 
 import com.smecs.dto.AddToCartRequest;
+import com.smecs.dto.BatchAddToCartRequest;
+import com.smecs.dto.CartItemRequest;
 import com.smecs.entity.Cart;
 import com.smecs.entity.CartItem;
 import com.smecs.entity.Inventory;
@@ -17,14 +19,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +54,15 @@ class CartItemServiceImplTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CartLocking cartLocking;
+
+    @Spy
+    private CartWriteBehind cartWriteBehind = new CartWriteBehind(null, null, null, null, null, false, 10);
+
     @InjectMocks
     private CartItemServiceImpl cartItemService;
 
@@ -168,6 +183,83 @@ class CartItemServiceImplTest {
         verify(cartItemRepository, times(2)).findByCartIdAndProductIdForUpdate(7L, 9L);
     }
 
+    @Test
+    void addItemsToCart_mergesLinesAndLoadsEverythingInOneQueryEach() {
+        Cart cart = new Cart();
+        cart.setCartId(7L);
+        Product existingProduct = product(9L);
+        Product newProduct = product(10L);
+        CartItem existingItem = new CartItem();
+        existingItem.setCart(cart);
+        existingItem.setProduct(existingProduct);
+        existingItem.setQuantity(1);
+
+        when(userService.requirePrincipal()).thenReturn(new SmecsUserPrincipal(7L, "alice", "alice@example.com", "CUSTOMER"));
+        when(cartService.getOrCreateCartForUser(7L)).thenReturn(cart);
+        when(productRepository.findAllById(any())).thenReturn(List.of(existingProduct, newProduct));
+        when(inventoryRepository.findByProductIdIn(any())).thenReturn(List.of(inventory(existingProduct, 5), inventory(newProduct, 5)));
+        when(cartItemRepository.findByCartIdAndProductIdsForUpdate(eq(7L), any())).thenReturn(List.of(existingItem));
+        when(cartItemRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<CartItem> result = cartItemService.addItemsToCart(batch(line(9L, 2), line(10L, 1), line(9L, 1)));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0)).isSameAs(existingItem);
+        assertThat(existingItem.getQuantity()).isEqualTo(4);
+        assertThat(result.get(1).getProduct()).isSameAs(newProduct);
+        assertThat(result.get(1).getQuantity()).isEqualTo(1);
+        verify(ownershipChecks).assertUserMatches(7L);
+        verify(cartService, times(1)).getOrCreateCartForUser(7L);
+        verify(inventoryRepository, never()).findByProduct_Id(any());
+    }
+
+    @Test
+    void addItemsToCart_savesNothingWhenAnyLineExceedsStock() {
+        Cart cart = new Cart();
+        cart.setCartId(7L);
+        Product first = product(9L);
+        Product second = product(10L);
+
+        when(userService.requirePrincipal()).thenReturn(new SmecsUserPrincipal(7L, "alice", "alice@example.com", "CUSTOMER"));
+        when(cartService.getOrCreateCartForUser(7L)).thenReturn(cart);
+        when(productRepository.findAllById(any())).thenReturn(List.of(first, second));
+        when(inventoryRepository.findByProductIdIn(any())).thenReturn(List.of(inventory(first, 5), inventory(second, 1)));
+        when(cartItemRepository.findByCartIdAndProductIdsForUpdate(eq(7L), any())).thenReturn(List.of());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> cartItemService.addItemsToCart(batch(line(9L, 2), line(10L, 3))));
+        verify(cartItemRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void addItemToCart_stripedModeTakesNoRowLocks() {
+        AddToCartRequest request = new AddToCartRequest();
+        request.setProductId(9L);
+        request.setQuantity(2);
+
+        Cart cart = new Cart();
+        cart.setCartId(7L);
+        Product product = product(9L);
+        CartItem existingItem = new CartItem();
+        existingItem.setCart(cart);
+        existingItem.setProduct(product);
+        existingItem.setQuantity(1);
+
+        when(cartLocking.isStriped()).thenReturn(true);
+        when(userService.requirePrincipal()).thenReturn(new SmecsUserPrincipal(7L, "alice", "alice@example.com", "CUSTOMER"));
+        when(cartService.getOrCreateCartForUser(7L)).thenReturn(cart);
+        when(productRepository.findById(9L)).thenReturn(Optional.of(product));
+        when(inventoryRepository.findByProductIdIn(List.of(9L))).thenReturn(List.of(inventory(product, 5)));
+        when(cartItemRepository.findByCartIdAndProductId(7L, 9L)).thenReturn(existingItem);
+        when(cartItemRepository.save(any(CartItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CartItem result = cartItemService.addItemToCart(request);
+
+        assertThat(result.getQuantity()).isEqualTo(3);
+        verify(cartItemRepository, never()).findByCartIdAndProductIdForUpdate(any(), any());
+        verify(inventoryRepository, never()).findByProduct_Id(any());
+    }
+
     @Test
     void updateCartItem_throwsWhenQuantityInvalid() {
         assertThrows(IllegalArgumentException.class, () -> cartItemService.updateCartItem(1L, 0));
@@ -191,4 +283,31 @@ class CartItemServiceImplTest {
 
         assertThrows(ResourceNotFoundException.class, () -> cartItemService.getCartItemsByCartId(10L));
     }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+
+    private static Inventory inventory(Product product, int quantity) {
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setQuantity(quantity);
+        return inventory;
+    }
+
+    private static CartItemRequest line(Long productId, int quantity) {
+        CartItemRequest line = new CartItemRequest();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    private static BatchAddToCartRequest batch(CartItemRequest... lines) {
+        BatchAddToCartRequest request = new BatchAddToCartRequest();
+        request.setUserId(7L);
+        request.setItems(List.of(lines));
+        return request;
+    }
 }
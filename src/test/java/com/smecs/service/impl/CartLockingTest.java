@@ -0,0 +1,55 @@
+package com.smecs.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CartLockingTest {
+
+    private final CartLocking cartLocking = new CartLocking("striped", 16, 50);
+
+    @Test
+    void holdsTheCartLockUntilTheTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cartLocking.lockUntilCompletion(7L);
+
+            assertThat(CompletableFuture.supplyAsync(() -> tryLockInOtherTransaction(7L)).join())
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(CompletableFuture.supplyAsync(() -> tryLockInOtherTransaction(7L)).join()).isNull();
+    }
+
+    @Test
+    void refusesToLockOutsideATransactionAndRejectsUnknownModes() {
+        assertThatThrownBy(() -> cartLocking.lockUntilCompletion(7L)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new CartLocking("optimistic", 16, 50)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new CartLocking("pessimistic", 16, 50).isStriped()).isFalse();
+    }
+
+    private RuntimeException tryLockInOtherTransaction(Long cartId) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cartLocking.lockUntilCompletion(cartId);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.smecs.service.impl;
+
+import com.smecs.event.CartChanged;
+import com.smecs.repository.CartItemRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartMaintenanceServiceImplTest {
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deletesInBatchesUntilAShortBatchAndEvictsEachCartOnce() {
+        CartMaintenanceServiceImpl sweeper = sweeper(2, 10);
+        when(cartItemRepository.deleteAbandonedItems(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(5L, 5L))
+                .thenReturn(List.of(6L));
+
+        int removed = sweeper.purgeAbandonedCartItems();
+
+        assertThat(removed).isEqualTo(3);
+        verify(cartItemRepository, times(2)).deleteAbandonedItems(any(LocalDateTime.class), eq(2));
+        verify(eventPublisher, times(1)).publishEvent(new CartChanged(5L));
+        verify(eventPublisher, times(1)).publishEvent(new CartChanged(6L));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void stopsAfterMaxBatchesPerRun() {
+        CartMaintenanceServiceImpl sweeper = sweeper(1, 3);
+        when(cartItemRepository.deleteAbandonedItems(any(LocalDateTime.class), eq(1))).thenReturn(List.of(5L));
+
+        int removed = sweeper.purgeAbandonedCartItems();
+
+        assertThat(removed).isEqualTo(3);
+        verify(cartItemRepository, times(3)).deleteAbandonedItems(any(LocalDateTime.class), eq(1));
+    }
+
+    private CartMaintenanceServiceImpl sweeper(int batchSize, int maxBatches) {
+        return new CartMaintenanceServiceImpl(cartItemRepository, eventPublisher, transactionManager,
+                30, batchSize, maxBatches);
+    }
+}
@@ -1,18 +1,28 @@
 package com.smecs.service.impl;
 
+import com.smecs.config.CacheConfig;
+import com.smecs.dto.CartLineDTO;
+import com.smecs.dto.CartSummaryDTO;
 import com.smecs.entity.Cart;
 import com.smecs.entity.User;
+import com.smecs.event.CartChanged;
 import com.smecs.exception.ResourceNotFoundException;
+import com.smecs.repository.CartItemRepository;
 import com.smecs.repository.CartRepository;
 import com.smecs.repository.UserRepository;
 import com.smecs.security.OwnershipChecks;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,9 +38,24 @@ class CartServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CartItemRepository cartItemRepository;
+
     @Mock
     private OwnershipChecks ownershipChecks;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CartLocking cartLocking;
+
+    @Mock
+    private CartWriteBehind cartWriteBehind;
+
     @InjectMocks
     private CartServiceImpl cartService;
 
@@ -113,6 +138,68 @@ class CartServiceImplTest {
         verify(cartRepository).saveAndFlush(any(Cart.class));
     }
 
+    @Test
+    void getCartSummary_totalsLinesFromOneQueryAndServesRepeatsFromCache() {
+        when(cacheManager.getCache(CacheConfig.CART_SUMMARY)).thenReturn(new ConcurrentMapCache(CacheConfig.CART_SUMMARY));
+        when(cartItemRepository.findCartLines(5L)).thenReturn(List.of(
+                new CartLineDTO(1L, 9L, "Lamp", "lamp.png", 12.5, 2, 10),
+                new CartLineDTO(2L, 10L, "Desk", null, 100.0, 1, 0)));
+
+        CartSummaryDTO first = cartService.getCartSummary(5L);
+        CartSummaryDTO second = cartService.getCartSummary(5L);
+
+        assertThat(first.getTotal()).isEqualTo(125.0);
+        assertThat(first.getTotalQuantity()).isEqualTo(3);
+        assertThat(first.isAllInStock()).isFalse();
+        assertThat(first.getItems().get(0).getLineTotal()).isEqualTo(25.0);
+        assertThat(second).isSameAs(first);
+        verify(cartItemRepository, times(1)).findCartLines(5L);
+        verify(ownershipChecks, times(2)).assertCartIdOwnership(5L);
+    }
+
+    @Test
+    void clearCart_deletesItemsInOneStatementAndEvictsSummary() {
+        Cart cart = new Cart();
+        cart.setCartId(5L);
+        when(cartRepository.findByCartId(5L)).thenReturn(Optional.of(cart));
+
+        cartService.clearCart(5L);
+
+        verify(ownershipChecks).assertCartOwnership(cart);
+        verify(cartItemRepository).deleteByCartId(5L);
+        verify(cartItemRepository, never()).deleteAll(any());
+        verify(eventPublisher).publishEvent(new CartChanged(5L));
+    }
+
+    @Test
+    void clearCart_stripedModeTakesTheCartStripeBeforeDeleting() {
+        Cart cart = new Cart();
+        cart.setCartId(5L);
+        when(cartLocking.isStriped()).thenReturn(true);
+        when(cartRepository.findById(5L)).thenReturn(Optional.of(cart));
+
+        cartService.clearCart(5L);
+
+        InOrder inOrder = inOrder(cartLocking, cartItemRepository);
+        inOrder.verify(cartLocking).lockUntilCompletion(5L);
+        inOrder.verify(cartItemRepository).deleteByCartId(5L);
+        verify(cartRepository, never()).findByCartId(any());
+    }
+
+    @Test
+    void getOrCreateCartForUser_stripedModeLocksInProcessAndReadsWithoutRowLock() {
+        Cart existing = new Cart();
+        existing.setCartId(8L);
+        when(cartLocking.isStriped()).thenReturn(true);
+        when(cartRepository.findById(8L)).thenReturn(Optional.of(existing));
+
+        Cart result = cartService.getOrCreateCartForUser(8L);
+
+        assertThat(result).isSameAs(existing);
+        verify(cartLocking).lockUntilCompletion(8L);
+        verify(cartRepository, never()).findByCartId(any());
+    }
+
     @Test
     void deleteCart_throwsWhenMissing() {
         when(cartRepository.existsById(99L)).thenReturn(false);
@@ -0,0 +1,163 @@
+package com.smecs.service.impl;
+
+import com.smecs.entity.Cart;
+import com.smecs.entity.CartItem;
+import com.smecs.event.CartChanged;
+import com.smecs.repository.CartItemRepository;
+import com.smecs.repository.CartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartWriteBehindTest {
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private CartLocking cartLocking;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CartWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        writeBehind = new CartWriteBehind(cartItemRepository, cartRepository, cartLocking, eventPublisher,
+                transactionManager, true, 1);
+    }
+
+    @Test
+    void coalescesEditsIntoOneWritePerLineUnderTheCartLock() {
+        CartItem lamp = item(7L, 1L, 1);
+        CartItem desk = item(7L, 2L, 1);
+
+        writeBehind.stageQuantity(lamp, 2);
+        CartItem staged = writeBehind.stageQuantity(lamp, 5);
+        writeBehind.stageRemoval(desk);
+
+        assertThat(staged.getQuantity()).isEqualTo(5);
+        assertThat(lamp.getQuantity()).isEqualTo(1);
+        assertThat(writeBehind.currentQuantity(lamp)).isEqualTo(5);
+        assertThat(writeBehind.withBufferedQuantity(lamp).getQuantity()).isEqualTo(5);
+        assertThat(writeBehind.isRemoved(desk)).isTrue();
+
+        assertThat(writeBehind.flush(7L)).isTrue();
+
+        verify(cartRepository).findByCartId(7L);
+        verify(cartItemRepository, times(1)).updateQuantity(1L, 5);
+        verify(cartItemRepository).deleteByCartItemIdIn(List.of(2L));
+        verify(cartRepository).touch(eq(7L), any(LocalDateTime.class));
+        verify(eventPublisher).publishEvent(new CartChanged(7L));
+        assertThat(writeBehind.currentQuantity(lamp)).isEqualTo(1);
+        assertThat(writeBehind.flush(7L)).isFalse();
+    }
+
+    @Test
+    void writesThroughWhenTheBufferIsFullAndKeepsChangesWhenAFlushFails() {
+        CartItem first = item(7L, 1L, 1);
+        CartItem otherCart = item(8L, 2L, 1);
+
+        assertThat(writeBehind.stageQuantity(first, 3)).isNotNull();
+        assertThat(writeBehind.stageQuantity(otherCart, 3)).isNull();
+
+        doThrow(new IllegalStateException("db down")).when(cartItemRepository).updateQuantity(1L, 3);
+        writeBehind.flushAll();
+
+        assertThat(writeBehind.currentQuantity(first)).isEqualTo(3);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void stagesUnderTheCartLockOnlyOnceTheEditCommits() {
+        CartItem lamp = item(7L, 1L, 1);
+        CartItem desk = item(7L, 2L, 1);
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> writeBehind.stageQuantity(lamp, 4));
+        assertThat(writeBehind.currentQuantity(lamp)).isEqualTo(1);
+        assertThat(writeBehind.flush(7L)).isFalse();
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            writeBehind.stageRemoval(desk);
+            assertThat(writeBehind.isRemoved(desk)).isFalse();
+        });
+        assertThat(writeBehind.isRemoved(desk)).isTrue();
+        verify(cartLocking, times(2)).lockUntilCompletion(7L);
+    }
+
+    @Test
+    void flushUnderLockWritesInTheCallersTransactionAndKeepsEntriesIfItRollsBack() {
+        CartItem lamp = item(7L, 1L, 1);
+        writeBehind.stageQuantity(lamp, 3);
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> writeBehind.flushUnderLock(7L));
+
+        verify(cartRepository, times(2)).findByCartId(7L);
+        verify(cartLocking).lockUntilCompletion(7L);
+        verify(cartItemRepository).updateQuantity(1L, 3);
+        verifyNoInteractions(transactionManager);
+        assertThat(writeBehind.currentQuantity(lamp)).isEqualTo(3);
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> writeBehind.flushUnderLock(7L));
+        assertThat(writeBehind.currentQuantity(lamp)).isEqualTo(1);
+    }
+
+    @Test
+    void discardTakesEffectOnlyWhenTheClearingTransactionCommits() {
+        CartItem lamp = item(7L, 1L, 1);
+        writeBehind.stageQuantity(lamp, 3);
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> writeBehind.discard(7L));
+        assertThat(writeBehind.currentQuantity(lamp)).isEqualTo(3);
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> writeBehind.discard(7L));
+        assertThat(writeBehind.currentQuantity(lamp)).isEqualTo(1);
+    }
+
+    /** Runs {@code work} with transaction synchronization active, then completes it with {@code status}. */
+    private static void inTransaction(int status, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static CartItem item(Long cartId, Long cartItemId, int quantity) {
+        Cart cart = new Cart();
+        cart.setCartId(cartId);
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setCartItemId(cartItemId);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
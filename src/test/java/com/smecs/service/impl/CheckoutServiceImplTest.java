@@ -0,0 +1,122 @@
+package com.smecs.service.impl;
+
+import com.smecs.dto.OrderItemDTO;
+import com.smecs.entity.IdempotencyRecord;
+import com.smecs.entity.Order;
+import com.smecs.entity.OrderItem;
+import com.smecs.entity.Product;
+import com.smecs.mapper.OrderItemMapper;
+import com.smecs.repository.IdempotencyRecordRepository;
+import com.smecs.security.SmecsUserPrincipal;
+import com.smecs.service.CheckoutService;
+import com.smecs.service.OrderItemService;
+import com.smecs.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CheckoutServiceImplTest {
+
+    @Mock
+    private OrderItemService orderItemService;
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CheckoutServiceImpl checkoutService;
+
+    @BeforeEach
+    void setUp() {
+        checkoutService = new CheckoutServiceImpl(orderItemService, idempotencyRecordRepository, userService,
+                new OrderItemMapper(), transactionManager, 24);
+    }
+
+    @Test
+    void firstRequestStoresResultAndRetryReplaysIt() {
+        when(userService.requirePrincipal()).thenReturn(new SmecsUserPrincipal(10L, "test", "test@example.com", "customer"));
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(10L, "key-1")).thenReturn(Optional.empty());
+        when(orderItemService.createOrderItems()).thenReturn(List.of(orderItem()));
+
+        CheckoutService.Result first = checkoutService.checkout("key-1");
+
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).save(saved.capture());
+        IdempotencyRecord record = saved.getValue();
+        assertThat(first.replayed()).isFalse();
+        assertThat(record.getOrderId()).isEqualTo(100L);
+        assertThat(record.getResponseBody()).contains("\"orderId\":100");
+
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(10L, "key-1")).thenReturn(Optional.of(record));
+        CheckoutService.Result retry = checkoutService.checkout("key-1");
+
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.items()).extracting(OrderItemDTO::getId, OrderItemDTO::getQuantity)
+                .containsExactly(tuple(5L, 2));
+        verify(orderItemService, times(1)).createOrderItems();
+    }
+
+    @Test
+    void concurrentDuplicateReplaysTheWinner() {
+        IdempotencyRecord winner = new IdempotencyRecord();
+        winner.setOrderId(100L);
+        winner.setResponseBody("[{\"id\":5,\"orderId\":100,\"productId\":7,\"quantity\":2,\"price\":9.50}]");
+        when(userService.requirePrincipal()).thenReturn(new SmecsUserPrincipal(10L, "test", "test@example.com", "customer"));
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(10L, "key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        CheckoutService.Result result = checkoutService.checkout("key-1");
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.items()).singleElement().satisfies(item -> assertThat(item.getOrderId()).isEqualTo(100L));
+        verify(orderItemService, never()).createOrderItems();
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void checkoutWithoutKeySkipsIdempotencyStore() {
+        when(orderItemService.createOrderItems()).thenReturn(List.of(orderItem()));
+
+        CheckoutService.Result result = checkoutService.checkout(null);
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(result.items()).hasSize(1);
+        verifyNoInteractions(idempotencyRecordRepository, transactionManager);
+    }
+
+    private static OrderItem orderItem() {
+        Order order = new Order();
+        order.setId(100L);
+        Product product = new Product();
+        product.setId(7L);
+        OrderItem item = new OrderItem();
+        item.setOrderItemId(5L);
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setQuantity(2);
+        item.setPriceAtPurchase(9.50);
+        return item;
+    }
+}
@@ -0,0 +1,151 @@
+package com.smecs.service.impl;
+
+import com.smecs.entity.Inventory;
+import com.smecs.event.InventoryChanged;
+import com.smecs.repository.InventoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotSkuAdmissionServiceImplTest {
+
+    private static final Long HOT_PRODUCT = 7L;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Inventory inventory = new Inventory();
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private HotSkuAdmissionServiceImpl admission;
+
+    @BeforeEach
+    void setUp() {
+        inventory.setId(70L);
+        when(inventoryRepository.findByProduct_Id(HOT_PRODUCT)).thenReturn(Optional.of(inventory));
+        admission = new HotSkuAdmissionServiceImpl(inventoryRepository, eventPublisher, transactionManager,
+                new SimpleMeterRegistry(), Set.of(HOT_PRODUCT), 100, 50, 5000, 10, 1000, clock::get);
+        admission.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        admission.stop();
+    }
+
+    @Test
+    void concurrentReservationsNeverOversellAndSoldOutIsRefusedWithoutQueueing() throws Exception {
+        inventory.setQuantity(3);
+        ExecutorService buyers = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(buyers.submit(() -> admission.reserve(HOT_PRODUCT, 1)));
+        }
+        int granted = 0;
+        for (Future<Integer> result : results) {
+            try {
+                result.get();
+                granted++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IllegalArgumentException.class);
+            }
+        }
+        buyers.shutdown();
+
+        assertThat(granted).isEqualTo(3);
+        assertThat(inventory.getQuantity()).isZero();
+        verify(eventPublisher, atLeastOnce()).publishEvent(any(InventoryChanged.class));
+
+        clearInvocations(inventoryRepository);
+        assertThatThrownBy(() -> admission.reserve(HOT_PRODUCT, 1)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(inventoryRepository);
+
+        admission.handle(List.of(new InventoryChanged(70L, HOT_PRODUCT, 5)));
+        inventory.setQuantity(5);
+        assertThat(admission.reserve(HOT_PRODUCT, 2)).isEqualTo(3);
+    }
+
+    @Test
+    void soldOutHintExpiresSoRestocksFromElsewhereAreSeen() {
+        inventory.setQuantity(1);
+        assertThat(admission.reserve(HOT_PRODUCT, 1)).isZero();
+        assertThatThrownBy(() -> admission.reserve(HOT_PRODUCT, 1)).isInstanceOf(IllegalArgumentException.class);
+
+        // Restocked by another node or by SQL: no local InventoryChanged event.
+        inventory.setQuantity(4);
+        assertThatThrownBy(() -> admission.reserve(HOT_PRODUCT, 1)).isInstanceOf(IllegalArgumentException.class);
+
+        clock.addAndGet(1000);
+        assertThat(admission.reserve(HOT_PRODUCT, 1)).isEqualTo(3);
+    }
+
+    @Test
+    void restockIsAppliedInItsOwnTransactionWhenTheQueueIsFull() throws InterruptedException {
+        admission.stop();
+        HotSkuAdmissionServiceImpl stopped = new HotSkuAdmissionServiceImpl(inventoryRepository, eventPublisher,
+                transactionManager, new SimpleMeterRegistry(), Set.of(HOT_PRODUCT), 1, 50, 5000, 10, 1000, clock::get);
+        inventory.setQuantity(0);
+
+        stopped.release(HOT_PRODUCT, 2);
+        stopped.release(HOT_PRODUCT, 3);
+
+        assertThat(inventory.getQuantity()).isEqualTo(3);
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().getPropagationBehavior())
+                .isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        stopped.stop();
+        assertThat(inventory.getQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void reservationIsGivenBackWhenCheckoutRollsBack() throws Exception {
+        inventory.setQuantity(4);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(admission.reserve(HOT_PRODUCT, 3)).isEqualTo(1);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        admission.stop();
+        assertThat(inventory.getQuantity()).isEqualTo(4);
+        assertThat(admission.isHot(HOT_PRODUCT)).isTrue();
+        assertThat(admission.isHot(8L)).isFalse();
+    }
+}
@@ -0,0 +1,111 @@
+package com.smecs.service.impl;
+
+import com.smecs.security.InMemoryLoginAttemptStore;
+import com.smecs.security.LoginAttemptStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class LoginAttemptServiceImplTest {
+
+    private MutableClock clock;
+    private LoginAttemptServiceImpl loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-03-10T12:00:00Z"));
+        loginAttemptService = new LoginAttemptServiceImpl(
+                new InMemoryLoginAttemptStore(), 3, 5, Duration.ofMinutes(10), clock);
+    }
+
+    @Test
+    void blocksUsernameAndIpAfterLimitUntilWindowSlides() {
+        for (int i = 1; i <= 3; i++) {
+            assertThat(loginAttemptService.isBlocked("alice", "10.0.0.1")).isFalse();
+            assertThat(loginAttemptService.recordFailure("alice", "10.0.0.1")).isEqualTo(i);
+        }
+
+        assertThat(loginAttemptService.isBlocked("alice", "10.0.0.1")).isTrue();
+        assertThat(loginAttemptService.isBlocked("ALICE", "10.0.0.1")).isTrue();
+        assertThat(loginAttemptService.isBlocked("alice", "10.0.0.2")).isFalse();
+
+        clock.advance(Duration.ofMinutes(11));
+        assertThat(loginAttemptService.isBlocked("alice", "10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void blocksIpAcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            loginAttemptService.recordFailure("user" + i, "10.0.0.9");
+        }
+
+        assertThat(loginAttemptService.isBlocked("someone-else", "10.0.0.9")).isTrue();
+    }
+
+    @Test
+    void successResetsUsernameCounter() {
+        loginAttemptService.recordFailure("bob", "10.0.0.3");
+        loginAttemptService.recordFailure("bob", "10.0.0.3");
+
+        loginAttemptService.recordSuccess("bob", "10.0.0.3");
+
+        assertThat(loginAttemptService.recordFailure("bob", "10.0.0.3")).isEqualTo(1);
+    }
+
+    @Test
+    void overlongUsernameIsCountedWithKeyThatFitsTheStoreColumn() {
+        LoginAttemptStore store = spy(new InMemoryLoginAttemptStore());
+        LoginAttemptServiceImpl service = new LoginAttemptServiceImpl(store, 3, 5, Duration.ofMinutes(10), clock);
+        String username = "a".repeat(5000);
+        String ipv6 = "ffff:ffff:ffff:ffff:ffff:ffff:255.255.255.255";
+
+        for (int i = 0; i < 3; i++) {
+            service.recordFailure(username, ipv6);
+        }
+
+        assertThat(service.isBlocked(username, ipv6)).isTrue();
+        assertThat(service.isBlocked("a".repeat(4999), ipv6)).isFalse();
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(store, atLeastOnce()).increment(keys.capture(), any(), any(), any());
+        // login_attempt_buckets.attempt_key is VARCHAR(200).
+        assertThat(keys.getAllValues()).allSatisfy(key -> assertThat(key).hasSizeLessThanOrEqualTo(200));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
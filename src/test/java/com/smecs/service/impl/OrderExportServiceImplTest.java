@@ -0,0 +1,70 @@
+package com.smecs.service.impl;
+
+import com.smecs.dto.OrderExportRow;
+import com.smecs.entity.Order;
+import com.smecs.repository.OrderRepository;
+import com.smecs.service.OrderExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceImplTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderExportServiceImpl exportService;
+
+    private final AtomicBoolean cursorClosed = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        exportService = new OrderExportServiceImpl(orderRepository, transactionManager, 1800);
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 12, 30);
+        when(orderRepository.streamForExport()).thenReturn(Stream.of(
+                new OrderExportRow(1L, 10L, Order.Status.PENDING, 25.5, createdAt),
+                new OrderExportRow(2L, null, Order.Status.SHIPPED, 0.0, createdAt)
+        ).onClose(() -> cursorClosed.set(true)));
+    }
+
+    @Test
+    void exportsCsvWithHeaderAndClosesCursor() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.exportOrders(OrderExportService.Format.CSV, out);
+
+        assertThat(written).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,user_id,status,total_amount,created_at\n"
+                        + "1,10,PENDING,25.5,2026-03-01T12:30\n"
+                        + "2,,SHIPPED,0.0,2026-03-01T12:30\n");
+        assertThat(cursorClosed).isTrue();
+    }
+
+    @Test
+    void exportsOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportOrders(OrderExportService.Format.NDJSON, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "{\"id\":1,\"userId\":10,\"status\":\"PENDING\",\"totalAmount\":25.5,\"createdAt\":\"2026-03-01T12:30\"}",
+                "{\"id\":2,\"userId\":null,\"status\":\"SHIPPED\",\"totalAmount\":0.0,\"createdAt\":\"2026-03-01T12:30\"}");
+    }
+}
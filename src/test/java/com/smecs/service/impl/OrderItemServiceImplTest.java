@@ -20,6 +20,7 @@ import com.smecs.repository.UserRepository;
 import com.smecs.security.OwnershipChecks;
 import com.smecs.security.SmecsUserPrincipal;
 import com.smecs.service.CartService;
+import com.smecs.service.HotSkuAdmissionService;
 import com.smecs.service.OrderService;
 import com.smecs.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -27,12 +28,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -57,6 +68,9 @@ class OrderItemServiceImplTest {
     @Mock
     private CartService cartService;
 
+    @Mock
+    private HotSkuAdmissionService hotSkuAdmission;
+
     @Mock
     private InventoryRepository inventoryRepository;
 
@@ -72,6 +86,15 @@ class OrderItemServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CartWriteBehind cartWriteBehind;
+
+    @Mock
+    private CartLocking cartLocking;
+
     @InjectMocks
     private OrderItemServiceImpl orderItemService;
 
@@ -106,13 +129,15 @@ class OrderItemServiceImplTest {
         OrderItem saved = new OrderItem();
         saved.setProduct(product);
         saved.setQuantity(2);
+        saved.setPriceAtPurchase(5.0);
         when(orderItemRepository.saveAll(any())).thenReturn(List.of(saved));
 
         orderItemService.createOrderItems();
 
-        verify(orderService).updateOrderTotalOrThrow(4L);
+        verify(orderService).adjustOrderTotalOrThrow(4L, 10.0);
         verify(inventoryRepository).save(any(Inventory.class));
         verify(cartService).clearCart(12L);
+        verify(cartWriteBehind).flushUnderLock(12L);
     }
 
     @Test
@@ -134,8 +159,6 @@ class OrderItemServiceImplTest {
         order.setId(4L);
         when(orderService.createOrder()).thenReturn(order);
 
-        Product product = new Product();
-        product.setId(9L);
         when(productRepository.findById(9L)).thenReturn(Optional.of(product));
 
         Inventory inventory = new Inventory();
@@ -145,10 +168,109 @@ class OrderItemServiceImplTest {
         assertThrows(IllegalArgumentException.class, () -> orderItemService.createOrderItems());
     }
 
+    @Test
+    void createOrderItems_stripedModeHoldsOffAddToCartUntilCheckoutCompletes() throws Exception {
+        CartLocking striped = new CartLocking("striped", 16, 5000);
+        OrderItemServiceImpl checkoutService = new OrderItemServiceImpl(orderItemRepository, productRepository,
+                orderRepository, orderService, cartRepository, cartService, inventoryRepository, cartItemRepository,
+                userService, ownershipChecks, eventPublisher, hotSkuAdmission, cartWriteBehind, striped);
+        CartServiceImpl addPath = new CartServiceImpl(cartRepository, userRepository, cartItemRepository,
+                ownershipChecks, null, eventPublisher, striped, cartWriteBehind);
+
+        Cart cart = new Cart();
+        cart.setCartId(12L);
+        when(userService.requirePrincipal())
+                .thenReturn(new SmecsUserPrincipal(12L, "test", "test@example.com", "customer"));
+        when(cartRepository.findByCartId(12L)).thenReturn(Optional.of(cart));
+        when(cartRepository.findById(12L)).thenReturn(Optional.of(cart));
+        CountDownLatch checkoutReadingCart = new CountDownLatch(1);
+        CountDownLatch finishCheckout = new CountDownLatch(1);
+        List<String> timeline = new CopyOnWriteArrayList<>();
+        when(cartItemRepository.findByCartId(12L)).thenAnswer(invocation -> {
+            checkoutReadingCart.countDown();
+            finishCheckout.await(5, TimeUnit.SECONDS);
+            timeline.add("checkout read cart");
+            return List.of();
+        });
+
+        CompletableFuture<Void> checkout = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            assertThrows(IllegalStateException.class, checkoutService::createOrderItems);
+            return null;
+        }));
+        assertThat(checkoutReadingCart.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Cart> add = CompletableFuture.supplyAsync(() -> inTransaction(() -> {
+            Cart locked = addPath.getOrCreateCartForUser(12L);
+            timeline.add("add-to-cart locked cart");
+            return locked;
+        }));
+        Thread.sleep(100);
+        assertThat(add).isNotDone();
+
+        finishCheckout.countDown();
+        checkout.get(5, TimeUnit.SECONDS);
+        assertThat(add.get(5, TimeUnit.SECONDS)).isSameAs(cart);
+        assertThat(timeline).containsExactly("checkout read cart", "add-to-cart locked cart");
+    }
+
+    @Test
+    void updateOrderItem_appliesLineDeltaToOrderTotal() {
+        Order order = new Order();
+        order.setId(4L);
+        Product product = new Product();
+        product.setId(9L);
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setQuantity(2);
+        item.setPriceAtPurchase(5.0);
+        when(orderItemRepository.findById(30L)).thenReturn(Optional.of(item));
+        when(orderItemRepository.save(item)).thenReturn(item);
+
+        Inventory inventory = new Inventory();
+        inventory.setQuantity(10);
+        when(inventoryRepository.findByProduct_Id(9L)).thenReturn(Optional.of(inventory));
+
+        OrderItemDTO update = new OrderItemDTO();
+        update.setQuantity(5);
+        orderItemService.updateOrderItem(30L, update);
+
+        verify(orderService).adjustOrderTotalOrThrow(4L, 15.0);
+        verify(orderItemRepository, never()).findByOrder_Id(any());
+    }
+
+    @Test
+    void deleteOrderItem_subtractsLineFromOrderTotal() {
+        Order order = new Order();
+        order.setId(4L);
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setQuantity(3);
+        item.setPriceAtPurchase(2.5);
+        when(orderItemRepository.findById(31L)).thenReturn(Optional.of(item));
+
+        orderItemService.deleteOrderItem(31L);
+
+        verify(orderItemRepository).deleteById(31L);
+        verify(orderService).adjustOrderTotalOrThrow(4L, -7.5);
+    }
+
     @Test
     void getOrderItemsByOrderId_throwsWhenOrderMissing() {
         when(orderRepository.findById(55L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> orderItemService.getOrderItemsByOrderId(55L));
     }
+
+    /** Runs {@code work} as one transaction on the current thread, completing it even if it throws. */
+    private static <T> T inTransaction(Supplier<T> work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            return work.get();
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        }
+    }
 }
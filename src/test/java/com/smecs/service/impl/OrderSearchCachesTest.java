@@ -0,0 +1,50 @@
+package com.smecs.service.impl;
+
+import com.smecs.config.CacheConfig;
+import com.smecs.dto.OrderQuery;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderSearchCachesTest {
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final AtomicLong now = new AtomicLong(100_000);
+    private final OrderSearchCaches caches = new OrderSearchCaches(cacheManager, 5_000, now::get);
+
+    @Test
+    void orderChangeEvictsOnlyThatUsersSearches() {
+        Cache userSearches = cacheManager.getCache(CacheConfig.USER_ORDER_SEARCH);
+        OrderQuery query = OrderQuery.builder().build();
+        userSearches.put(OrderServiceImpl.userSearchCacheKey(1L, query), "changed");
+        userSearches.put(OrderServiceImpl.userSearchCacheKey(11L, query), "kept");
+
+        caches.orderChanged(1L);
+
+        assertThat(userSearches.get(OrderServiceImpl.userSearchCacheKey(1L, query))).isNull();
+        assertThat(userSearches.get(OrderServiceImpl.userSearchCacheKey(11L, query))).isNotNull();
+    }
+
+    @Test
+    void adminKeyAdvancesAtMostOncePerStalenessWindow() {
+        OrderQuery query = OrderQuery.builder().build();
+        String initial = caches.adminKey(query);
+
+        caches.orderChanged(1L);
+        String afterFirstWrite = caches.adminKey(query);
+        assertThat(afterFirstWrite).isNotEqualTo(initial);
+
+        now.addAndGet(1_000);
+        caches.orderChanged(2L);
+        assertThat(caches.adminKey(query)).isEqualTo(afterFirstWrite);
+
+        now.addAndGet(4_000);
+        assertThat(caches.adminKey(query)).isNotEqualTo(afterFirstWrite);
+        assertThat(caches.adminKey(query)).isEqualTo(caches.adminKey(query));
+    }
+}
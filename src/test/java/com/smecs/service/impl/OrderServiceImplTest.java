@@ -1,11 +1,16 @@
 package com.smecs.service.impl;
 
+import com.smecs.config.CacheConfig;
 import com.smecs.dto.OrderDTO;
+import com.smecs.dto.OrderDetailDTO;
+import com.smecs.dto.OrderLineDTO;
+import com.smecs.dto.OrderQuery;
 import com.smecs.dto.UpdateOrderStatusRequestDTO;
 import com.smecs.entity.Order;
-import com.smecs.entity.OrderItem;
 import com.smecs.entity.User;
+import com.smecs.exception.BadRequestException;
 import com.smecs.exception.ResourceNotFoundException;
+import com.smecs.mapper.OrderMapper;
 import com.smecs.repository.OrderItemRepository;
 import com.smecs.repository.OrderRepository;
 import com.smecs.repository.UserRepository;
@@ -14,17 +19,28 @@ import com.smecs.security.SmecsUserPrincipal;
 import com.smecs.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,14 +52,23 @@ class OrderServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private OwnershipChecks ownershipChecks;
+
+    @Mock
+    private UserService userService;
+
     @Mock
     private OrderItemRepository orderItemRepository;
 
     @Mock
-    private OwnershipChecks ownershipChecks;
+    private OrderMapper orderMapper;
 
     @Mock
-    private UserService userService;
+    private CacheManager cacheManager;
+
+    @Mock
+    private OrderSearchCaches orderSearchCaches;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -67,6 +92,7 @@ class OrderServiceImplTest {
         assertThat(result.getId()).isEqualTo(7L);
         assertThat(result.getUser().getId()).isEqualTo(10L);
         assertThat(result.getStatus()).isEqualTo(Order.Status.PENDING);
+        verify(orderSearchCaches).orderChanged(10L);
     }
 
     @Test
@@ -82,20 +108,100 @@ class OrderServiceImplTest {
     }
 
     @Test
-    void updateOrderTotalOrThrow_calculatesTotalFromItems() {
+    void updateOrderTotalOrThrow_recalculatesInOneStatement() {
+        when(orderRepository.recalculateTotalAmount(5L)).thenReturn(1);
+
+        orderService.updateOrderTotalOrThrow(5L);
+
+        verify(orderRepository).recalculateTotalAmount(5L);
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @Test
+    void adjustOrderTotalOrThrow_invalidatesOnlyTheOwnersSearches() {
+        when(orderRepository.addToTotalAmount(6L, 4.0)).thenReturn(1);
+        when(orderRepository.findUserIdById(6L)).thenReturn(12L);
+
+        orderService.adjustOrderTotalOrThrow(6L, 4.0);
+
+        verify(orderSearchCaches).orderChanged(12L);
+    }
+
+    @Test
+    void adjustOrderTotalOrThrow_throwsWhenOrderMissing() {
+        when(orderRepository.addToTotalAmount(6L, 4.0)).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.adjustOrderTotalOrThrow(6L, 4.0));
+    }
+
+    @Test
+    void getOrderDetail_servesCachedDetailButChecksOwnershipEachTime() {
+        when(cacheManager.getCache(CacheConfig.ORDER_DETAILS)).thenReturn(new ConcurrentMapCache(CacheConfig.ORDER_DETAILS));
         Order order = new Order();
-        order.setId(5L);
-        when(orderRepository.findById(5L)).thenReturn(Optional.of(order));
+        order.setId(8L);
+        when(orderRepository.findById(8L)).thenReturn(Optional.of(order));
+        OrderDTO header = new OrderDTO();
+        header.setId(8L);
+        header.setUserId(10L);
+        when(orderMapper.toDTO(order)).thenReturn(header);
+        OrderLineDTO line = new OrderLineDTO(30L, 2, 5.0, 9L, "Lamp", null, 6.0, 3L, null);
+        when(orderItemRepository.findOrderLines(8L)).thenReturn(List.of(line));
+
+        OrderDetailDTO first = orderService.getOrderDetail(8L);
+        OrderDetailDTO second = orderService.getOrderDetail(8L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getLineTotal()).isEqualTo(10.0);
+            assertThat(item.getProduct().getName()).isEqualTo("Lamp");
+        });
+        verify(orderRepository, times(1)).findById(8L);
+        verify(ownershipChecks, times(2)).assertOrderOwnerId(10L);
+    }
 
-        OrderItem item = new OrderItem();
-        item.setQuantity(2);
-        item.setPriceAtPurchase(10.0);
-        when(orderItemRepository.findByOrder_Id(5L)).thenReturn(List.of(item));
+    @Test
+    void getOrderDetail_throwsNotFoundForMissingOrder() {
+        when(cacheManager.getCache(CacheConfig.ORDER_DETAILS)).thenReturn(new ConcurrentMapCache(CacheConfig.ORDER_DETAILS));
+        when(orderRepository.findById(404L)).thenReturn(Optional.empty());
 
-        orderService.updateOrderTotalOrThrow(5L);
+        assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderDetail(404L));
+
+        verifyNoInteractions(ownershipChecks);
+    }
+
+    @Test
+    void getOrdersByUserId_sortsByWhitelistedKeyWithIdTiebreaker() {
+        when(orderRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(Page.empty());
+        OrderQuery query = OrderQuery.builder().sort("totalAmount,asc").userId(99L).build();
+
+        orderService.getOrdersByUserId(10L, query);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(orderRepository).findAll(any(Specification.class), pageable.capture());
+        assertThat(pageable.getValue().getSort())
+                .isEqualTo(Sort.by(Sort.Direction.ASC, "totalAmount", "id"));
+        verify(ownershipChecks).assertUserMatches(10L);
+    }
 
-        assertThat(order.getTotalAmount()).isEqualTo(20.0);
-        verify(orderRepository).save(order);
+    @Test
+    void getAllOrders_rejectsUnsupportedSortAndInvertedRanges() {
+        assertThrows(BadRequestException.class,
+                () -> orderService.getAllOrders(OrderQuery.builder().sort("user.password,asc").build()));
+        assertThrows(BadRequestException.class,
+                () -> orderService.getAllOrders(OrderQuery.builder().minTotal(50.0).maxTotal(10.0).build()));
+        verify(orderRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchCacheKey_includesFilters() {
+        String unfiltered = OrderServiceImpl.searchCacheKey(null);
+        String filtered = OrderServiceImpl.searchCacheKey(OrderQuery.builder()
+                .userId(3L)
+                .createdFrom(LocalDateTime.of(2026, 1, 1, 0, 0))
+                .minTotal(20.0)
+                .build());
+
+        assertThat(filtered).isNotEqualTo(unfiltered).contains("userId:3", "from:2026-01-01T00:00", "min:20.0");
     }
 
     @Test
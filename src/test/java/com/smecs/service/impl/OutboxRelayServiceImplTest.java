@@ -0,0 +1,103 @@
+package com.smecs.service.impl;
+
+import com.smecs.entity.OutboxEvent;
+import com.smecs.event.OutboxEventConsumer;
+import com.smecs.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T12:00:00Z");
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deliversFullBatchesUntilBacklogIsDrained() {
+        List<Long> seen = new ArrayList<>();
+        OutboxRelayServiceImpl relay = relay(event -> seen.add(event.getId()), 2);
+        when(outboxEventRepository.claimBatch(2, 10, NOW))
+                .thenReturn(List.of(event(1L), event(2L)))
+                .thenReturn(List.of(event(3L)));
+
+        int delivered = relay.relayPending();
+
+        assertThat(delivered).isEqualTo(3);
+        assertThat(seen).containsExactly(1L, 2L, 3L);
+        verify(outboxEventRepository).markPublished(List.of(1L, 2L), NOW);
+        verify(outboxEventRepository).markPublished(List.of(3L), NOW);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void failedEventsStayPendingWithAttemptRecorded() {
+        OutboxEvent failing = event(2L);
+        OutboxRelayServiceImpl relay = relay(event -> {
+            if (event.getId() == 2L) {
+                throw new IllegalStateException("consumer down");
+            }
+        }, 2);
+        when(outboxEventRepository.claimBatch(2, 10, NOW)).thenReturn(List.of(event(1L), failing));
+
+        int delivered = relay.relayPending();
+
+        assertThat(delivered).isEqualTo(1);
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(failing.getLastError()).contains("consumer down");
+        assertThat(failing.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(1));
+        verify(outboxEventRepository).markPublished(List.of(1L), NOW);
+        verify(outboxEventRepository, times(1)).claimBatch(2, 10, NOW);
+    }
+
+    @Test
+    void retryDelayDoublesWithEachFailureUpToTheCap() {
+        OutboxEvent failing = event(1L);
+        OutboxRelayServiceImpl relay = relay(event -> {
+            throw new IllegalStateException("consumer down");
+        }, 2);
+        when(outboxEventRepository.claimBatch(2, 10, NOW)).thenReturn(List.of(failing));
+
+        List<Duration> delays = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            relay.relayPending();
+            delays.add(Duration.between(NOW, failing.getNextAttemptAt()));
+        }
+
+        assertThat(failing.getAttempts()).isEqualTo(5);
+        assertThat(delays).containsExactly(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(4),
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+
+    private OutboxRelayServiceImpl relay(OutboxEventConsumer consumer, int batchSize) {
+        return new OutboxRelayServiceImpl(outboxEventRepository, List.of(consumer), transactionManager,
+                batchSize, 10, 7, 1000, 5000, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static OutboxEvent event(Long id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setEventType("OrderPlaced");
+        event.setPayload("{}");
+        return event;
+    }
+}
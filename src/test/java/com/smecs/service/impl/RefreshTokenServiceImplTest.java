@@ -0,0 +1,115 @@
+package com.smecs.service.impl;
+
+import com.smecs.entity.RefreshToken;
+import com.smecs.exception.UnauthorizedException;
+import com.smecs.repository.RefreshTokenRepository;
+import com.smecs.security.SmecsUserPrincipal;
+import com.smecs.service.RefreshTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenServiceImpl refreshTokenService;
+    private String lastRawToken;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, 14);
+    }
+
+    @Test
+    void rotate_issuesSuccessorInSameFamilyWithStoredClaims() {
+        RefreshToken stored = issueAndCapture();
+        stored.setId(1L);
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(1L), any(Instant.class))).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(rawTokenFor(stored));
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).save(saved.capture());
+        RefreshToken successor = saved.getAllValues().get(1);
+        assertThat(successor.getFamilyId()).isEqualTo(stored.getFamilyId());
+        assertThat(successor.getTokenHash()).isNotEqualTo(stored.getTokenHash());
+        assertThat(rotation.principal().getUserId()).isEqualTo(7L);
+        assertThat(rotation.principal().getRole()).isEqualTo("admin");
+        assertThat(rotation.refreshToken()).isNotEqualTo(rawTokenFor(stored));
+    }
+
+    @Test
+    void rotate_keepsFamilyExpiryInsteadOfExtendingIt() {
+        RefreshToken stored = issueAndCapture();
+        stored.setId(1L);
+        Instant familyExpiry = Instant.now().plusSeconds(60);
+        stored.setExpiresAt(familyExpiry);
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(1L), any(Instant.class))).thenReturn(1);
+
+        refreshTokenService.rotate(rawTokenFor(stored));
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues().get(1).getExpiresAt()).isEqualTo(familyExpiry);
+    }
+
+    @Test
+    void revokeAllForUser_revokesEveryFamilyOfTheUser() {
+        refreshTokenService.revokeAllForUser(7L);
+
+        verify(refreshTokenRepository).revokeAllForUser(7L);
+    }
+
+    @Test
+    void rotate_revokesFamilyWhenTokenIsReused() {
+        RefreshToken stored = issueAndCapture();
+        stored.setId(1L);
+        stored.setUsedAt(Instant.now());
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(1L), any(Instant.class))).thenReturn(0);
+
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate(rawTokenFor(stored)));
+
+        verify(refreshTokenRepository).revokeFamily(stored.getFamilyId());
+    }
+
+    @Test
+    void rotate_rejectsExpiredToken() {
+        RefreshToken stored = issueAndCapture();
+        stored.setExpiresAt(Instant.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate(rawTokenFor(stored)));
+
+        verify(refreshTokenRepository, never()).markUsed(any(), any());
+    }
+
+    private RefreshToken issueAndCapture() {
+        lastRawToken = refreshTokenService.issue(new SmecsUserPrincipal(7L, "alice", "alice@example.com", "admin"));
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        return saved.getValue();
+    }
+
+    private String rawTokenFor(RefreshToken token) {
+        assertThat(TokenRevocationServiceImpl.hashTokenForKey(lastRawToken)).isEqualTo(token.getTokenHash());
+        return lastRawToken;
+    }
+}
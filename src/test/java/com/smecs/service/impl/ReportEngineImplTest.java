@@ -0,0 +1,118 @@
+package com.smecs.service.impl;
+
+import com.smecs.util.ReportScope.State;
+import com.smecs.util.ReportScope.Subtask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReportEngineImplTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void strictReportFailsFastAndInterruptsSiblings() {
+        ReportEngineImpl engine = new ReportEngineImpl(executor, 5_000, 4);
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+
+        CompletableFuture<String> report = engine.run(false, scope -> {
+            scope.fork(() -> {
+                siblingStarted.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    siblingInterrupted.set(true);
+                }
+                return 1L;
+            });
+            scope.fork(() -> {
+                siblingStarted.await();
+                throw new IllegalStateException("query failed");
+            });
+            scope.join();
+            return "unreachable";
+        });
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> report.get(5, TimeUnit.SECONDS));
+        assertThat(failure.getCause()).isInstanceOf(IllegalStateException.class).hasMessage("query failed");
+        waitUntil(siblingInterrupted);
+    }
+
+    @Test
+    void strictReportTimesOutAtDeadline() {
+        ReportEngineImpl engine = new ReportEngineImpl(executor, 100, 4);
+
+        CompletableFuture<Long> report = engine.run(false, scope -> {
+            Subtask<Long> slow = scope.fork(() -> {
+                Thread.sleep(10_000);
+                return 1L;
+            });
+            scope.join();
+            return slow.get();
+        });
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> report.get(5, TimeUnit.SECONDS));
+        assertThat(failure.getCause()).isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    void partialReportKeepsCompletedSections() throws Exception {
+        ReportEngineImpl engine = new ReportEngineImpl(executor, 200, 4);
+
+        CompletableFuture<String> report = engine.run(true, scope -> {
+            Subtask<String> fast = scope.fork(() -> "fast");
+            Subtask<String> failing = scope.fork(() -> {
+                throw new IllegalStateException("boom");
+            });
+            Subtask<String> slow = scope.fork(() -> {
+                Thread.sleep(10_000);
+                return "slow";
+            });
+            scope.join();
+            assertThat(failing.state()).isEqualTo(State.FAILED);
+            assertThat(slow.state()).isEqualTo(State.UNAVAILABLE);
+            assertThat(scope.isPartial()).isTrue();
+            return fast.get() + "," + failing.getOrElse("-") + "," + slow.getOrElse("-");
+        });
+
+        assertThat(report.get(5, TimeUnit.SECONDS)).isEqualTo("fast,-,-");
+    }
+
+    @Test
+    void rejectsReportsOverConcurrencyCap() throws Exception {
+        ReportEngineImpl engine = new ReportEngineImpl(executor, 5_000, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = engine.run(false, scope -> {
+            release.await();
+            return "done";
+        });
+        CompletableFuture<String> second = engine.run(false, scope -> "never");
+
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertThat(rejected.getCause()).isInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(engine.run(false, scope -> "again").get(5, TimeUnit.SECONDS)).isEqualTo("again");
+    }
+
+    private static void waitUntil(AtomicBoolean flag) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!flag.get() && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(flag).isTrue();
+    }
+}
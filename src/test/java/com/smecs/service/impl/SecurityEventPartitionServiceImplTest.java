@@ -0,0 +1,119 @@
+package com.smecs.service.impl;
+
+import com.smecs.repository.SecurityEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityEventPartitionServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private SecurityEventRepository securityEventRepository;
+
+    private SecurityEventPartitionServiceImpl partitionService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2026-03-10T12:00:00Z"), ZoneOffset.UTC);
+        partitionService = new SecurityEventPartitionServiceImpl(securityEventRepository, 30, 2, false, clock);
+    }
+
+    @Test
+    void maintainPartitions_createsUpcomingDaysAndDropsExpiredOnes() {
+        when(securityEventRepository.isPartitioned()).thenReturn(true);
+        when(securityEventRepository.findPartitionDays()).thenReturn(List.of(
+                TODAY.minusDays(31), TODAY.minusDays(30), TODAY));
+
+        partitionService.maintainPartitions();
+
+        verify(securityEventRepository).createPartition(TODAY);
+        verify(securityEventRepository).createPartition(TODAY.plusDays(1));
+        verify(securityEventRepository).createPartition(TODAY.plusDays(2));
+        verify(securityEventRepository).dropPartition(TODAY.minusDays(31));
+        verify(securityEventRepository, never()).dropPartition(TODAY.minusDays(30));
+        verify(securityEventRepository, never()).dropPartition(TODAY);
+        verify(securityEventRepository).purgeDefaultPartition(TODAY.minusDays(30));
+    }
+
+    @Test
+    void maintainPartitions_skipsPlainTable() {
+        when(securityEventRepository.isPartitioned()).thenReturn(false);
+
+        partitionService.maintainPartitions();
+
+        verify(securityEventRepository, never()).createPartition(any());
+        verify(securityEventRepository, never()).dropPartition(any());
+    }
+
+    @Test
+    void initializePartitions_convertsPlainTableOnce() {
+        when(securityEventRepository.isPartitioned()).thenReturn(false, true);
+        when(securityEventRepository.hasRowsBefore(TODAY.minusDays(30))).thenReturn(false);
+        when(securityEventRepository.convertToPartitioned(TODAY.minusDays(30), TODAY.plusDays(2))).thenReturn(true);
+        when(securityEventRepository.findPartitionDays()).thenReturn(List.of());
+
+        partitionService.initializePartitions();
+
+        verify(securityEventRepository).convertToPartitioned(TODAY.minusDays(30), TODAY.plusDays(2));
+
+        reset(securityEventRepository);
+        when(securityEventRepository.isPartitioned()).thenReturn(true);
+        when(securityEventRepository.findPartitionDays()).thenReturn(List.of());
+
+        partitionService.initializePartitions();
+
+        verify(securityEventRepository, never()).convertToPartitioned(any(), any());
+    }
+
+    @Test
+    void initializePartitions_keepsExpiredRowsWithoutOptIn() {
+        when(securityEventRepository.isPartitioned()).thenReturn(false);
+        when(securityEventRepository.hasRowsBefore(TODAY.minusDays(30))).thenReturn(true);
+
+        partitionService.initializePartitions();
+
+        verify(securityEventRepository, never()).convertToPartitioned(any(), any());
+        verify(securityEventRepository, never()).createPartition(any());
+    }
+
+    @Test
+    void initializePartitions_discardsExpiredRowsWhenOptedIn() {
+        Clock clock = Clock.fixed(Instant.parse("2026-03-10T12:00:00Z"), ZoneOffset.UTC);
+        partitionService = new SecurityEventPartitionServiceImpl(securityEventRepository, 30, 2, true, clock);
+        when(securityEventRepository.isPartitioned()).thenReturn(false, true);
+        when(securityEventRepository.hasRowsBefore(TODAY.minusDays(30))).thenReturn(true);
+        when(securityEventRepository.convertToPartitioned(TODAY.minusDays(30), TODAY.plusDays(2))).thenReturn(true);
+        when(securityEventRepository.findPartitionDays()).thenReturn(List.of());
+
+        partitionService.initializePartitions();
+
+        verify(securityEventRepository).convertToPartitioned(TODAY.minusDays(30), TODAY.plusDays(2));
+    }
+
+    @Test
+    void initializePartitions_nodeThatLosesTheConversionRaceStillMaintains() {
+        // Both nodes saw a plain table; the other one converted while this one waited for the lock.
+        when(securityEventRepository.isPartitioned()).thenReturn(false, true);
+        when(securityEventRepository.hasRowsBefore(TODAY.minusDays(30))).thenReturn(false);
+        when(securityEventRepository.convertToPartitioned(TODAY.minusDays(30), TODAY.plusDays(2))).thenReturn(false);
+        when(securityEventRepository.findPartitionDays()).thenReturn(List.of(TODAY));
+
+        partitionService.initializePartitions();
+
+        verify(securityEventRepository).createPartition(TODAY.plusDays(1));
+    }
+}
@@ -0,0 +1,191 @@
+package com.smecs.service.impl;
+
+import com.smecs.dto.SecurityEventIpCountDTO;
+import com.smecs.dto.SecurityEventUserCountDTO;
+import com.smecs.entity.SecurityEvent;
+import com.smecs.entity.SecurityEventSketch;
+import com.smecs.entity.SecurityEventType;
+import com.smecs.repository.SecurityEventSketchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityEventSketchServiceImplTest {
+
+    @Mock
+    private SecurityEventSketchRepository sketchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SecurityEventSketchServiceImpl sketchService;
+
+    private final Instant hour = Instant.now().truncatedTo(ChronoUnit.HOURS);
+
+    @BeforeEach
+    void setUp() {
+        sketchService = new SecurityEventSketchServiceImpl(sketchRepository, transactionManager, 720);
+    }
+
+    @Test
+    void reportsCountsAndHeavyHittersFromRecordedEvents() {
+        for (int i = 0; i < 5; i++) {
+            sketchService.record(event(SecurityEventType.LOGIN_FAILURE, 1L, "alice", "10.0.0.1", "/api/auth/login"));
+        }
+        sketchService.record(event(SecurityEventType.LOGIN_FAILURE, null, "bob", "10.0.0.2", "/api/auth/login"));
+        sketchService.record(event(SecurityEventType.TOKEN_VALID, 1L, "alice", "10.0.0.1", "/api/orders"));
+
+        Instant end = hour.plus(59, ChronoUnit.MINUTES);
+        Set<SecurityEventType> failures = Set.of(SecurityEventType.LOGIN_FAILURE);
+
+        List<SecurityEventUserCountDTO> users = sketchService.findTopUsers(failures, hour, end, 1);
+        assertThat(users).hasSize(1);
+        assertThat(users.get(0).getUserId()).isEqualTo(1L);
+        assertThat(users.get(0).getUsername()).isEqualTo("alice");
+        assertThat(users.get(0).getCount()).isEqualTo(5);
+
+        List<SecurityEventIpCountDTO> ips = sketchService.findTopIps(failures, hour, end, 10);
+        assertThat(ips).extracting(SecurityEventIpCountDTO::getIpAddress).containsExactly("10.0.0.1", "10.0.0.2");
+
+        assertThat(sketchService.countEvents(hour, end)).isEqualTo(7);
+        assertThat(sketchService.countEvents(SecurityEventType.TOKEN_VALID, hour, end)).isEqualTo(1);
+        assertThat(sketchService.countDistinctEndpoints(hour, end)).isEqualTo(2);
+        assertThat(sketchService.countEvents(hour.minus(2, ChronoUnit.HOURS), hour.minusSeconds(1))).isZero();
+    }
+
+    @Test
+    void flushPersistsDirtyBucketsThatReloadAfterRestart() {
+        sketchService.record(event(SecurityEventType.TOKEN_ISSUED, 3L, "carol", "10.0.0.3", "/api/auth/login"));
+        when(sketchRepository.findByBucketStart(hour)).thenReturn(Optional.empty());
+
+        sketchService.flush();
+        sketchService.flush();
+
+        ArgumentCaptor<SecurityEventSketch> saved = ArgumentCaptor.forClass(SecurityEventSketch.class);
+        verify(sketchRepository, times(1)).save(saved.capture());
+        assertThat(saved.getValue().getBucketStart()).isEqualTo(hour);
+
+        SecurityEventSketchServiceImpl restarted =
+                new SecurityEventSketchServiceImpl(sketchRepository, transactionManager, 720);
+        when(sketchRepository.findByBucketStartGreaterThanEqual(any(Instant.class))).thenReturn(List.of(saved.getValue()));
+        restarted.loadPersistedSketches();
+
+        assertThat(restarted.countEvents(SecurityEventType.TOKEN_ISSUED, hour, hour.plusSeconds(60))).isEqualTo(1);
+        assertThat(restarted.findTopEndpoints(hour, hour.plusSeconds(60), 5))
+                .singleElement()
+                .satisfies(endpoint -> assertThat(endpoint.getEndpoint()).isEqualTo("/api/auth/login"));
+    }
+
+    @Test
+    void flushMergesIntoSketchStoredByAnotherNode() {
+        SecurityEventSketchServiceImpl otherNode =
+                new SecurityEventSketchServiceImpl(sketchRepository, transactionManager, 720);
+        otherNode.record(event(SecurityEventType.LOGIN_FAILURE, 1L, "alice", "10.0.0.1", "/api/auth/login"));
+        otherNode.record(event(SecurityEventType.LOGIN_FAILURE, 1L, "alice", "10.0.0.1", "/api/auth/login"));
+        when(sketchRepository.findByBucketStart(hour)).thenReturn(Optional.empty());
+        otherNode.flush();
+        ArgumentCaptor<SecurityEventSketch> stored = ArgumentCaptor.forClass(SecurityEventSketch.class);
+        verify(sketchRepository).save(stored.capture());
+
+        sketchService.record(event(SecurityEventType.LOGIN_FAILURE, 1L, "alice", "10.0.0.1", "/api/orders"));
+        when(sketchRepository.findByBucketStart(hour)).thenReturn(Optional.of(stored.getValue()));
+        sketchService.flush();
+
+        ArgumentCaptor<SecurityEventSketch> merged = ArgumentCaptor.forClass(SecurityEventSketch.class);
+        verify(sketchRepository, times(2)).save(merged.capture());
+        SecurityEventSketchServiceImpl restarted = reloadedFrom(merged.getValue());
+        Instant end = hour.plusSeconds(60);
+        assertThat(restarted.countEvents(SecurityEventType.LOGIN_FAILURE, hour, end)).isEqualTo(3);
+        assertThat(restarted.findTopUsers(Set.of(SecurityEventType.LOGIN_FAILURE), hour, end, 1))
+                .singleElement()
+                .satisfies(user -> assertThat(user.getCount()).isEqualTo(3));
+        assertThat(restarted.countDistinctEndpoints(hour, end)).isEqualTo(2);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void reportsIncludeEventsOtherNodesMergedIntoTheStoredSketch() {
+        SecurityEventSketchServiceImpl nodeA = sketchService;
+        SecurityEventSketchServiceImpl nodeB =
+                new SecurityEventSketchServiceImpl(sketchRepository, transactionManager, 720);
+        Instant end = hour.plusSeconds(60);
+        when(sketchRepository.findByBucketStart(hour)).thenReturn(Optional.empty());
+        nodeB.record(event(SecurityEventType.LOGIN_FAILURE, 1L, "alice", "10.0.0.1", "/api/auth/login"));
+        nodeB.record(event(SecurityEventType.LOGIN_FAILURE, 1L, "alice", "10.0.0.1", "/api/auth/login"));
+        nodeB.flush();
+        ArgumentCaptor<SecurityEventSketch> saved = ArgumentCaptor.forClass(SecurityEventSketch.class);
+        verify(sketchRepository).save(saved.capture());
+        SecurityEventSketch row = saved.getValue();
+
+        // Node A merges its own event into B's row, then refreshes from the merged row.
+        nodeA.record(event(SecurityEventType.LOGIN_FAILURE, 2L, "bob", "10.0.0.2", "/api/orders"));
+        when(sketchRepository.findByBucketStart(hour)).thenReturn(Optional.of(row));
+        when(sketchRepository.findByBucketStartGreaterThanEqual(any(Instant.class))).thenReturn(List.of(row));
+        nodeA.flush();
+        assertThat(nodeA.countEvents(SecurityEventType.LOGIN_FAILURE, hour, end)).isEqualTo(3);
+
+        // Node B picks the merged row up on its next flush, keeping its own unflushed event on top.
+        nodeB.record(event(SecurityEventType.TOKEN_VALID, 1L, "alice", "10.0.0.1", "/api/orders"));
+        when(sketchRepository.findByBucketStart(hour)).thenThrow(new IllegalStateException("lock timeout"));
+        when(sketchRepository.findByUpdatedAtGreaterThanEqual(any(Instant.class))).thenReturn(List.of(row));
+        nodeB.flush();
+        assertThat(nodeB.countEvents(SecurityEventType.LOGIN_FAILURE, hour, end)).isEqualTo(3);
+        assertThat(nodeB.countEvents(SecurityEventType.TOKEN_VALID, hour, end)).isEqualTo(1);
+        assertThat(nodeB.findTopIps(Set.of(SecurityEventType.LOGIN_FAILURE), hour, end, 10))
+                .extracting(SecurityEventIpCountDTO::getIpAddress)
+                .containsExactly("10.0.0.1", "10.0.0.2");
+    }
+
+    @Test
+    void failedFlushKeepsPendingEventsForTheNextFlush() {
+        sketchService.record(event(SecurityEventType.TOKEN_INVALID, 2L, "dave", "10.0.0.4", "/api/orders"));
+        when(sketchRepository.findByBucketStart(hour)).thenReturn(Optional.empty());
+        when(sketchRepository.save(any(SecurityEventSketch.class)))
+                .thenThrow(new IllegalStateException("duplicate key"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        sketchService.flush();
+        sketchService.record(event(SecurityEventType.TOKEN_INVALID, 2L, "dave", "10.0.0.4", "/api/orders"));
+        sketchService.flush();
+
+        ArgumentCaptor<SecurityEventSketch> saved = ArgumentCaptor.forClass(SecurityEventSketch.class);
+        verify(sketchRepository, times(2)).save(saved.capture());
+        SecurityEventSketchServiceImpl restarted = reloadedFrom(saved.getValue());
+        assertThat(restarted.countEvents(SecurityEventType.TOKEN_INVALID, hour, hour.plusSeconds(60))).isEqualTo(2);
+        verify(transactionManager).rollback(any());
+    }
+
+    private SecurityEventSketchServiceImpl reloadedFrom(SecurityEventSketch row) {
+        SecurityEventSketchServiceImpl restarted =
+                new SecurityEventSketchServiceImpl(sketchRepository, transactionManager, 720);
+        when(sketchRepository.findByBucketStartGreaterThanEqual(any(Instant.class))).thenReturn(List.of(row));
+        restarted.loadPersistedSketches();
+        return restarted;
+    }
+
+    private SecurityEvent event(SecurityEventType type, Long userId, String username, String ip, String endpoint) {
+        SecurityEvent event = new SecurityEvent();
+        event.setEventType(type);
+        event.setUserId(userId);
+        event.setUsername(username);
+        event.setIpAddress(ip);
+        event.setEndpoint(endpoint);
+        event.setCreatedAt(hour.plusSeconds(30));
+        return event;
+    }
+}
@@ -1,10 +1,13 @@
 package com.smecs.service.impl;
 
+import com.smecs.dto.UserDirectoryEntry;
 import com.smecs.dto.UserRegisterDTO;
 import com.smecs.entity.User;
 import com.smecs.exception.UnauthorizedException;
 import com.smecs.repository.UserRepository;
 import com.smecs.security.SmecsUserPrincipal;
+import com.smecs.service.RefreshTokenService;
+import com.smecs.service.UserDirectoryService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,13 +17,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
@@ -31,6 +39,12 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserDirectoryService userDirectory;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -60,6 +74,7 @@ class UserServiceImplTest {
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(42L);
+        verify(userDirectory).put(result);
     }
 
     @Test
@@ -108,10 +123,110 @@ class UserServiceImplTest {
         assertThrows(IllegalArgumentException.class, () -> userService.deleteUser(0L));
     }
 
+    @Test
+    void deleteUser_revokesRefreshTokens() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+        user.setRole("CUSTOMER");
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        userService.deleteUser(7L);
+
+        verify(userRepository).deleteById(7L);
+        verify(refreshTokenService).revokeAllForUser(7L);
+        verify(userDirectory).evict(UserDirectoryEntry.from(user));
+    }
+
+    @Test
+    void deleteUser_evictsDirectoryOnlyAfterCommit() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("alice");
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.deleteUser(7L);
+            verifyNoInteractions(userDirectory);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(userDirectory).evict(UserDirectoryEntry.from(user));
+    }
+
+    @Test
+    void changeRole_updatesRoleAndRevokesRefreshTokens() {
+        User user = new User();
+        user.setId(7L);
+        user.setRole("ADMIN");
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+        User result = userService.changeRole(7L, "customer");
+
+        assertThat(result.getRole()).isEqualTo("CUSTOMER");
+        verify(refreshTokenService).revokeAllForUser(7L);
+        verify(userDirectory).put(user);
+    }
+
+    @Test
+    void changeRole_leavesTokensAloneWhenRoleIsUnchanged() {
+        User user = new User();
+        user.setId(7L);
+        user.setRole("STAFF");
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        userService.changeRole(7L, "staff");
+
+        verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(refreshTokenService);
+    }
+
     @Test
     void findByUsername_returnsNullWhenMissing() {
-        when(userRepository.findByUsername("missing")).thenReturn(Optional.empty());
+        when(userDirectory.findByUsername("missing")).thenReturn(Optional.empty());
 
         assertThat(userService.findByUsername("missing")).isNull();
     }
+
+    @Test
+    void findOrCreateOAuthUser_readsLinkedUserFromDatabaseNotDirectory() {
+        User linked = new User();
+        linked.setId(7L);
+        linked.setRole("CUSTOMER");
+        when(userRepository.findByProviderAndProviderId("google", "sub-1")).thenReturn(Optional.of(linked));
+
+        User result = userService.findOrCreateOAuthUser(oauthUser("sub-1", "jane@example.com", "Jane Doe"), "google");
+
+        assertThat(result.getId()).isEqualTo(7L);
+        verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(userDirectory);
+    }
+
+    @Test
+    void findOrCreateOAuthUser_picksLowestFreeSuffixFromOnePrefixQuery() {
+        when(userRepository.findByProviderAndProviderId("google", "sub-2")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("jane@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findUsernamesStartingWith("jane.doe"))
+                .thenReturn(List.of("jane.doe", "jane.doe1", "jane.doe3", "jane.doerty"));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User result = userService.findOrCreateOAuthUser(oauthUser("sub-2", "jane@example.com", "Jane  Doe"), "google");
+
+        assertThat(result.getUsername()).isEqualTo("jane.doe2");
+        assertThat(result.getProviderId()).isEqualTo("sub-2");
+        verify(userRepository, never()).existsByUsername(any());
+        verify(userDirectory).put(result);
+    }
+
+    private OAuth2User oauthUser(String sub, String email, String name) {
+        OAuth2User oAuth2User = mock(OAuth2User.class);
+        Map<String, Object> attributes = Map.of("sub", sub, "email", email, "name", name);
+        when(oAuth2User.getAttribute(any())).thenAnswer(invocation -> attributes.get(invocation.<String>getArgument(0)));
+        return oAuth2User;
+    }
 }